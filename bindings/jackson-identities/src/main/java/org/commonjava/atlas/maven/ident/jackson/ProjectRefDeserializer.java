@@ -19,7 +19,9 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.commonjava.atlas.maven.ident.ref.InvalidRefException;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
 
 import java.io.IOException;
 
@@ -33,16 +35,27 @@ public class ProjectRefDeserializer<T extends ProjectRef>
 
     private final Class<T> refCls;
 
+    private final RefParser<T> parser;
+
     public ProjectRefDeserializer( final Class<T> refCls )
     {
         super( refCls );
         this.refCls = refCls;
+        this.parser = RefParser.forType( refCls );
     }
 
     @Override
     public T deserialize( final JsonParser jp, final DeserializationContext ctxt )
             throws IOException, JsonProcessingException
     {
-        return SerializerIdentityUtils.parse( jp.getText(), refCls );
+        final String value = jp.getText();
+        try
+        {
+            return parser.parse( value );
+        }
+        catch ( final InvalidRefException | InvalidVersionSpecificationException e )
+        {
+            throw ctxt.weirdStringException( value, refCls, e.getMessage() );
+        }
     }
 }
@@ -18,7 +18,10 @@ package org.commonjava.atlas.maven.ident.jackson;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.KeyDeserializer;
+import org.commonjava.atlas.maven.ident.ref.InvalidRefException;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.util.ParseCache;
+import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
 
 import java.io.IOException;
 
@@ -32,15 +35,52 @@ public class ProjectRefKeyDeserializer<T extends ProjectRef>
 
     private final Class<T> refCls;
 
+    private final RefParser<T> parser;
+
+    private final transient ParseCache<T> cache;
+
     public ProjectRefKeyDeserializer( final Class<T> type )
+    {
+        this( type, 0 );
+    }
+
+    /**
+     * @param cacheSize if positive, keep up to this many parsed keys so a key string that recurs (within or across
+     * documents) costs a lookup rather than a parse. Invalid keys are never cached.
+     */
+    public ProjectRefKeyDeserializer( final Class<T> type, final int cacheSize )
     {
         this.refCls = type;
+        this.parser = RefParser.forType( type );
+        this.cache = cacheSize > 0 ? new ParseCache<T>( cacheSize, new ParseCache.Parser<T>()
+        {
+            @Override
+            public T parse( final String key )
+            {
+                return parser.parse( key );
+            }
+        } ) : null;
+    }
+
+    /**
+     * @return the key cache (for statistics), or null if caching is disabled
+     */
+    public ParseCache<T> getCache()
+    {
+        return cache;
     }
 
     @Override
     public Object deserializeKey( String key, DeserializationContext ctxt )
             throws IOException, JsonProcessingException
     {
-        return SerializerIdentityUtils.parse( key, refCls );
+        try
+        {
+            return cache == null ? parser.parse( key ) : cache.get( key );
+        }
+        catch ( final InvalidRefException | InvalidVersionSpecificationException e )
+        {
+            throw ctxt.weirdKeyException( refCls, key, e.getMessage() );
+        }
     }
 }
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
 
 import java.io.IOException;
 
@@ -43,8 +44,15 @@ public final class ProjectRefSerializer<T extends ProjectRef>
     {
         if ( keySer )
         {
+            // field names have to be Strings; SimpleProjectRef caches its rendering, so this is built once per ref
             generator.writeFieldName( src.toString() );
         }
+        else if ( src instanceof SimpleProjectRef )
+        {
+            final RefCharBuffer buffer = RefCharBuffer.get();
+            ( (SimpleProjectRef) src ).renderTo( buffer );
+            generator.writeString( buffer.chars(), 0, buffer.length() );
+        }
         else
         {
             generator.writeString( src.toString() );
@@ -51,9 +51,22 @@ public class ProjectVersionRefSerializerModule
 
     public static final ProjectVersionRefSerializerModule INSTANCE = new ProjectVersionRefSerializerModule();
 
+    private final int keyCacheSize;
+
     public ProjectVersionRefSerializerModule()
+    {
+        this( 0 );
+    }
+
+    /**
+     * @param keyCacheSize if positive, map keys of each ref type are parsed through a cache of this many entries,
+     * owned by this module instance (and so shared by every mapper it's registered with). Registering it alongside
+     * {@link #INSTANCE} works; whichever module is registered last wins.
+     */
+    public ProjectVersionRefSerializerModule( final int keyCacheSize )
     {
         super( "ProjectRef (with variants) Serializer" );
+        this.keyCacheSize = keyCacheSize;
 
         for ( Class<? extends ProjectRef> cls: REF_CLASSES )
         {
@@ -61,6 +74,21 @@ public class ProjectVersionRefSerializerModule
         }
     }
 
+    public int getKeyCacheSize()
+    {
+        return keyCacheSize;
+    }
+
+    /**
+     * Jackson skips registering a module whose type id it has already seen, so instances with different key cache
+     * sizes need distinct ids; otherwise a cached module registered after {@link #INSTANCE} would silently do nothing.
+     */
+    @Override
+    public Object getTypeId()
+    {
+        return keyCacheSize > 0 ? getClass().getName() + ":keyCache=" + keyCacheSize : getClass().getName();
+    }
+
     private <T extends ProjectRef> void register( Class<T> cls )
     {
         Logger logger = LoggerFactory.getLogger( getClass() );
@@ -70,19 +98,20 @@ public class ProjectVersionRefSerializerModule
         addKeySerializer( cls, new ProjectRefSerializer<T>( cls, true ) );
 
         addDeserializer( cls, new ProjectRefDeserializer<T>( cls ) );
-        addKeyDeserializer( cls, new ProjectRefKeyDeserializer<T>( cls ) );
+        addKeyDeserializer( cls, new ProjectRefKeyDeserializer<T>( cls, keyCacheSize ) );
     }
 
     @Override
     public int hashCode()
     {
-        return getClass().getSimpleName().hashCode() + 17;
+        return getClass().getSimpleName().hashCode() + 17 + 31 * keyCacheSize;
     }
 
     @Override
     public boolean equals( final Object other )
     {
-        return getClass().equals( other.getClass() );
+        return getClass().equals( other.getClass() )
+                && keyCacheSize == ( (ProjectVersionRefSerializerModule) other ).keyCacheSize;
     }
 
 }
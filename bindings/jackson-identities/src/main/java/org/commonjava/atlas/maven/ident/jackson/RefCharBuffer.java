@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.jackson;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, per-thread character buffer that refs render into (see
+ * {@link org.commonjava.atlas.maven.ident.ref.SimpleProjectRef#renderTo(Appendable)}) before being handed to
+ * {@link com.fasterxml.jackson.core.JsonGenerator#writeString(char[], int, int)}, so writing a ref allocates nothing.
+ */
+final class RefCharBuffer
+        implements Appendable
+{
+
+    private static final int INITIAL_SIZE = 128;
+
+    private static final ThreadLocal<RefCharBuffer> BUFFERS = new ThreadLocal<RefCharBuffer>()
+    {
+        @Override
+        protected RefCharBuffer initialValue()
+        {
+            return new RefCharBuffer();
+        }
+    };
+
+    private char[] chars = new char[INITIAL_SIZE];
+
+    private int length;
+
+    private RefCharBuffer()
+    {
+    }
+
+    /**
+     * @return this thread's buffer, emptied. Only valid until the next call on the same thread.
+     */
+    static RefCharBuffer get()
+    {
+        final RefCharBuffer buffer = BUFFERS.get();
+        buffer.length = 0;
+        return buffer;
+    }
+
+    char[] chars()
+    {
+        return chars;
+    }
+
+    int length()
+    {
+        return length;
+    }
+
+    @Override
+    public RefCharBuffer append( final CharSequence csq )
+    {
+        final CharSequence value = csq == null ? "null" : csq;
+        return append( value, 0, value.length() );
+    }
+
+    @Override
+    public RefCharBuffer append( final CharSequence csq, final int start, final int end )
+    {
+        if ( csq == null )
+        {
+            return append( "null", start, end );
+        }
+
+        ensureCapacity( length + end - start );
+        if ( csq instanceof String )
+        {
+            ( (String) csq ).getChars( start, end, chars, length );
+            length += end - start;
+        }
+        else
+        {
+            for ( int i = start; i < end; i++ )
+            {
+                chars[length++] = csq.charAt( i );
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    public RefCharBuffer append( final char c )
+    {
+        ensureCapacity( length + 1 );
+        chars[length++] = c;
+        return this;
+    }
+
+    private void ensureCapacity( final int capacity )
+    {
+        if ( capacity > chars.length )
+        {
+            chars = Arrays.copyOf( chars, Math.max( capacity, chars.length * 2 ) );
+        }
+    }
+
+}
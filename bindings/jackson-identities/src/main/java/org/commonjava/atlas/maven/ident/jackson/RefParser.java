@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.jackson;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleVersionlessArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.VersionlessArtifactRef;
+
+import java.io.Serializable;
+
+/**
+ * Parses ref strings into a particular ref type. Resolved once per target class via {@link #forType(Class)}, so the
+ * deserializers call the right <code>parse()</code> directly instead of looking it up for every value.
+ */
+public abstract class RefParser<T extends ProjectRef>
+        implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    protected final Class<T> type;
+
+    protected RefParser( final Class<T> type )
+    {
+        this.type = type;
+    }
+
+    /**
+     * @throws org.commonjava.atlas.maven.ident.ref.InvalidRefException if the value isn't a valid ref
+     * @throws org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException if its version is invalid
+     */
+    public abstract T parse( String value );
+
+    public Class<T> getType()
+    {
+        return type;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no parser that produces the given type
+     */
+    public static <T extends ProjectRef> RefParser<T> forType( final Class<T> type )
+    {
+        if ( ArtifactRef.class.isAssignableFrom( type ) )
+        {
+            return new ArtifactRefParser<T>( type );
+        }
+        else if ( VersionlessArtifactRef.class.isAssignableFrom( type ) )
+        {
+            return new VersionlessArtifactRefParser<T>( type );
+        }
+        else if ( ProjectVersionRef.class.isAssignableFrom( type ) )
+        {
+            return new ProjectVersionRefParser<T>( type );
+        }
+        else if ( ProjectRef.class.isAssignableFrom( type ) )
+        {
+            return new ProjectRefParser<T>( type );
+        }
+
+        throw new IllegalArgumentException(
+                "Cannot find acceptable deserialization target class to parse: " + type.getSimpleName() );
+    }
+
+    private static final class ArtifactRefParser<T extends ProjectRef>
+            extends RefParser<T>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private ArtifactRefParser( final Class<T> type )
+        {
+            super( type );
+        }
+
+        @Override
+        public T parse( final String value )
+        {
+            return type.cast( SimpleArtifactRef.parse( value ) );
+        }
+    }
+
+    private static final class VersionlessArtifactRefParser<T extends ProjectRef>
+            extends RefParser<T>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private VersionlessArtifactRefParser( final Class<T> type )
+        {
+            super( type );
+        }
+
+        @Override
+        public T parse( final String value )
+        {
+            return type.cast( SimpleVersionlessArtifactRef.parse( value ) );
+        }
+    }
+
+    private static final class ProjectVersionRefParser<T extends ProjectRef>
+            extends RefParser<T>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private ProjectVersionRefParser( final Class<T> type )
+        {
+            super( type );
+        }
+
+        @Override
+        public T parse( final String value )
+        {
+            return type.cast( SimpleProjectVersionRef.parse( value ) );
+        }
+    }
+
+    private static final class ProjectRefParser<T extends ProjectRef>
+            extends RefParser<T>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private ProjectRefParser( final Class<T> type )
+        {
+            super( type );
+        }
+
+        @Override
+        public T parse( final String value )
+        {
+            return type.cast( SimpleProjectRef.parse( value ) );
+        }
+    }
+
+}
@@ -15,18 +15,11 @@
  */
 package org.commonjava.atlas.maven.ident.jackson;
 
-import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.InvalidRefException;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
-import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
-import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
-import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
-import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
-import org.commonjava.atlas.maven.ident.ref.SimpleVersionlessArtifactRef;
-import org.commonjava.atlas.maven.ident.ref.VersionlessArtifactRef;
+import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 
 /**
  * Created by jdcasey on 8/26/15.
@@ -35,47 +28,30 @@ public final class SerializerIdentityUtils
 {
     private SerializerIdentityUtils(){}
 
+    /**
+     * One-off parse. Resolves the {@link RefParser} on every call; hold on to the result of
+     * {@link RefParser#forType(Class)} instead when parsing many values of the same type.
+     */
     public static <T extends ProjectRef> T parse( final String value, final Class<T> type )
             throws IOException
     {
-        Class<?> realType = null;
-        if ( ArtifactRef.class.isAssignableFrom( type ) )
-        {
-            realType = SimpleArtifactRef.class;
-        }
-        else if ( VersionlessArtifactRef.class.isAssignableFrom( type ) )
-        {
-            realType = SimpleVersionlessArtifactRef.class;
-        }
-        else if ( ProjectVersionRef.class.isAssignableFrom( type ) )
-        {
-            realType = SimpleProjectVersionRef.class;
-        }
-        else if ( ProjectRef.class.isAssignableFrom( type ) )
+        final RefParser<T> parser;
+        try
         {
-            realType = SimpleProjectRef.class;
+            parser = RefParser.forType( type );
         }
-        else
+        catch ( final IllegalArgumentException e )
         {
-            throw new IOException( "Cannot find acceptable deserialization target class to parse: " + type.getSimpleName() );
+            throw new IOException( e.getMessage(), e );
         }
 
         try
         {
-            final Method parseMethod = realType.getMethod( "parse", String.class );
-            return type.cast( parseMethod.invoke( null, value ) );
-        }
-        catch ( final NoSuchMethodException e )
-        {
-            throw new IOException( "Failed to lookup/invoke parse() method on " + type.getSimpleName(), e );
-        }
-        catch ( final IllegalAccessException e )
-        {
-            throw new IOException( "Failed to lookup/invoke parse() method on " + type.getSimpleName(), e );
+            return parser.parse( value );
         }
-        catch ( final InvocationTargetException e )
+        catch ( final InvalidRefException | InvalidVersionSpecificationException e )
         {
-            throw new IOException( "Failed to lookup/invoke parse() method on " + type.getSimpleName(), e );
+            throw new IOException( "Failed to parse " + type.getSimpleName() + " from: '" + value + "'", e );
         }
     }
 
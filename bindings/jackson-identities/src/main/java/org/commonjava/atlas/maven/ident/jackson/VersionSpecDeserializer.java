@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.commonjava.atlas.maven.ident.util.ParseCache;
+import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
+import org.commonjava.atlas.maven.ident.version.VersionSpec;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link VersionSpec} of the given type from a string, through the (optional) shared parse cache.
+ */
+public class VersionSpecDeserializer<T extends VersionSpec>
+        extends StdDeserializer<T>
+{
+    private static final long serialVersionUID = 1L;
+
+    private final VersionSpecParser<T> parser;
+
+    public VersionSpecDeserializer( final Class<T> cls )
+    {
+        this( cls, null );
+    }
+
+    public VersionSpecDeserializer( final Class<T> cls, final ParseCache<VersionSpec> cache )
+    {
+        super( cls );
+        this.parser = new VersionSpecParser<T>( cls, cache );
+    }
+
+    @Override
+    public T deserialize( final JsonParser jp, final DeserializationContext ctxt )
+            throws IOException
+    {
+        final String value = jp.getText();
+        try
+        {
+            return parser.parse( value );
+        }
+        catch ( final InvalidVersionSpecificationException e )
+        {
+            throw ctxt.weirdStringException( value, parser.getType(), e.getMessage() );
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.jackson;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+import org.commonjava.atlas.maven.ident.util.ParseCache;
+import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
+import org.commonjava.atlas.maven.ident.version.VersionSpec;
+
+import java.io.IOException;
+
+/**
+ * Reads version-keyed map keys, through the (optional) shared parse cache.
+ */
+public class VersionSpecKeyDeserializer<T extends VersionSpec>
+        extends KeyDeserializer
+{
+    private final VersionSpecParser<T> parser;
+
+    public VersionSpecKeyDeserializer( final Class<T> cls )
+    {
+        this( cls, null );
+    }
+
+    public VersionSpecKeyDeserializer( final Class<T> cls, final ParseCache<VersionSpec> cache )
+    {
+        this.parser = new VersionSpecParser<T>( cls, cache );
+    }
+
+    @Override
+    public Object deserializeKey( final String key, final DeserializationContext ctxt )
+            throws IOException
+    {
+        try
+        {
+            return parser.parse( key );
+        }
+        catch ( final InvalidVersionSpecificationException e )
+        {
+            throw ctxt.weirdKeyException( parser.getType(), key, e.getMessage() );
+        }
+    }
+}
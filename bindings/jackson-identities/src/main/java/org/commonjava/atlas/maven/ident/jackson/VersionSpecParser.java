@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.jackson;
+
+import org.commonjava.atlas.maven.ident.util.ParseCache;
+import org.commonjava.atlas.maven.ident.util.VersionUtils;
+import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
+import org.commonjava.atlas.maven.ident.version.RangeVersionSpec;
+import org.commonjava.atlas.maven.ident.version.SingleVersion;
+import org.commonjava.atlas.maven.ident.version.VersionSpec;
+
+import java.io.Serializable;
+
+/**
+ * Parses version strings into a particular {@link VersionSpec} type, going through a shared cache of general
+ * {@link VersionUtils#createFromSpec(String)} results when one is given. Cached specs of the wrong shape fall back to
+ * the type-specific factory (so "1.0" still becomes a {@link RangeVersionSpec} when one is asked for, or fails).
+ */
+final class VersionSpecParser<T extends VersionSpec>
+        implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    static final ParseCache.Parser<VersionSpec> PARSER = new ParseCache.Parser<VersionSpec>()
+    {
+        @Override
+        public VersionSpec parse( final String version )
+        {
+            return VersionUtils.createFromSpec( version );
+        }
+    };
+
+    private final Class<T> type;
+
+    // not serializable; a deserialized copy simply parses uncached
+    private final transient ParseCache<VersionSpec> cache;
+
+    VersionSpecParser( final Class<T> type, final ParseCache<VersionSpec> cache )
+    {
+        this.type = type;
+        this.cache = cache;
+    }
+
+    Class<T> getType()
+    {
+        return type;
+    }
+
+    /**
+     * @throws InvalidVersionSpecificationException if the value isn't a valid version of the target type
+     */
+    T parse( final String value )
+    {
+        final VersionSpec spec = cache == null ? null : cache.get( value );
+        if ( type.isInstance( spec ) )
+        {
+            return type.cast( spec );
+        }
+
+        final VersionSpec parsed;
+        if ( SingleVersion.class.isAssignableFrom( type ) )
+        {
+            parsed = VersionUtils.createSingleVersion( value );
+        }
+        else if ( RangeVersionSpec.class.isAssignableFrom( type ) )
+        {
+            parsed = VersionUtils.createRange( value );
+        }
+        else
+        {
+            parsed = spec == null ? VersionUtils.createFromSpec( value ) : spec;
+        }
+
+        if ( !type.isInstance( parsed ) )
+        {
+            throw new InvalidVersionSpecificationException( value, "Not a " + type.getSimpleName() + ": "
+                    + parsed.getClass().getSimpleName() );
+        }
+
+        return type.cast( parsed );
+    }
+
+}
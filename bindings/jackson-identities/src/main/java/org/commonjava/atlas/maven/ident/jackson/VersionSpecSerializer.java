@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.commonjava.atlas.maven.ident.version.VersionSpec;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link VersionSpec} (or, as a key serializer, a version-keyed map's field name) in standard Maven syntax.
+ */
+public final class VersionSpecSerializer<T extends VersionSpec>
+        extends StdSerializer<T>
+{
+    private static final long serialVersionUID = 1L;
+
+    private final boolean keySer;
+
+    public VersionSpecSerializer( final Class<T> cls, final boolean keySer )
+    {
+        super( cls );
+        this.keySer = keySer;
+    }
+
+    @Override
+    public void serialize( final T src, final JsonGenerator generator, final SerializerProvider provider )
+            throws IOException
+    {
+        if ( keySer )
+        {
+            generator.writeFieldName( src.renderStandard() );
+        }
+        else
+        {
+            generator.writeString( src.renderStandard() );
+        }
+    }
+}
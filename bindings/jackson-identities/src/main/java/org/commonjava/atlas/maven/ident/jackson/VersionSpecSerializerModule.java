@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.jackson;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.commonjava.atlas.maven.ident.util.ParseCache;
+import org.commonjava.atlas.maven.ident.version.CompoundVersionSpec;
+import org.commonjava.atlas.maven.ident.version.RangeVersionSpec;
+import org.commonjava.atlas.maven.ident.version.SingleVersion;
+import org.commonjava.atlas.maven.ident.version.VersionSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Serializes {@link VersionSpec} and its implementations as their standard rendering, both as values and as map
+ * keys. Given a cache size, parsing goes through one bounded {@link ParseCache} shared by every version type this
+ * module registers, so version-heavy documents (metadata caches, for instance) parse each distinct version string
+ * once. Caching is off by default, as in {@link ProjectVersionRefSerializerModule}.
+ */
+public class VersionSpecSerializerModule
+        extends SimpleModule
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * A reasonable cache size for version-heavy documents.
+     */
+    public static final int DEFAULT_PARSE_CACHE_SIZE = 4096;
+
+    private static final Set<Class<? extends VersionSpec>> VERSION_CLASSES;
+
+    static
+    {
+        VERSION_CLASSES = Collections.unmodifiableSet( new HashSet<Class<? extends VersionSpec>>(
+                Arrays.asList( VersionSpec.class, SingleVersion.class, RangeVersionSpec.class,
+                               CompoundVersionSpec.class ) ) );
+    }
+
+    public static final VersionSpecSerializerModule INSTANCE = new VersionSpecSerializerModule();
+
+    private final int parseCacheSize;
+
+    private final transient ParseCache<VersionSpec> parseCache;
+
+    public VersionSpecSerializerModule()
+    {
+        this( 0 );
+    }
+
+    /**
+     * @param parseCacheSize maximum number of parsed version strings to keep; zero or less disables caching. The cache
+     * is owned by this module instance, and so shared by every mapper it's registered with. Registering it alongside
+     * {@link #INSTANCE} works; whichever module is registered last wins.
+     */
+    public VersionSpecSerializerModule( final int parseCacheSize )
+    {
+        super( "VersionSpec (with variants) Serializer" );
+        this.parseCacheSize = Math.max( 0, parseCacheSize );
+
+        this.parseCache = parseCacheSize > 0 ?
+                new ParseCache<VersionSpec>( parseCacheSize, VersionSpecParser.PARSER ) :
+                null;
+
+        for ( Class<? extends VersionSpec> cls : VERSION_CLASSES )
+        {
+            register( cls );
+        }
+    }
+
+    /**
+     * @return the shared parse cache (for statistics), or null if caching is disabled
+     */
+    public ParseCache<VersionSpec> getParseCache()
+    {
+        return parseCache;
+    }
+
+    public int getParseCacheSize()
+    {
+        return parseCacheSize;
+    }
+
+    /**
+     * Jackson skips registering a module whose type id it has already seen, so instances with different cache sizes
+     * need distinct ids; otherwise a cached module registered after {@link #INSTANCE} would silently do nothing.
+     */
+    @Override
+    public Object getTypeId()
+    {
+        return parseCacheSize > 0 ? getClass().getName() + ":parseCache=" + parseCacheSize : getClass().getName();
+    }
+
+    private <T extends VersionSpec> void register( Class<T> cls )
+    {
+        Logger logger = LoggerFactory.getLogger( getClass() );
+        logger.debug( "Registering {} serializers/deserializers", cls.getSimpleName() );
+
+        addSerializer( cls, new VersionSpecSerializer<T>( cls, false ) );
+        addKeySerializer( cls, new VersionSpecSerializer<T>( cls, true ) );
+
+        addDeserializer( cls, new VersionSpecDeserializer<T>( cls, parseCache ) );
+        addKeyDeserializer( cls, new VersionSpecKeyDeserializer<T>( cls, parseCache ) );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return getClass().getSimpleName().hashCode() + 17 + 31 * parseCacheSize;
+    }
+
+    @Override
+    public boolean equals( final Object other )
+    {
+        return getClass().equals( other.getClass() )
+                && parseCacheSize == ( (VersionSpecSerializerModule) other ).parseCacheSize;
+    }
+
+}
@@ -16,18 +16,24 @@
 package org.commonjava.atlas.maven.ident.jackson;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
 import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 
 public class ProjectVersionRefSerializerModuleTest
 {
@@ -72,4 +78,91 @@ public class ProjectVersionRefSerializerModuleTest
         assertThat( result.get( pr ), equalTo( value ) );
     }
 
+    @Test
+    public void cachedMapKeysAreReusedAcrossDocuments()
+        throws Exception
+    {
+        final ObjectMapper cached = new ObjectMapper();
+        cached.registerModule( new ProjectVersionRefSerializerModule( 16 ) );
+
+        final String json = "{\"org.foo:bar:1.0\":\"value\"}";
+        final TypeReference<Map<ProjectVersionRef, String>> type = new TypeReference<Map<ProjectVersionRef, String>>()
+        {
+        };
+
+        final Map<ProjectVersionRef, String> first = cached.readValue( json, type );
+        final Map<ProjectVersionRef, String> second = cached.readValue( json, type );
+
+        final ProjectVersionRef key = first.keySet().iterator().next();
+        assertThat( key, equalTo( (ProjectVersionRef) new SimpleProjectVersionRef( "org.foo", "bar", "1.0" ) ) );
+        assertThat( second.keySet().iterator().next(), sameInstance( key ) );
+    }
+
+    @Test
+    public void cachedModuleRegisteredAfterInstanceTakesEffect()
+        throws Exception
+    {
+        final ObjectMapper cached = new ObjectMapper();
+        cached.registerModule( ProjectVersionRefSerializerModule.INSTANCE );
+        cached.registerModule( new ProjectVersionRefSerializerModule( 16 ) );
+
+        final String json = "{\"org.foo:bar:1.0\":\"value\"}";
+        final TypeReference<Map<ProjectVersionRef, String>> type = new TypeReference<Map<ProjectVersionRef, String>>()
+        {
+        };
+
+        final Map<ProjectVersionRef, String> first = cached.readValue( json, type );
+        final Map<ProjectVersionRef, String> second = cached.readValue( json, type );
+
+        assertThat( second.keySet().iterator().next(), sameInstance( first.keySet().iterator().next() ) );
+    }
+
+    @Test( expected = InvalidFormatException.class )
+    public void cachedInvalidKeyStillFails()
+        throws Exception
+    {
+        final ObjectMapper cached = new ObjectMapper();
+        cached.registerModule( new ProjectVersionRefSerializerModule( 16 ) );
+
+        cached.readValue( "{\"org.foo\":\"value\"}", new TypeReference<Map<ProjectVersionRef, String>>()
+        {
+        } );
+    }
+
+    @Test
+    public void artifactRefRoundTrip()
+        throws Exception
+    {
+        final ArtifactRef ar = new SimpleArtifactRef( "org.foo", "bar", "1.0", "jar", "sources" );
+        final String json = mapper.writeValueAsString( ar );
+
+        final ArtifactRef result = mapper.readValue( json, ArtifactRef.class );
+
+        assertThat( result, equalTo( ar ) );
+    }
+
+    @Test
+    public void longRefsOutgrowTheRenderBuffer()
+        throws Exception
+    {
+        final StringBuilder group = new StringBuilder( "org" );
+        while ( group.length() < 300 )
+        {
+            group.append( ".segment" );
+        }
+
+        final ArtifactRef ar = new SimpleArtifactRef( group.toString(), "bar", "1.0", "jar", "sources" );
+        final ArtifactRef small = new SimpleArtifactRef( "org.foo", "bar", "1.0", "jar", null );
+
+        assertThat( mapper.writeValueAsString( ar ), equalTo( "\"" + ar + "\"" ) );
+        assertThat( mapper.writeValueAsString( small ), equalTo( "\"" + small + "\"" ) );
+    }
+
+    @Test( expected = InvalidFormatException.class )
+    public void invalidRefFailsAsFormatError()
+        throws Exception
+    {
+        mapper.readValue( "\"org.foo\"", ProjectRef.class );
+    }
+
 }
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.jackson;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.commonjava.atlas.maven.ident.util.VersionUtils;
+import org.commonjava.atlas.maven.ident.version.CompoundVersionSpec;
+import org.commonjava.atlas.maven.ident.version.RangeVersionSpec;
+import org.commonjava.atlas.maven.ident.version.SingleVersion;
+import org.commonjava.atlas.maven.ident.version.VersionSpec;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+public class VersionSpecSerializerModuleTest
+{
+
+    private VersionSpecSerializerModule module;
+
+    private ObjectMapper mapper;
+
+    @Before
+    public void setup()
+    {
+        module = new VersionSpecSerializerModule( VersionSpecSerializerModule.DEFAULT_PARSE_CACHE_SIZE );
+        mapper = new ObjectMapper();
+        mapper.registerModule( module );
+    }
+
+    @Test
+    public void versionSpecRoundTrips()
+        throws Exception
+    {
+        for ( final String version : new String[] { "1.0", "2.1-SNAPSHOT", "[1.0,2.0)", "[1.0,2.0)[3.0,)" } )
+        {
+            final VersionSpec spec = VersionUtils.createFromSpec( version );
+            final String json = mapper.writeValueAsString( spec );
+
+            assertThat( json, equalTo( "\"" + spec.renderStandard() + "\"" ) );
+            // CompoundVersionSpec has no equals(), so compare renderings
+            assertThat( mapper.readValue( json, VersionSpec.class ).renderStandard(),
+                        equalTo( spec.renderStandard() ) );
+        }
+    }
+
+    @Test
+    public void typedTargetsParseToTheirType()
+        throws Exception
+    {
+        assertThat( mapper.readValue( "\"1.0\"", SingleVersion.class ), instanceOf( SingleVersion.class ) );
+        assertThat( mapper.readValue( "\"[1.0,2.0)\"", RangeVersionSpec.class ), instanceOf( RangeVersionSpec.class ) );
+        assertThat( mapper.readValue( "\"[1.0,2.0)[3.0,)\"", CompoundVersionSpec.class ),
+                    instanceOf( CompoundVersionSpec.class ) );
+    }
+
+    @Test
+    public void versionKeyedMapRoundTrip()
+        throws Exception
+    {
+        final Map<SingleVersion, String> map = new TreeMap<SingleVersion, String>();
+        map.put( VersionUtils.createSingleVersion( "1.0" ), "one" );
+        map.put( VersionUtils.createSingleVersion( "2.0-SNAPSHOT" ), "two" );
+
+        final String json = mapper.writeValueAsString( map );
+        final Map<SingleVersion, String> result =
+                mapper.readValue( json, new TypeReference<TreeMap<SingleVersion, String>>()
+                {
+                } );
+
+        assertThat( result, equalTo( map ) );
+    }
+
+    @Test
+    public void repeatedVersionsAreParsedOnce()
+        throws Exception
+    {
+        final VersionSpec first = mapper.readValue( "\"1.2.3\"", VersionSpec.class );
+        final SingleVersion second = mapper.readValue( "\"1.2.3\"", SingleVersion.class );
+
+        assertThat( second, sameInstance( (Object) first ) );
+        assertThat( module.getParseCache().getMissCount(), equalTo( 1L ) );
+        assertThat( module.getParseCache().getHitCount(), equalTo( 1L ) );
+    }
+
+    @Test
+    public void cachedModuleRegisteredAfterInstanceTakesEffect()
+        throws Exception
+    {
+        final VersionSpecSerializerModule cached = new VersionSpecSerializerModule( 16 );
+        final ObjectMapper both = new ObjectMapper();
+        both.registerModule( VersionSpecSerializerModule.INSTANCE );
+        both.registerModule( cached );
+
+        final VersionSpec first = both.readValue( "\"1.2.3\"", VersionSpec.class );
+        final VersionSpec second = both.readValue( "\"1.2.3\"", VersionSpec.class );
+
+        assertThat( second, sameInstance( first ) );
+        assertThat( cached.getParseCache().getHitCount(), equalTo( 1L ) );
+        assertThat( VersionSpecSerializerModule.INSTANCE.getParseCache(), nullValue() );
+    }
+
+    @Test( expected = InvalidFormatException.class )
+    public void rangeIsNotASingleVersion()
+        throws Exception
+    {
+        mapper.readValue( "\"[1.0,2.0)\"", SingleVersion.class );
+    }
+
+}
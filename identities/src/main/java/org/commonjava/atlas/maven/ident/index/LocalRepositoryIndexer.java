@@ -0,0 +1,416 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.index;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.util.ArtifactPathInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Walks a Maven-layout repository root (e.g. ~/.m2/repository) and maintains a {@link RepositoryIndex} of the
+ * artifacts found there, classifying each file with {@link ArtifactPathInfo}.
+ * <p>
+ * Directories are walked in parallel on a work-stealing {@link ForkJoinPool}, one task per directory. Rescans are
+ * incremental: a directory's modification time only changes when its direct children change, so leaf directories
+ * (normally the version directories, which hold only files) are skipped when their mtime is the same as last time.
+ * Intermediate directories are always re-listed, which is cheap compared to classifying the files themselves.
+ * Directories that disappear between scans have their artifacts removed from the index. A directory that can't be
+ * read keeps whatever was indexed under it before, subdirectories included.
+ * <p>
+ * Checksum, signature and resolver-tracking files are not indexed. Symbolic links are not followed.
+ */
+public class LocalRepositoryIndexer
+{
+
+    private static final String[] IGNORED_SUFFIXES =
+            { ".md5", ".sha1", ".sha256", ".sha512", ".asc", ".lastUpdated" };
+
+    /**
+     * Directories modified this close to the start of a scan may change again within the same mtime tick, so they
+     * are not trusted for skipping on the next rescan.
+     */
+    private static final long RACY_MTIME_WINDOW_MILLIS = 2000;
+
+    private final Path root;
+
+    private final int parallelism;
+
+    private final RepositoryIndex index;
+
+    private final ConcurrentMap<Path, DirectoryState> directories = new ConcurrentHashMap<Path, DirectoryState>();
+
+    private long generation;
+
+    public LocalRepositoryIndexer( final Path root )
+    {
+        this( root, Runtime.getRuntime().availableProcessors(), new RepositoryIndex() );
+    }
+
+    public LocalRepositoryIndexer( final Path root, final int parallelism )
+    {
+        this( root, parallelism, new RepositoryIndex() );
+    }
+
+    public LocalRepositoryIndexer( final Path root, final int parallelism, final RepositoryIndex index )
+    {
+        if ( parallelism < 1 )
+        {
+            throw new IllegalArgumentException( "Parallelism must be at least 1. (Given: " + parallelism + ")" );
+        }
+
+        this.root = root;
+        this.parallelism = parallelism;
+        this.index = index;
+    }
+
+    public Path getRoot()
+    {
+        return root;
+    }
+
+    public RepositoryIndex getIndex()
+    {
+        return index;
+    }
+
+    /**
+     * Scan the repository root, updating the index. The first call indexes everything; later calls only re-read
+     * directories that changed since the previous scan.
+     */
+    public synchronized ScanResult scan()
+            throws IOException
+    {
+        if ( !Files.isDirectory( root ) )
+        {
+            throw new NoSuchFileException( root.toString(), null, "Repository root is not a directory" );
+        }
+
+        final long currentGeneration = ++generation;
+        final ScanResult result = new ScanResult();
+        final long start = System.currentTimeMillis();
+        final Set<Path> failed = Collections.newSetFromMap( new ConcurrentHashMap<Path, Boolean>() );
+
+        final ForkJoinPool pool = new ForkJoinPool( parallelism );
+        try
+        {
+            pool.invoke( new DirectoryScan( root, currentGeneration, start, result, failed ) );
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        for ( final Iterator<Map.Entry<Path, DirectoryState>> it = directories.entrySet().iterator(); it.hasNext(); )
+        {
+            final Map.Entry<Path, DirectoryState> entry = it.next();
+            final DirectoryState state = entry.getValue();
+            if ( state.generation != currentGeneration && !isUnder( entry.getKey(), failed ) )
+            {
+                it.remove();
+                removeArtifacts( state );
+                result.removedDirectories.incrementAndGet();
+            }
+        }
+
+        result.elapsedMillis = System.currentTimeMillis() - start;
+        Logger logger = LoggerFactory.getLogger( getClass() );
+        logger.debug( "Scanned {}: {}", root, result );
+
+        return result;
+    }
+
+    /**
+     * Forget all scan state and clear the index, so the next {@link #scan()} starts from scratch.
+     */
+    public synchronized void reset()
+    {
+        directories.clear();
+        index.clear();
+    }
+
+    /**
+     * List a directory's children. Package-private so tests can simulate directories that can't be read.
+     */
+    DirectoryStream<Path> openDirectory( final Path dir )
+            throws IOException
+    {
+        return Files.newDirectoryStream( dir );
+    }
+
+    private static boolean isUnder( final Path dir, final Set<Path> parents )
+    {
+        for ( final Path parent : parents )
+        {
+            if ( dir.startsWith( parent ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void removeArtifacts( final DirectoryState state )
+    {
+        for ( final ArtifactRef ref : state.artifacts )
+        {
+            index.remove( ref );
+        }
+    }
+
+    private boolean isIgnored( final String fileName )
+    {
+        for ( final String suffix : IGNORED_SUFFIXES )
+        {
+            if ( fileName.endsWith( suffix ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private final class DirectoryScan
+            extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+
+        private final long currentGeneration;
+
+        private final long scanStart;
+
+        private final ScanResult result;
+
+        private final Set<Path> failed;
+
+        DirectoryScan( final Path dir, final long currentGeneration, final long scanStart, final ScanResult result,
+                       final Set<Path> failed )
+        {
+            this.dir = dir;
+            this.currentGeneration = currentGeneration;
+            this.scanStart = scanStart;
+            this.result = result;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute()
+        {
+            final DirectoryState previous = directories.get( dir );
+            final List<DirectoryScan> subdirs = new ArrayList<DirectoryScan>();
+            final List<ArtifactRef> artifacts = new ArrayList<ArtifactRef>();
+            final long mtime;
+
+            try
+            {
+                mtime = Files.getLastModifiedTime( dir, LinkOption.NOFOLLOW_LINKS ).toMillis();
+                if ( previous != null && previous.isUnchangedLeaf( mtime ) )
+                {
+                    previous.generation = currentGeneration;
+                    result.skippedDirectories.incrementAndGet();
+                    return;
+                }
+
+                try (DirectoryStream<Path> stream = openDirectory( dir ))
+                {
+                    for ( final Path child : stream )
+                    {
+                        final BasicFileAttributes attrs =
+                                Files.readAttributes( child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS );
+
+                        if ( attrs.isDirectory() )
+                        {
+                            subdirs.add( new DirectoryScan( child, currentGeneration, scanStart, result, failed ) );
+                        }
+                        else if ( attrs.isRegularFile() )
+                        {
+                            final ArtifactRef ref = classify( child );
+                            if ( ref != null )
+                            {
+                                artifacts.add( ref );
+                            }
+                        }
+                    }
+                }
+            }
+            catch ( final NoSuchFileException e )
+            {
+                // deleted out from under us; the post-scan sweep will drop whatever we knew about it.
+                return;
+            }
+            catch ( final IOException e )
+            {
+                Logger logger = LoggerFactory.getLogger( LocalRepositoryIndexer.class );
+                logger.warn( "Failed to read: {}. Reason: {}. Keeping previous index entries.", dir, e.getMessage() );
+                // subdirectories weren't visited either, so the sweep has to leave this whole subtree alone
+                failed.add( dir );
+                result.failedDirectories.incrementAndGet();
+                return;
+            }
+
+            if ( previous != null )
+            {
+                removeArtifacts( previous );
+            }
+
+            for ( final ArtifactRef ref : artifacts )
+            {
+                index.add( ref );
+            }
+
+            final boolean trusted = mtime + RACY_MTIME_WINDOW_MILLIS < scanStart;
+            directories.put( dir, new DirectoryState( mtime, trusted, subdirs.isEmpty(), artifacts, currentGeneration ) );
+
+            result.scannedDirectories.incrementAndGet();
+            result.indexedFiles.addAndGet( artifacts.size() );
+
+            invokeAll( subdirs );
+        }
+
+        private ArtifactRef classify( final Path file )
+        {
+            final String fileName = file.getFileName().toString();
+            if ( isIgnored( fileName ) )
+            {
+                return null;
+            }
+
+            final ArtifactPathInfo info = ArtifactPathInfo.parse( root.relativize( file ).toString() );
+            if ( info == null )
+            {
+                return null;
+            }
+
+            try
+            {
+                return info.getArtifact();
+            }
+            catch ( final RuntimeException e )
+            {
+                // invalid coordinates (empty version, etc.) just aren't artifacts.
+                return null;
+            }
+        }
+    }
+
+    private static final class DirectoryState
+    {
+        private final long mtime;
+
+        private final boolean trusted;
+
+        private final boolean leaf;
+
+        private final List<ArtifactRef> artifacts;
+
+        private volatile long generation;
+
+        DirectoryState( final long mtime, final boolean trusted, final boolean leaf, final List<ArtifactRef> artifacts,
+                        final long generation )
+        {
+            this.mtime = mtime;
+            this.trusted = trusted;
+            this.leaf = leaf;
+            this.artifacts = artifacts.isEmpty() ? Collections.<ArtifactRef>emptyList() : artifacts;
+            this.generation = generation;
+        }
+
+        boolean isUnchangedLeaf( final long currentMtime )
+        {
+            return leaf && trusted && mtime == currentMtime;
+        }
+    }
+
+    /**
+     * Counters describing what a single {@link #scan()} did.
+     */
+    public static final class ScanResult
+    {
+        private final AtomicLong scannedDirectories = new AtomicLong();
+
+        private final AtomicLong skippedDirectories = new AtomicLong();
+
+        private final AtomicLong removedDirectories = new AtomicLong();
+
+        private final AtomicLong failedDirectories = new AtomicLong();
+
+        private final AtomicLong indexedFiles = new AtomicLong();
+
+        private long elapsedMillis;
+
+        public long getScannedDirectories()
+        {
+            return scannedDirectories.get();
+        }
+
+        public long getSkippedDirectories()
+        {
+            return skippedDirectories.get();
+        }
+
+        public long getRemovedDirectories()
+        {
+            return removedDirectories.get();
+        }
+
+        public long getFailedDirectories()
+        {
+            return failedDirectories.get();
+        }
+
+        public long getIndexedFiles()
+        {
+            return indexedFiles.get();
+        }
+
+        public long getElapsedMillis()
+        {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "ScanResult [scanned=" + scannedDirectories + ", skipped=" + skippedDirectories + ", removed="
+                    + removedDirectories + ", failed=" + failedDirectories + ", indexedFiles=" + indexedFiles
+                    + ", elapsed=" + elapsedMillis + "ms]";
+        }
+    }
+
+}
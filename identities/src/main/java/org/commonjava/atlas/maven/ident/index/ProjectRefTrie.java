@@ -0,0 +1,495 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.index;
+
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie mapping {@link ProjectRef} (GA) coordinates to values, typically the versions stored for that GA. A GA
+ * is keyed by its groupId segments followed by its artifactId, which mirrors the Maven repository layout: GA
+ * org.jboss:foo lives at org -&gt; jboss -&gt; foo, the same node reached by the path org/jboss/foo/.
+ * <p>
+ * Segment labels are interned within the trie and each node keeps its children in a sorted array, so lookups are a
+ * binary search per segment with no substring allocation. Interned labels are reference-counted by the nodes using
+ * them and dropped along with the last such node, so GAs that come and go don't leave their segments behind. Reads are lock-free: writers replace child arrays and
+ * entries wholesale (copy-on-write) under the trie's lock.
+ *
+ * @param <V> value type stored for each GA
+ */
+public class ProjectRefTrie<V>
+{
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // guarded by the trie lock
+    private final Map<String, Label> labels = new HashMap<String, Label>();
+
+    private final Node<V> root = new Node<V>( "" );
+
+    private volatile int size;
+
+    /**
+     * Store a value for the given GA, replacing (and returning) any previous value.
+     */
+    public synchronized V put( final ProjectRef ga, final V value )
+    {
+        Node<V> node = root;
+        final String groupId = ga.getGroupId();
+        int start = 0;
+        while ( start < groupId.length() )
+        {
+            final int end = segmentEnd( groupId, start, false );
+            if ( end > start )
+            {
+                node = getOrAddChild( node, groupId, start, end );
+            }
+            start = end + 1;
+        }
+
+        node = getOrAddChild( node, ga.getArtifactId(), 0, ga.getArtifactId().length() );
+
+        final Entry<V> old = node.entry;
+        node.entry = new Entry<V>( ga.asProjectRef(), value );
+        if ( old == null )
+        {
+            size++;
+            return null;
+        }
+
+        return old.value;
+    }
+
+    public V get( final ProjectRef ga )
+    {
+        final Node<V> node = find( ga );
+        final Entry<V> entry = node == null ? null : node.entry;
+        return entry == null ? null : entry.value;
+    }
+
+    public boolean contains( final ProjectRef ga )
+    {
+        final Node<V> node = find( ga );
+        return node != null && node.entry != null;
+    }
+
+    /**
+     * Remove the GA, pruning any branch left without entries. Returns the removed value, or null.
+     */
+    public synchronized V remove( final ProjectRef ga )
+    {
+        final List<Node<V>> trail = new ArrayList<Node<V>>();
+        trail.add( root );
+
+        Node<V> node = root;
+        final String groupId = ga.getGroupId();
+        int start = 0;
+        while ( node != null && start < groupId.length() )
+        {
+            final int end = segmentEnd( groupId, start, false );
+            if ( end > start )
+            {
+                node = node.child( groupId, start, end );
+                trail.add( node );
+            }
+            start = end + 1;
+        }
+
+        if ( node != null )
+        {
+            node = node.child( ga.getArtifactId(), 0, ga.getArtifactId().length() );
+        }
+
+        if ( node == null || node.entry == null )
+        {
+            return null;
+        }
+
+        final V value = node.entry.value;
+        node.entry = null;
+        size--;
+
+        for ( int i = trail.size() - 1; i >= 0 && node.isEmpty(); i-- )
+        {
+            final Node<V> parent = trail.get( i );
+            parent.removeChild( node );
+            release( node.label );
+            node = parent;
+        }
+
+        return value;
+    }
+
+    /**
+     * Find the GA that owns the given repository path, e.g. org/jboss/foo/1.0/foo-1.0.jar -&gt; org.jboss:foo. Path
+     * segments are separated by '/' (a leading '/' is ignored); when GAs are nested, the deepest one wins.
+     *
+     * @return the longest GA matching a prefix of the path, or null if none does
+     */
+    public ProjectRef findLongestPrefix( final String path )
+    {
+        final Entry<V> entry = findLongestPrefixEntry( path );
+        return entry == null ? null : entry.ref;
+    }
+
+    /**
+     * Same as {@link #findLongestPrefix(String)}, but return the stored value.
+     */
+    public V getLongestPrefix( final String path )
+    {
+        final Entry<V> entry = findLongestPrefixEntry( path );
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * List the GAs whose groupId segments start with the given prefix, e.g. "org/jboss" or "org.jboss" (matching
+     * org.jboss:* and org.jboss.*:*, but not org.jbossx:*). An empty prefix lists everything.
+     */
+    public List<ProjectRef> getProjectsUnder( final String prefix )
+    {
+        final List<ProjectRef> result = new ArrayList<ProjectRef>();
+        final Node<V> node = findPrefix( prefix );
+        if ( node != null )
+        {
+            collect( node, result, null );
+        }
+
+        return result;
+    }
+
+    /**
+     * Same as {@link #getProjectsUnder(String)}, but return GA -&gt; value.
+     */
+    public Map<ProjectRef, V> getEntriesUnder( final String prefix )
+    {
+        final Map<ProjectRef, V> result = new LinkedHashMap<ProjectRef, V>();
+        final Node<V> node = findPrefix( prefix );
+        if ( node != null )
+        {
+            collect( node, null, result );
+        }
+
+        return result;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public synchronized void clear()
+    {
+        root.children = emptyChildren();
+        labels.clear();
+        size = 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ProjectRefTrie [size=" + size + "]";
+    }
+
+    private Node<V> find( final ProjectRef ga )
+    {
+        Node<V> node = root;
+        final String groupId = ga.getGroupId();
+        int start = 0;
+        while ( node != null && start < groupId.length() )
+        {
+            final int end = segmentEnd( groupId, start, false );
+            if ( end > start )
+            {
+                node = node.child( groupId, start, end );
+            }
+            start = end + 1;
+        }
+
+        return node == null ? null : node.child( ga.getArtifactId(), 0, ga.getArtifactId().length() );
+    }
+
+    private Node<V> findPrefix( final String prefix )
+    {
+        Node<V> node = root;
+        int start = 0;
+        while ( node != null && start < prefix.length() )
+        {
+            final int end = segmentEnd( prefix, start, true );
+            if ( end > start )
+            {
+                node = node.child( prefix, start, end );
+            }
+            start = end + 1;
+        }
+
+        return node;
+    }
+
+    private Entry<V> findLongestPrefixEntry( final String path )
+    {
+        Entry<V> match = null;
+        Node<V> node = root;
+        int start = 0;
+        final int len = path.length();
+        while ( start < len )
+        {
+            final int end = segmentEnd( path, start, false, '/' );
+            if ( end > start )
+            {
+                node = node.child( path, start, end );
+                if ( node == null )
+                {
+                    break;
+                }
+
+                final Entry<V> entry = node.entry;
+                if ( entry != null )
+                {
+                    match = entry;
+                }
+            }
+            start = end + 1;
+        }
+
+        return match;
+    }
+
+    private void collect( final Node<V> node, final List<ProjectRef> refs, final Map<ProjectRef, V> entries )
+    {
+        final Entry<V> entry = node.entry;
+        if ( entry != null )
+        {
+            if ( refs != null )
+            {
+                refs.add( entry.ref );
+            }
+            else
+            {
+                entries.put( entry.ref, entry.value );
+            }
+        }
+
+        for ( final Node<V> child : node.children )
+        {
+            collect( child, refs, entries );
+        }
+    }
+
+    /**
+     * Number of distinct segment labels currently interned. Package-private for tests.
+     */
+    synchronized int labelCount()
+    {
+        return labels.size();
+    }
+
+    // called under the trie lock
+    private Node<V> getOrAddChild( final Node<V> parent, final String value, final int start, final int end )
+    {
+        final Node<V> existing = parent.child( value, start, end );
+        if ( existing != null )
+        {
+            return existing;
+        }
+
+        final String segment = value.substring( start, end );
+        Label label = labels.get( segment );
+        if ( label == null )
+        {
+            label = new Label( segment );
+            labels.put( segment, label );
+        }
+        label.refs++;
+
+        return parent.addChild( label.value );
+    }
+
+    // called under the trie lock
+    private void release( final String value )
+    {
+        final Label label = labels.get( value );
+        if ( label != null && --label.refs == 0 )
+        {
+            labels.remove( value );
+        }
+    }
+
+    private static int segmentEnd( final String value, final int start, final boolean slashOrDot )
+    {
+        return segmentEnd( value, start, slashOrDot, '.' );
+    }
+
+    private static int segmentEnd( final String value, final int start, final boolean slashOrDot, final char sep )
+    {
+        for ( int i = start; i < value.length(); i++ )
+        {
+            final char c = value.charAt( i );
+            if ( c == sep || ( slashOrDot && ( c == '/' || c == '.' ) ) )
+            {
+                return i;
+            }
+        }
+
+        return value.length();
+    }
+
+    /**
+     * Compare a node label with value[start,end) without allocating a substring.
+     */
+    private static int compare( final String label, final String value, final int start, final int end )
+    {
+        final int len = Math.min( label.length(), end - start );
+        for ( int i = 0; i < len; i++ )
+        {
+            final int diff = label.charAt( i ) - value.charAt( start + i );
+            if ( diff != 0 )
+            {
+                return diff;
+            }
+        }
+
+        return label.length() - ( end - start );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static <V> Node<V>[] emptyChildren()
+    {
+        return (Node<V>[]) NO_CHILDREN;
+    }
+
+    private static final class Entry<V>
+    {
+        private final ProjectRef ref;
+
+        private final V value;
+
+        Entry( final ProjectRef ref, final V value )
+        {
+            this.ref = ref;
+            this.value = value;
+        }
+    }
+
+    private static final class Label
+    {
+        private final String value;
+
+        private int refs;
+
+        Label( final String value )
+        {
+            this.value = value;
+        }
+    }
+
+    private static final class Node<V>
+    {
+        private final String label;
+
+        private volatile Node<V>[] children = emptyChildren();
+
+        private volatile Entry<V> entry;
+
+        Node( final String label )
+        {
+            this.label = label;
+        }
+
+        Node<V> child( final String value, final int start, final int end )
+        {
+            final Node<V>[] current = children;
+            final int idx = search( current, value, start, end );
+            return idx < 0 ? null : current[idx];
+        }
+
+        // called under the trie lock, for a label with no child yet
+        Node<V> addChild( final String label )
+        {
+            final Node<V>[] current = children;
+            final int insert = -( search( current, label, 0, label.length() ) + 1 );
+            final Node<V> child = new Node<V>( label );
+            final Node<V>[] updated = Arrays.copyOf( current, current.length + 1 );
+            System.arraycopy( current, insert, updated, insert + 1, current.length - insert );
+            updated[insert] = child;
+            children = updated;
+
+            return child;
+        }
+
+        // called under the trie lock
+        void removeChild( final Node<V> child )
+        {
+            final Node<V>[] current = children;
+            final int idx = search( current, child.label, 0, child.label.length() );
+            if ( idx < 0 )
+            {
+                return;
+            }
+
+            if ( current.length == 1 )
+            {
+                children = emptyChildren();
+                return;
+            }
+
+            final Node<V>[] updated = Arrays.copyOf( current, current.length - 1 );
+            System.arraycopy( current, idx + 1, updated, idx, current.length - idx - 1 );
+            children = updated;
+        }
+
+        boolean isEmpty()
+        {
+            return entry == null && children.length == 0;
+        }
+
+        private static <V> int search( final Node<V>[] nodes, final String value, final int start, final int end )
+        {
+            int low = 0;
+            int high = nodes.length - 1;
+            while ( low <= high )
+            {
+                final int mid = ( low + high ) >>> 1;
+                final int cmp = compare( nodes[mid].label, value, start, end );
+                if ( cmp < 0 )
+                {
+                    low = mid + 1;
+                }
+                else if ( cmp > 0 )
+                {
+                    high = mid - 1;
+                }
+                else
+                {
+                    return mid;
+                }
+            }
+
+            return -( low + 1 );
+        }
+    }
+
+}
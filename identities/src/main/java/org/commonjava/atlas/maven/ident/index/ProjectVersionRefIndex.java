@@ -0,0 +1,305 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.index;
+
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.version.VersionSpec;
+import org.commonjava.atlas.maven.ident.version.VersionSpecComparisons;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Concurrent index of {@link ProjectVersionRef}s grouped by GA, with each GA's versions kept sorted in
+ * {@link VersionSpecComparisons} order (so 1.9 &lt; 1.10, unlike the string ordering of
+ * {@link org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef#compareTo(ProjectRef)}).
+ * <p>
+ * Floor / ceiling / lower / higher, latest and latest-release lookups are O(log n) in the number of versions of the
+ * GA; range queries return live views. Reads are lock-free; writes lock only the GA being modified.
+ * <p>
+ * Versions that compare equal (e.g. 1.0 and 1.0.0) share one slot; the first one added wins. Adding a ref parses its
+ * version, so refs with invalid versions are rejected with
+ * {@link org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException}.
+ */
+public class ProjectVersionRefIndex
+{
+
+    private final ConcurrentMap<ProjectRef, Versions> projects = new ConcurrentHashMap<ProjectRef, Versions>();
+
+    /**
+     * @return true if the version was not already present for its GA
+     */
+    public boolean add( final ProjectVersionRef ref )
+    {
+        final VersionSpec spec = ref.getVersionSpec();
+        final ProjectRef key = ref.asProjectRef();
+        while ( true )
+        {
+            Versions versions = projects.get( key );
+            if ( versions == null )
+            {
+                final Versions created = new Versions();
+                versions = projects.putIfAbsent( key, created );
+                if ( versions == null )
+                {
+                    versions = created;
+                }
+            }
+
+            synchronized ( versions )
+            {
+                if ( projects.get( key ) != versions )
+                {
+                    // retired by a concurrent remove() after it emptied out; try again with a fresh entry.
+                    continue;
+                }
+
+                if ( versions.all.putIfAbsent( spec, ref ) != null )
+                {
+                    return false;
+                }
+
+                if ( spec.isRelease() )
+                {
+                    versions.releases.put( spec, ref );
+                }
+
+                return true;
+            }
+        }
+    }
+
+    public void addAll( final Collection<? extends ProjectVersionRef> refs )
+    {
+        for ( final ProjectVersionRef ref : refs )
+        {
+            add( ref );
+        }
+    }
+
+    /**
+     * @return true if a version equal to the ref's was present and has been removed
+     */
+    public boolean remove( final ProjectVersionRef ref )
+    {
+        final ProjectRef key = ref.asProjectRef();
+        final Versions versions = projects.get( key );
+        if ( versions == null )
+        {
+            return false;
+        }
+
+        final VersionSpec spec = ref.getVersionSpec();
+        synchronized ( versions )
+        {
+            if ( projects.get( key ) != versions || versions.all.remove( spec ) == null )
+            {
+                return false;
+            }
+
+            versions.releases.remove( spec );
+            if ( versions.all.isEmpty() )
+            {
+                projects.remove( key );
+            }
+
+            return true;
+        }
+    }
+
+    public boolean contains( final ProjectVersionRef ref )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ref );
+        return all != null && all.containsKey( ref.getVersionSpec() );
+    }
+
+    public Set<ProjectRef> getProjects()
+    {
+        return Collections.unmodifiableSet( projects.keySet() );
+    }
+
+    /**
+     * @return live view of the GA's versions, oldest first
+     */
+    public Collection<ProjectVersionRef> getVersions( final ProjectRef ga )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ga );
+        return all == null ? Collections.<ProjectVersionRef>emptyList() : Collections.unmodifiableCollection(
+                all.values() );
+    }
+
+    /**
+     * @return live view of the GA's versions, newest first
+     */
+    public Collection<ProjectVersionRef> getVersionsNewestFirst( final ProjectRef ga )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ga );
+        return all == null ? Collections.<ProjectVersionRef>emptyList() : Collections.unmodifiableCollection(
+                all.descendingMap().values() );
+    }
+
+    /**
+     * @return live view of the GA's versions between from and to, oldest first. Either bound may be null for an open
+     * end.
+     */
+    public Collection<ProjectVersionRef> getRange( final ProjectRef ga, final VersionSpec from,
+                                                   final boolean fromInclusive, final VersionSpec to,
+                                                   final boolean toInclusive )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ga );
+        if ( all == null )
+        {
+            return Collections.emptyList();
+        }
+
+        ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> view = all;
+        if ( from != null )
+        {
+            view = view.tailMap( from, fromInclusive );
+        }
+        if ( to != null )
+        {
+            view = view.headMap( to, toInclusive );
+        }
+
+        return Collections.unmodifiableCollection( view.values() );
+    }
+
+    /**
+     * @return the greatest indexed version of the ref's GA that is &lt;= the ref's version, or null
+     */
+    public ProjectVersionRef floor( final ProjectVersionRef ref )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ref );
+        return all == null ? null : value( all.floorEntry( ref.getVersionSpec() ) );
+    }
+
+    /**
+     * @return the least indexed version of the ref's GA that is &gt;= the ref's version, or null
+     */
+    public ProjectVersionRef ceiling( final ProjectVersionRef ref )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ref );
+        return all == null ? null : value( all.ceilingEntry( ref.getVersionSpec() ) );
+    }
+
+    /**
+     * @return the indexed version of the ref's GA right before the ref's version, or null
+     */
+    public ProjectVersionRef lower( final ProjectVersionRef ref )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ref );
+        return all == null ? null : value( all.lowerEntry( ref.getVersionSpec() ) );
+    }
+
+    /**
+     * @return the indexed version of the ref's GA right after the ref's version, or null
+     */
+    public ProjectVersionRef higher( final ProjectVersionRef ref )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ref );
+        return all == null ? null : value( all.higherEntry( ref.getVersionSpec() ) );
+    }
+
+    public ProjectVersionRef getLatest( final ProjectRef ga )
+    {
+        final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all = all( ga );
+        return all == null ? null : value( all.lastEntry() );
+    }
+
+    /**
+     * @return the newest version of the GA that is a release (see {@link VersionSpec#isRelease()}), or null
+     */
+    public ProjectVersionRef getLatestRelease( final ProjectRef ga )
+    {
+        final Versions versions = projects.get( ga.asProjectRef() );
+        return versions == null ? null : value( versions.releases.lastEntry() );
+    }
+
+    /**
+     * @return snapshot of all indexed refs, grouped by GA and sorted by version within each GA
+     */
+    public List<ProjectVersionRef> getAll()
+    {
+        final List<ProjectVersionRef> result = new ArrayList<ProjectVersionRef>();
+        for ( final Versions versions : projects.values() )
+        {
+            result.addAll( versions.all.values() );
+        }
+
+        return result;
+    }
+
+    public int getProjectCount()
+    {
+        return projects.size();
+    }
+
+    /**
+     * @return total number of indexed versions; O(number of GAs)
+     */
+    public int size()
+    {
+        int size = 0;
+        for ( final Versions versions : projects.values() )
+        {
+            size += versions.all.size();
+        }
+
+        return size;
+    }
+
+    public void clear()
+    {
+        projects.clear();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ProjectVersionRefIndex [projects=" + projects.size() + "]";
+    }
+
+    private ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all( final ProjectRef ref )
+    {
+        final Versions versions = projects.get( ref.asProjectRef() );
+        return versions == null ? null : versions.all;
+    }
+
+    private static ProjectVersionRef value( final Map.Entry<VersionSpec, ProjectVersionRef> entry )
+    {
+        return entry == null ? null : entry.getValue();
+    }
+
+    private static final class Versions
+    {
+        private final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> all =
+                new ConcurrentSkipListMap<VersionSpec, ProjectVersionRef>( VersionSpecComparisons.comparator() );
+
+        private final ConcurrentNavigableMap<VersionSpec, ProjectVersionRef> releases =
+                new ConcurrentSkipListMap<VersionSpec, ProjectVersionRef>( VersionSpecComparisons.comparator() );
+    }
+
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.index;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.TypeAndClassifier;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory index of the artifacts present in a repository, organized as {@link ProjectRef} (GA) -&gt; version string
+ * -&gt; set of {@link TypeAndClassifier}. Reads are lock-free; writes lock only the GA being modified, so the index can
+ * be populated from many threads at once (see {@link LocalRepositoryIndexer}).
+ */
+public class RepositoryIndex
+{
+
+    private final ConcurrentMap<ProjectRef, ConcurrentMap<String, Set<TypeAndClassifier>>> projects =
+            new ConcurrentHashMap<ProjectRef, ConcurrentMap<String, Set<TypeAndClassifier>>>();
+
+    public boolean add( final ArtifactRef ref )
+    {
+        return add( ref.asProjectRef(), ref.getVersionString(), ref.getTypeAndClassifier() );
+    }
+
+    public boolean add( final ProjectRef ga, final String version, final TypeAndClassifier tc )
+    {
+        final ProjectRef key = ga.asProjectRef();
+        while ( true )
+        {
+            ConcurrentMap<String, Set<TypeAndClassifier>> versions = projects.get( key );
+            if ( versions == null )
+            {
+                final ConcurrentMap<String, Set<TypeAndClassifier>> created =
+                        new ConcurrentHashMap<String, Set<TypeAndClassifier>>();
+
+                versions = projects.putIfAbsent( key, created );
+                if ( versions == null )
+                {
+                    versions = created;
+                }
+            }
+
+            synchronized ( versions )
+            {
+                if ( projects.get( key ) != versions )
+                {
+                    // retired by a concurrent remove() after it emptied out; try again with a fresh entry.
+                    continue;
+                }
+
+                Set<TypeAndClassifier> tcs = versions.get( version );
+                if ( tcs == null )
+                {
+                    tcs = Collections.newSetFromMap( new ConcurrentHashMap<TypeAndClassifier, Boolean>() );
+                    versions.put( version, tcs );
+                }
+
+                return tcs.add( tc );
+            }
+        }
+    }
+
+    public boolean remove( final ArtifactRef ref )
+    {
+        return remove( ref.asProjectRef(), ref.getVersionString(), ref.getTypeAndClassifier() );
+    }
+
+    public boolean remove( final ProjectRef ga, final String version, final TypeAndClassifier tc )
+    {
+        final ProjectRef key = ga.asProjectRef();
+        final ConcurrentMap<String, Set<TypeAndClassifier>> versions = projects.get( key );
+        if ( versions == null )
+        {
+            return false;
+        }
+
+        synchronized ( versions )
+        {
+            if ( projects.get( key ) != versions )
+            {
+                return false;
+            }
+
+            final Set<TypeAndClassifier> tcs = versions.get( version );
+            if ( tcs == null || !tcs.remove( tc ) )
+            {
+                return false;
+            }
+
+            if ( tcs.isEmpty() )
+            {
+                versions.remove( version );
+                if ( versions.isEmpty() )
+                {
+                    projects.remove( key );
+                }
+            }
+
+            return true;
+        }
+    }
+
+    public boolean contains( final ArtifactRef ref )
+    {
+        final Set<TypeAndClassifier> tcs = getTypesAndClassifiers( ref, ref.getVersionString() );
+        return tcs.contains( ref.getTypeAndClassifier() );
+    }
+
+    public boolean contains( final ProjectRef ga, final String version )
+    {
+        final ConcurrentMap<String, Set<TypeAndClassifier>> versions = projects.get( ga.asProjectRef() );
+        return versions != null && versions.containsKey( version );
+    }
+
+    /**
+     * @return live, unmodifiable view of the GAs currently in the index
+     */
+    public Set<ProjectRef> getProjects()
+    {
+        return Collections.unmodifiableSet( projects.keySet() );
+    }
+
+    /**
+     * @return live, unmodifiable view of the version strings indexed for the given GA, or an empty set
+     */
+    public Set<String> getVersions( final ProjectRef ga )
+    {
+        final ConcurrentMap<String, Set<TypeAndClassifier>> versions = projects.get( ga.asProjectRef() );
+        if ( versions == null )
+        {
+            return Collections.emptySet();
+        }
+
+        return Collections.unmodifiableSet( versions.keySet() );
+    }
+
+    /**
+     * @return live, unmodifiable view of the type/classifier pairs indexed for the given GAV, or an empty set
+     */
+    public Set<TypeAndClassifier> getTypesAndClassifiers( final ProjectRef ga, final String version )
+    {
+        final ConcurrentMap<String, Set<TypeAndClassifier>> versions = projects.get( ga.asProjectRef() );
+        final Set<TypeAndClassifier> tcs = versions == null ? null : versions.get( version );
+        if ( tcs == null )
+        {
+            return Collections.emptySet();
+        }
+
+        return Collections.unmodifiableSet( tcs );
+    }
+
+    /**
+     * Build a {@link ProjectRefTrie} over the GAs currently in the index, mapping each to its version set (as returned
+     * by {@link #getVersions(ProjectRef)}). GAs added after this call are not reflected in the trie.
+     */
+    public ProjectRefTrie<Set<String>> toTrie()
+    {
+        final ProjectRefTrie<Set<String>> trie = new ProjectRefTrie<Set<String>>();
+        for ( final ProjectRef ga : projects.keySet() )
+        {
+            trie.put( ga, getVersions( ga ) );
+        }
+
+        return trie;
+    }
+
+    public int getProjectCount()
+    {
+        return projects.size();
+    }
+
+    /**
+     * Counts every indexed GAV + type/classifier. This walks the whole index, so it's O(n).
+     */
+    public long getArtifactCount()
+    {
+        long count = 0;
+        for ( final ConcurrentMap<String, Set<TypeAndClassifier>> versions : projects.values() )
+        {
+            for ( final Set<TypeAndClassifier> tcs : versions.values() )
+            {
+                count += tcs.size();
+            }
+        }
+
+        return count;
+    }
+
+    public void clear()
+    {
+        projects.clear();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RepositoryIndex [projects=" + projects.size() + "]";
+    }
+
+}
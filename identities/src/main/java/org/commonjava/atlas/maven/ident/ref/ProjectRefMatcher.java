@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.ref;
+
+/**
+ * Compiled form of a groupId / artifactId wildcard pattern, as used by {@link ProjectRef#matches(ProjectRef)}. '*'
+ * matches any run of characters (including none); every other character, '.' included, matches only itself. Matching
+ * uses no regular expressions, and the compiled matcher is immutable and safe to share.
+ * <p>
+ * To test a ref against many patterns at once, use {@link ProjectRefMatcherSet}.
+ */
+public final class ProjectRefMatcher
+{
+
+    private final Glob groupId;
+
+    private final Glob artifactId;
+
+    private ProjectRefMatcher( final String groupIdPattern, final String artifactIdPattern )
+    {
+        this.groupId = new Glob( groupIdPattern );
+        this.artifactId = new Glob( artifactIdPattern );
+    }
+
+    public static ProjectRefMatcher compile( final String groupIdPattern, final String artifactIdPattern )
+    {
+        return new ProjectRefMatcher( groupIdPattern, artifactIdPattern );
+    }
+
+    public static ProjectRefMatcher compile( final ProjectRef pattern )
+    {
+        return new ProjectRefMatcher( pattern.getGroupId(), pattern.getArtifactId() );
+    }
+
+    public boolean matches( final ProjectRef ref )
+    {
+        return matches( ref.getGroupId(), ref.getArtifactId() );
+    }
+
+    public boolean matches( final String groupId, final String artifactId )
+    {
+        return this.groupId.matches( groupId ) && this.artifactId.matches( artifactId );
+    }
+
+    public String getGroupIdPattern()
+    {
+        return groupId.pattern;
+    }
+
+    public String getArtifactIdPattern()
+    {
+        return artifactId.pattern;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * groupId.pattern.hashCode() + artifactId.pattern.hashCode();
+    }
+
+    @Override
+    public boolean equals( final Object obj )
+    {
+        if ( this == obj )
+        {
+            return true;
+        }
+        if ( !( obj instanceof ProjectRefMatcher ) )
+        {
+            return false;
+        }
+
+        final ProjectRefMatcher other = (ProjectRefMatcher) obj;
+        return groupId.pattern.equals( other.groupId.pattern ) && artifactId.pattern.equals( other.artifactId.pattern );
+    }
+
+    @Override
+    public String toString()
+    {
+        return groupId.pattern + ":" + artifactId.pattern;
+    }
+
+    /**
+     * Single '*' glob. The pattern is split on '*' into literal segments: the first must be a prefix, the last a
+     * suffix, and the ones in between must appear in order (leftmost match is always safe for '*'-only globs).
+     */
+    private static final class Glob
+    {
+        private final String pattern;
+
+        // null if the pattern has no '*'
+        private final String[] segments;
+
+        private final int minLength;
+
+        Glob( final String pattern )
+        {
+            this.pattern = pattern;
+
+            if ( pattern.indexOf( '*' ) < 0 )
+            {
+                this.segments = null;
+                this.minLength = pattern.length();
+                return;
+            }
+
+            int count = 1;
+            for ( int i = 0; i < pattern.length(); i++ )
+            {
+                if ( pattern.charAt( i ) == '*' )
+                {
+                    count++;
+                }
+            }
+
+            this.segments = new String[count];
+            int start = 0;
+            int idx = 0;
+            for ( int i = 0; i <= pattern.length(); i++ )
+            {
+                if ( i == pattern.length() || pattern.charAt( i ) == '*' )
+                {
+                    segments[idx++] = pattern.substring( start, i );
+                    start = i + 1;
+                }
+            }
+
+            this.minLength = pattern.length() - ( count - 1 );
+        }
+
+        boolean matches( final String value )
+        {
+            if ( segments == null )
+            {
+                return pattern.equals( value );
+            }
+
+            if ( value.length() < minLength )
+            {
+                return false;
+            }
+
+            final String first = segments[0];
+            final String last = segments[segments.length - 1];
+            if ( !value.startsWith( first ) || !value.endsWith( last ) )
+            {
+                return false;
+            }
+
+            int pos = first.length();
+            final int limit = value.length() - last.length();
+            for ( int i = 1; i < segments.length - 1; i++ )
+            {
+                final String segment = segments[i];
+                if ( segment.length() == 0 )
+                {
+                    continue;
+                }
+
+                final int found = value.indexOf( segment, pos );
+                if ( found < 0 || found + segment.length() > limit )
+                {
+                    return false;
+                }
+                pos = found + segment.length();
+            }
+
+            return pos <= limit;
+        }
+    }
+
+}
@@ -0,0 +1,358 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.ref;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Set of groupId / artifactId wildcard patterns (same syntax as {@link ProjectRefMatcher}) compiled into a single
+ * automaton, so testing a ref against all of them costs one pass over "groupId:artifactId" rather than one match per
+ * pattern.
+ * <p>
+ * The patterns form a non-deterministic automaton over "groupId:artifactId", where '*' matches any run of characters
+ * except ':'. Deterministic states are built lazily, the first time an input reaches them, and cached; after warm-up
+ * a match is a table lookup per character. If a pathological pattern set produces more than {@link #MAX_STATES}
+ * states, further states are computed on the fly without caching, which is slower but still correct.
+ * <p>
+ * Instances are immutable (apart from the internal cache) and safe for concurrent use.
+ */
+public final class ProjectRefMatcherSet
+{
+
+    public static final int MAX_STATES = 10000;
+
+    private static final int ASCII = 128;
+
+    private static final char SEPARATOR = ':';
+
+    private final List<ProjectRef> patterns;
+
+    // Flattened NFA: one state per pattern position, plus one accepting state at the end of each pattern.
+    private final char[] symbols;
+
+    private final boolean[] stars;
+
+    private final boolean[] accepts;
+
+    private final int[] owners;
+
+    private final ConcurrentMap<StateKey, DState> states = new ConcurrentHashMap<StateKey, DState>();
+
+    private final DState start;
+
+    private final DState dead;
+
+    public ProjectRefMatcherSet( final Collection<? extends ProjectRef> patterns )
+    {
+        this.patterns = Collections.unmodifiableList( new ArrayList<ProjectRef>( patterns ) );
+
+        int total = 0;
+        for ( final ProjectRef pattern : this.patterns )
+        {
+            total += pattern.getGroupId().length() + pattern.getArtifactId().length() + 2;
+        }
+
+        symbols = new char[total];
+        stars = new boolean[total];
+        accepts = new boolean[total];
+        owners = new int[total];
+
+        final int[] starts = new int[this.patterns.size()];
+        int s = 0;
+        for ( int i = 0; i < this.patterns.size(); i++ )
+        {
+            final ProjectRef pattern = this.patterns.get( i );
+            final String flat = pattern.getGroupId() + SEPARATOR + pattern.getArtifactId();
+            starts[i] = s;
+            for ( int j = 0; j < flat.length(); j++ )
+            {
+                symbols[s] = flat.charAt( j );
+                stars[s] = flat.charAt( j ) == '*';
+                owners[s] = i;
+                s++;
+            }
+
+            accepts[s] = true;
+            owners[s] = i;
+            s++;
+        }
+
+        final boolean[] mark = new boolean[total];
+        for ( final int state : starts )
+        {
+            close( state, mark );
+        }
+
+        this.dead = intern( new int[0] );
+        this.start = intern( collect( mark ) );
+    }
+
+    public ProjectRefMatcherSet( final ProjectRef... patterns )
+    {
+        this( Arrays.asList( patterns ) );
+    }
+
+    public List<ProjectRef> getPatterns()
+    {
+        return patterns;
+    }
+
+    public int size()
+    {
+        return patterns.size();
+    }
+
+    public boolean matchesAny( final ProjectRef ref )
+    {
+        return matchesAny( ref.getGroupId(), ref.getArtifactId() );
+    }
+
+    public boolean matchesAny( final String groupId, final String artifactId )
+    {
+        return run( groupId, artifactId ).matched.length > 0;
+    }
+
+    /**
+     * @return the patterns matching the ref, in the order they were given
+     */
+    public List<ProjectRef> getMatching( final ProjectRef ref )
+    {
+        final int[] matched = run( ref.getGroupId(), ref.getArtifactId() ).matched;
+        if ( matched.length == 0 )
+        {
+            return Collections.emptyList();
+        }
+
+        final List<ProjectRef> result = new ArrayList<ProjectRef>( matched.length );
+        for ( final int idx : matched )
+        {
+            result.add( patterns.get( idx ) );
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ProjectRefMatcherSet [patterns=" + patterns.size() + ", states=" + states.size() + "]";
+    }
+
+    private DState run( final String groupId, final String artifactId )
+    {
+        DState state = start;
+        for ( int i = 0; i < groupId.length() && state != dead; i++ )
+        {
+            state = step( state, groupId.charAt( i ) );
+        }
+
+        if ( state != dead )
+        {
+            state = step( state, SEPARATOR );
+        }
+
+        for ( int i = 0; i < artifactId.length() && state != dead; i++ )
+        {
+            state = step( state, artifactId.charAt( i ) );
+        }
+
+        return state;
+    }
+
+    private DState step( final DState state, final char c )
+    {
+        DState next = c < ASCII ? state.ascii.get( c ) : state.other.get( c );
+        if ( next != null )
+        {
+            return next;
+        }
+
+        next = intern( transition( state.nfaStates, c ) );
+        if ( next.cacheable )
+        {
+            if ( c < ASCII )
+            {
+                state.ascii.set( c, next );
+            }
+            else
+            {
+                state.other.put( c, next );
+            }
+        }
+
+        return next;
+    }
+
+    private int[] transition( final int[] from, final char c )
+    {
+        final boolean[] mark = new boolean[symbols.length];
+        for ( final int s : from )
+        {
+            if ( accepts[s] )
+            {
+                continue;
+            }
+
+            if ( stars[s] )
+            {
+                if ( c != SEPARATOR )
+                {
+                    close( s, mark );
+                }
+            }
+            else if ( symbols[s] == c )
+            {
+                close( s + 1, mark );
+            }
+        }
+
+        return collect( mark );
+    }
+
+    /**
+     * Mark the state and everything reachable from it without consuming input (i.e. by skipping '*' positions).
+     */
+    private void close( final int state, final boolean[] mark )
+    {
+        int s = state;
+        mark[s] = true;
+        while ( stars[s] )
+        {
+            mark[++s] = true;
+        }
+    }
+
+    private int[] collect( final boolean[] mark )
+    {
+        int count = 0;
+        for ( final boolean m : mark )
+        {
+            if ( m )
+            {
+                count++;
+            }
+        }
+
+        final int[] result = new int[count];
+        int idx = 0;
+        for ( int s = 0; s < mark.length; s++ )
+        {
+            if ( mark[s] )
+            {
+                result[idx++] = s;
+            }
+        }
+
+        return result;
+    }
+
+    private DState intern( final int[] nfaStates )
+    {
+        final StateKey key = new StateKey( nfaStates );
+        final DState existing = states.get( key );
+        if ( existing != null )
+        {
+            return existing;
+        }
+
+        final boolean cacheable = states.size() < MAX_STATES;
+        final DState created = new DState( nfaStates, matched( nfaStates ), cacheable );
+        if ( !cacheable )
+        {
+            return created;
+        }
+
+        final DState raced = states.putIfAbsent( key, created );
+        return raced == null ? created : raced;
+    }
+
+    private int[] matched( final int[] nfaStates )
+    {
+        int count = 0;
+        for ( final int s : nfaStates )
+        {
+            if ( accepts[s] )
+            {
+                count++;
+            }
+        }
+
+        final int[] result = new int[count];
+        int idx = 0;
+        for ( final int s : nfaStates )
+        {
+            if ( accepts[s] )
+            {
+                result[idx++] = owners[s];
+            }
+        }
+
+        return result;
+    }
+
+    private static final class DState
+    {
+        private final int[] nfaStates;
+
+        private final int[] matched;
+
+        private final boolean cacheable;
+
+        private final AtomicReferenceArray<DState> ascii = new AtomicReferenceArray<DState>( ASCII );
+
+        private final ConcurrentMap<Character, DState> other = new ConcurrentHashMap<Character, DState>();
+
+        DState( final int[] nfaStates, final int[] matched, final boolean cacheable )
+        {
+            this.nfaStates = nfaStates;
+            this.matched = matched;
+            this.cacheable = cacheable;
+        }
+    }
+
+    private static final class StateKey
+    {
+        private final int[] nfaStates;
+
+        private final int hash;
+
+        StateKey( final int[] nfaStates )
+        {
+            this.nfaStates = nfaStates;
+            this.hash = Arrays.hashCode( nfaStates );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals( final Object obj )
+        {
+            return obj instanceof StateKey && Arrays.equals( nfaStates, ( (StateKey) obj ).nfaStates );
+        }
+    }
+
+}
@@ -0,0 +1,314 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.ref;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonicalizing pool for {@link ProjectRef} instances and their subtypes. {@link #intern(ProjectRef)} returns one
+ * shared instance per distinct coordinate, so a large graph holds each GAV (and its groupId / artifactId strings) once
+ * instead of once per relationship endpoint. Instances from the same pool can be compared with ==, which the
+ * equals() implementations already check first.
+ * <p>
+ * Canonical instances are held weakly and drop out of the pool once nothing else references them. The pool is safe
+ * for concurrent use.
+ * <p>
+ * Refs are pooled by exact spelling and class: "1.0" and "1.0.0" stay distinct instances even though they compare
+ * equal, and a {@link SimpleArtifactRef} never collapses into a {@link SimpleProjectVersionRef}.
+ * <p>
+ * The factory methods (the static parse() methods, {@link org.commonjava.atlas.maven.ident.util.IdentityUtils} and
+ * the Jackson deserializers, which delegate to parse()) route through the global pool when it is enabled, either via
+ * {@link #enableGlobal()} or by setting the {@value #GLOBAL_POOL_PROPERTY} system property to true.
+ */
+public final class RefInternPool
+{
+
+    public static final String GLOBAL_POOL_PROPERTY = "atlas.ref-intern.enabled";
+
+    private static volatile RefInternPool global;
+
+    static
+    {
+        if ( Boolean.getBoolean( GLOBAL_POOL_PROPERTY ) )
+        {
+            global = new RefInternPool();
+        }
+    }
+
+    private final ConcurrentMap<Key, WeakEntry> entries = new ConcurrentHashMap<Key, WeakEntry>();
+
+    private final ReferenceQueue<ProjectRef> queue = new ReferenceQueue<ProjectRef>();
+
+    /**
+     * Enable the global pool (if it isn't already) and return it.
+     */
+    public static synchronized RefInternPool enableGlobal()
+    {
+        if ( global == null )
+        {
+            global = new RefInternPool();
+        }
+
+        return global;
+    }
+
+    public static synchronized void disableGlobal()
+    {
+        global = null;
+    }
+
+    /**
+     * @return the global pool, or null if it is disabled
+     */
+    public static RefInternPool getGlobal()
+    {
+        return global;
+    }
+
+    /**
+     * Intern the ref in the global pool if it is enabled; otherwise return it unchanged.
+     */
+    public static <T extends ProjectRef> T internGlobal( final T ref )
+    {
+        final RefInternPool pool = global;
+        return pool == null || ref == null ? ref : pool.intern( ref );
+    }
+
+    /**
+     * Return the canonical instance equal to (and spelled exactly like) the given ref, registering it if there is none
+     * yet. Newly registered {@link SimpleProjectRef} subclasses are rebuilt so that they share their groupId,
+     * artifactId and GAV with already-pooled refs.
+     */
+    public <T extends ProjectRef> T intern( final T ref )
+    {
+        expunge();
+
+        final Key key = new Key( ref );
+        final T existing = lookup( key, ref );
+        if ( existing != null )
+        {
+            return existing;
+        }
+
+        final T canonical = canonicalize( ref );
+        final WeakEntry entry = new WeakEntry( canonical, key, queue );
+        while ( true )
+        {
+            final WeakEntry previous = entries.putIfAbsent( key, entry );
+            if ( previous == null )
+            {
+                return canonical;
+            }
+
+            final T raced = cast( ref, previous.get() );
+            if ( raced != null )
+            {
+                return raced;
+            }
+
+            // the previous entry was collected but not expunged yet; replace it.
+            if ( entries.replace( key, previous, entry ) )
+            {
+                return canonical;
+            }
+        }
+    }
+
+    public ProjectRef projectRef( final String groupId, final String artifactId )
+    {
+        return intern( new SimpleProjectRef( groupId, artifactId ) );
+    }
+
+    public ProjectVersionRef projectVersionRef( final String groupId, final String artifactId, final String version )
+    {
+        return intern( new SimpleProjectVersionRef( groupId, artifactId, version ) );
+    }
+
+    public ArtifactRef artifactRef( final String groupId, final String artifactId, final String version,
+                                    final String type, final String classifier )
+    {
+        return intern( new SimpleArtifactRef( groupId, artifactId, version, type, classifier ) );
+    }
+
+    /**
+     * @return the number of pooled entries, including any that have been collected but not yet expunged
+     */
+    public int size()
+    {
+        expunge();
+        return entries.size();
+    }
+
+    public void clear()
+    {
+        entries.clear();
+        expunge();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RefInternPool [size=" + entries.size() + "]";
+    }
+
+    private <T extends ProjectRef> T lookup( final Key key, final T ref )
+    {
+        final WeakEntry entry = entries.get( key );
+        return entry == null ? null : cast( ref, entry.get() );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private <T extends ProjectRef> T cast( final T ref, final ProjectRef pooled )
+    {
+        // Key includes the exact class, so this is always the same class as ref.
+        return (T) pooled;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private <T extends ProjectRef> T canonicalize( final T ref )
+    {
+        final Class<?> cls = ref.getClass();
+        if ( cls == SimpleProjectVersionRef.class )
+        {
+            final ProjectVersionRef pvr = (ProjectVersionRef) ref;
+            final ProjectRef ga = intern( new SimpleProjectRef( ref.getGroupId(), ref.getArtifactId() ) );
+            return (T) new SimpleProjectVersionRef( ga.getGroupId(), ga.getArtifactId(), pvr.getVersionSpecRaw(),
+                                                    pvr.getVersionStringRaw() );
+        }
+        else if ( cls == SimpleArtifactRef.class )
+        {
+            final ArtifactRef ar = (ArtifactRef) ref;
+            final ProjectVersionRef pvr = intern( new SimpleProjectVersionRef( ar ) );
+            return (T) new SimpleArtifactRef( pvr, ar.getTypeAndClassifier() );
+        }
+        else if ( cls == SimpleVersionlessArtifactRef.class )
+        {
+            final VersionlessArtifactRef var = (VersionlessArtifactRef) ref;
+            final ProjectRef ga = intern( new SimpleProjectRef( ref.getGroupId(), ref.getArtifactId() ) );
+            return (T) new SimpleVersionlessArtifactRef( ga, var.getType(), var.getClassifier() );
+        }
+
+        return ref;
+    }
+
+    private void expunge()
+    {
+        Reference<? extends ProjectRef> ref;
+        while ( ( ref = queue.poll() ) != null )
+        {
+            final WeakEntry entry = (WeakEntry) ref;
+            entries.remove( entry.key, entry );
+        }
+    }
+
+    private static final class WeakEntry
+            extends WeakReference<ProjectRef>
+    {
+        private final Key key;
+
+        WeakEntry( final ProjectRef referent, final Key key, final ReferenceQueue<ProjectRef> queue )
+        {
+            super( referent, queue );
+            this.key = key;
+        }
+    }
+
+    /**
+     * Exact-spelling identity of a ref: class, GA, raw version string, type and classifier.
+     */
+    private static final class Key
+    {
+        private final Class<?> cls;
+
+        private final String groupId;
+
+        private final String artifactId;
+
+        private final String version;
+
+        private final String type;
+
+        private final String classifier;
+
+        private final int hash;
+
+        Key( final ProjectRef ref )
+        {
+            this.cls = ref.getClass();
+            this.groupId = ref.getGroupId();
+            this.artifactId = ref.getArtifactId();
+            this.version = ref instanceof ProjectVersionRef ? ( (ProjectVersionRef) ref ).getVersionString() : null;
+
+            if ( ref instanceof ArtifactRef )
+            {
+                this.type = ( (ArtifactRef) ref ).getType();
+                this.classifier = ( (ArtifactRef) ref ).getClassifier();
+            }
+            else if ( ref instanceof VersionlessArtifactRef )
+            {
+                this.type = ( (VersionlessArtifactRef) ref ).getType();
+                this.classifier = ( (VersionlessArtifactRef) ref ).getClassifier();
+            }
+            else
+            {
+                this.type = null;
+                this.classifier = null;
+            }
+
+            int h = cls.hashCode();
+            h = 31 * h + groupId.hashCode();
+            h = 31 * h + artifactId.hashCode();
+            h = 31 * h + ( version == null ? 0 : version.hashCode() );
+            h = 31 * h + ( type == null ? 0 : type.hashCode() );
+            h = 31 * h + ( classifier == null ? 0 : classifier.hashCode() );
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals( final Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+            return hash == other.hash && cls == other.cls && groupId.equals( other.groupId )
+                    && artifactId.equals( other.artifactId ) && eq( version, other.version ) && eq( type, other.type )
+                    && eq( classifier, other.classifier );
+        }
+
+        private static boolean eq( final String a, final String b )
+        {
+            return a == null ? b == null : a.equals( b );
+        }
+    }
+
+}
@@ -15,10 +15,10 @@
  */
 package org.commonjava.atlas.maven.ident.ref;
 
-import static org.apache.commons.lang.StringUtils.isEmpty;
-
+import java.io.IOException;
 import java.io.Serializable;
 
+import org.commonjava.atlas.maven.ident.util.CoordinateTokenizer;
 import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
 import org.commonjava.atlas.maven.ident.version.SingleVersion;
 import org.commonjava.atlas.maven.ident.version.VersionSpec;
@@ -47,13 +47,13 @@ public class SimpleArtifactRef
                               final String type, final String classifier )
     {
         super( groupId, artifactId, version );
-        this.tc = new SimpleTypeAndClassifier( type, classifier );
+        this.tc = SimpleTypeAndClassifier.of( type, classifier );
     }
 
     public SimpleArtifactRef( final ProjectVersionRef ref, final String type, final String classifier )
     {
         super( ref.getGroupId(), ref.getArtifactId(), ref.getVersionSpecRaw(), ref.getVersionStringRaw() );
-        this.tc = new SimpleTypeAndClassifier( type, classifier );
+        this.tc = SimpleTypeAndClassifier.of( type, classifier );
     }
 
     public SimpleArtifactRef( final ProjectVersionRef ref, final TypeAndClassifier tc )
@@ -67,7 +67,7 @@ public class SimpleArtifactRef
         throws InvalidVersionSpecificationException
     {
         super( groupId, artifactId, versionSpec );
-        this.tc = new SimpleTypeAndClassifier( type, classifier );
+        this.tc = SimpleTypeAndClassifier.of( type, classifier );
     }
 
     public <T extends ArtifactRef> SimpleArtifactRef( final ArtifactRef ref )
@@ -84,51 +84,68 @@ public class SimpleArtifactRef
         }
         else
         {
-            return new SimpleTypeAndClassifier( tc.getType(), tc.getClassifier() );
+            return SimpleTypeAndClassifier.of( tc );
         }
     }
 
     @Override
-    public String toString()
-    {
-        return String.format( "%s:%s:%s:%s%s", getGroupId(), getArtifactId(), getType(), getVersionString(),
-                              ( getClassifier() == null ? "" : ":" + getClassifier() ) );
+    protected void appendFields( final Appendable out )
+        throws IOException
+    {
+        out.append( getGroupId() )
+           .append( ':' )
+           .append( getArtifactId() )
+           .append( ':' )
+           .append( getType() )
+           .append( ':' )
+           .append( getVersionString() );
+
+        final String classifier = getClassifier();
+        if ( classifier != null )
+        {
+            out.append( ':' ).append( classifier );
+        }
     }
 
     public static SimpleArtifactRef parse( final String spec )
     {
-        final String[] parts = spec.split( ":" );
+        return parse( (CharSequence) spec );
+    }
 
-        if ( parts.length < 3 || isEmpty( parts[0] ) || isEmpty( parts[1] ) || isEmpty( parts[2] ) )
+    public static SimpleArtifactRef parse( final CharSequence spec )
+    {
+        final CoordinateTokenizer parts = CoordinateTokenizer.tokenize( spec );
+
+        if ( parts.count() < 3 || parts.isEmpty( 0 ) || parts.isEmpty( 1 ) || parts.isEmpty( 2 ) )
         {
             throw new InvalidRefException(
                                            "SimpleArtifactRef must contain AT LEAST non-empty groupId, artifactId, AND version. (Given: '"
                                                + spec + "')" );
         }
 
-        final String g = parts[0];
-        final String a = parts[1];
+        final String g = parts.field( 0 );
+        final String a = parts.field( 1 );
 
         // assume we're actually parsing a GAV into a POM artifact...
-        String v = parts[2];
+        String v = parts.field( 2 );
         String t = "pom";
         String c = null;
 
-        if ( parts.length > 3 )
+        if ( parts.count() > 3 )
         {
             // oops, it's a type, not a version...see toString() for the specification.
             t = v;
-            v = parts[3];
+            v = parts.field( 3 );
 
-            if ( parts.length > 4 )
+            if ( parts.count() > 4 )
             {
-                c = parts[4];
+                c = parts.field( 4 );
             }
         }
 
         // assume non-optional, because it might not matter if you're parsing a string like this...you'd be more careful if you were reading something
         // that had an optional field, because it's not in the normal GATV[C] spec.
-        return new SimpleArtifactRef( g, a, v, t, c );
+        return RefInternPool.internGlobal( new SimpleArtifactRef( g, a, v, t, c ) );
     }
 
     @Override
@@ -137,6 +154,23 @@ public class SimpleArtifactRef
         return new SimpleArtifactRef( groupId, artifactId, version, tc.getType(), tc.getClassifier() );
     }
 
+    @Override
+    public ArtifactRef asArtifactRef( final String type, final String classifier )
+    {
+        return asArtifactRef( SimpleTypeAndClassifier.of( type, classifier ) );
+    }
+
+    @Override
+    public ArtifactRef asArtifactRef( final TypeAndClassifier tc )
+    {
+        if ( SimpleArtifactRef.class.equals( getClass() ) && this.tc.equals( tc ) )
+        {
+            return this;
+        }
+
+        return super.asArtifactRef( tc );
+    }
+
     @Override
     public String getType()
     {
@@ -156,10 +190,10 @@ public class SimpleArtifactRef
     }
 
     @Override
-    public int hashCode()
+    protected int computeHashCode()
     {
         final int prime = 31;
-        int result = super.hashCode();
+        int result = super.computeHashCode();
         result = prime * result + ( ( tc == null ) ? 0 : tc.hashCode() );
         return result;
     }
@@ -171,17 +205,14 @@ public class SimpleArtifactRef
         {
             return true;
         }
-        if ( !super.equals( obj ) )
-        {
-            return false;
-        }
         if ( !(obj instanceof ArtifactRef) )
         {
             return false;
         }
         final ArtifactRef other = (ArtifactRef) obj;
 
-        return artifactFieldsEqual( other );
+        // compare type/classifier first; it's cheaper than the version comparison in super.equals()
+        return artifactFieldsEqual( other ) && super.equals( obj );
     }
 
     private boolean artifactFieldsEqual( final ArtifactRef other )
@@ -211,7 +242,7 @@ public class SimpleArtifactRef
         if ( !( other instanceof ArtifactRef ) )
         {
             // compare vs. POM reference.
-            return artifactFieldsEqual( new SimpleArtifactRef( other, "pom", null ) );
+            return SimpleTypeAndClassifier.POM.equals( tc );
         }
 
         return artifactFieldsEqual( (ArtifactRef) other );
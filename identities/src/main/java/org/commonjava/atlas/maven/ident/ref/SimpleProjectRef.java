@@ -15,6 +15,10 @@
  */
 package org.commonjava.atlas.maven.ident.ref;
 
+import org.commonjava.atlas.maven.ident.util.CoordinateTokenizer;
+
+import java.io.IOException;
+
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
 /**
@@ -34,6 +38,19 @@ public class SimpleProjectRef
     // NEVER null
     private final String artifactId;
 
+    // compiled on first use by matches(); racy single-check is fine since it's immutable
+    private transient ProjectRefMatcher matcher;
+
+    // cached by hashCode(); racy single-check is fine since every thread computes the same value
+    private transient int hash;
+
+    // cached by toString(); racy single-check, as above
+    private transient String rendered;
+
+    // cached by asProjectRef() for subclasses. Volatile, since subclass refs have non-final fields that must be safely
+    // published along with the derived ref.
+    private transient volatile ProjectRef projectRef;
+
     public SimpleProjectRef( final String groupId, final String artifactId )
     {
         if ( isEmpty( groupId ) || isEmpty( artifactId ) )
@@ -54,14 +71,19 @@ public class SimpleProjectRef
 
     public static ProjectRef parse( final String ga )
     {
-        final String[] parts = ga.split( ":" );
-        if ( parts.length < 2 || isEmpty( parts[0] ) || isEmpty( parts[1] ) )
+        return parse( (CharSequence) ga );
+    }
+
+    public static ProjectRef parse( final CharSequence ga )
+    {
+        final CoordinateTokenizer parts = CoordinateTokenizer.tokenize( ga );
+        if ( parts.count() < 2 || parts.isEmpty( 0 ) || parts.isEmpty( 1 ) )
         {
             throw new InvalidRefException( "ProjectRef must contain non-empty groupId AND artifactId. (Given: '" + ga
                 + "')" );
         }
 
-        return new SimpleProjectRef( parts[0], parts[1] );
+        return RefInternPool.internGlobal( new SimpleProjectRef( parts.field( 0 ), parts.field( 1 ) ) );
     }
 
     @Override
@@ -79,7 +101,19 @@ public class SimpleProjectRef
     @Override
     public ProjectRef asProjectRef()
     {
-        return SimpleProjectRef.class.equals( getClass() ) ? this : new SimpleProjectRef( getGroupId(), getArtifactId() );
+        if ( SimpleProjectRef.class.equals( getClass() ) )
+        {
+            return this;
+        }
+
+        ProjectRef result = projectRef;
+        if ( result == null )
+        {
+            result = new SimpleProjectRef( getGroupId(), getArtifactId() );
+            projectRef = result;
+        }
+
+        return result;
     }
 
     @Override
@@ -109,11 +143,72 @@ public class SimpleProjectRef
     @Override
     public String toString()
     {
-        return String.format( "%s:%s", groupId, artifactId );
+        String result = rendered;
+        if ( result == null )
+        {
+            final StringBuilder sb = new StringBuilder( 64 );
+            try
+            {
+                appendFields( sb );
+            }
+            catch ( final IOException e )
+            {
+                throw new IllegalStateException( "StringBuilder.append() failed", e );
+            }
+
+            result = sb.toString();
+            rendered = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Write the same text as {@link #toString()} to the given output, without building a String unless one is already
+     * cached.
+     */
+    public void renderTo( final Appendable out )
+        throws IOException
+    {
+        final String cached = rendered;
+        if ( cached != null )
+        {
+            out.append( cached );
+        }
+        else
+        {
+            appendFields( out );
+        }
+    }
+
+    /**
+     * Append this ref's coordinate fields in {@link #toString()} format. Subclasses with different formats override
+     * this rather than toString(), so both the cached String and {@link #renderTo(Appendable)} stay in sync.
+     */
+    protected void appendFields( final Appendable out )
+        throws IOException
+    {
+        out.append( groupId ).append( ':' ).append( artifactId );
     }
 
     @Override
     public int hashCode()
+    {
+        int h = hash;
+        if ( h == 0 )
+        {
+            h = computeHashCode();
+            hash = h;
+        }
+
+        return h;
+    }
+
+    /**
+     * Compute the hash code that {@link #hashCode()} caches. Subclasses that add fields to equals() should extend this
+     * instead of overriding hashCode().
+     */
+    protected int computeHashCode()
     {
         final int prime = 31;
         int result = 1;
@@ -165,22 +260,14 @@ public class SimpleProjectRef
             return true;
         }
 
-        final String gidPattern = toWildcard( getGroupId() );
-        if ( !ref.getGroupId()
-                 .matches( gidPattern ) )
+        ProjectRefMatcher matcher = this.matcher;
+        if ( matcher == null )
         {
-            return false;
+            matcher = ProjectRefMatcher.compile( this );
+            this.matcher = matcher;
         }
 
-        final String aidPattern = toWildcard( getArtifactId() );
-        return ref.getArtifactId().matches( aidPattern );
-
-    }
-
-    private String toWildcard( final String val )
-    {
-        return val.replaceAll( "\\.", "\\." )
-                  .replaceAll( "\\*", ".*" );
+        return matcher.matches( ref );
     }
 
 }
@@ -16,12 +16,13 @@
 package org.commonjava.atlas.maven.ident.ref;
 
 import org.apache.commons.lang.StringUtils;
+import org.commonjava.atlas.maven.ident.util.CoordinateTokenizer;
 import org.commonjava.atlas.maven.ident.util.VersionUtils;
 import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
 import org.commonjava.atlas.maven.ident.version.SingleVersion;
 import org.commonjava.atlas.maven.ident.version.VersionSpec;
 
-import static org.apache.commons.lang.StringUtils.isEmpty;
+import java.io.IOException;
 
 /**
  * Reference to a particular release of a project (or module, in terms of Maven builds). A release may contain many artifacts (see {@link SimpleArtifactRef}).
@@ -38,10 +39,21 @@ public class SimpleProjectVersionRef
 
     private static final long serialVersionUID = 1L;
 
-    // NEVER null
-    private VersionSpec versionSpec;
+    // At least one of versionSpec / versionString is always set; the other is derived on first use with a racy
+    // single-check. Both are volatile so the derived value is safely published: concurrent first callers may each
+    // compute it once (parsing and rendering are deterministic, so they agree), but once a value is visible it is
+    // never recomputed. See IdentityUtils.preparse() to resolve specs ahead of time.
+    private volatile VersionSpec versionSpec;
 
-    private String versionString;
+    private volatile String versionString;
+
+    // derived refs, memoized on first use so repeated conversions in graph code don't allocate. Same racy
+    // single-check as above: concurrent first callers may each build one, but they're all equal.
+    private transient volatile SimpleProjectVersionRef projectVersionRef;
+
+    private transient volatile ArtifactRef pomArtifact;
+
+    private transient volatile ArtifactRef jarArtifact;
 
     public SimpleProjectVersionRef( final ProjectRef ref, final VersionSpec versionSpec )
     {
@@ -88,36 +100,66 @@ public class SimpleProjectVersionRef
 
     public static ProjectVersionRef parse( final String gav )
     {
-        final String[] parts = gav.split( ":" );
-        if ( parts.length < 3 || isEmpty( parts[0] ) || isEmpty( parts[1] ) || isEmpty( parts[2] ) )
+        return parse( (CharSequence) gav );
+    }
+
+    public static ProjectVersionRef parse( final CharSequence gav )
+    {
+        final CoordinateTokenizer parts = CoordinateTokenizer.tokenize( gav );
+        if ( parts.count() < 3 || parts.isEmpty( 0 ) || parts.isEmpty( 1 ) || parts.isEmpty( 2 ) )
         {
             throw new InvalidRefException(
                                            "ProjectVersionRef must contain non-empty groupId, artifactId, AND version. (Given: '"
                                                + gav + "')" );
         }
 
-        return new SimpleProjectVersionRef( parts[0], parts[1], parts[2] );
+        return RefInternPool.internGlobal(
+                new SimpleProjectVersionRef( parts.field( 0 ), parts.field( 1 ), parts.field( 2 ) ) );
     }
 
     @Override
     public SimpleProjectVersionRef asProjectVersionRef()
     {
-        return SimpleProjectVersionRef.class.equals( getClass() ) ? this : new SimpleProjectVersionRef( getGroupId(),
-                                                                                            getArtifactId(),
-                                                                                            getVersionSpecRaw(),
-                                                                                            getVersionStringRaw() );
+        if ( SimpleProjectVersionRef.class.equals( getClass() ) )
+        {
+            return this;
+        }
+
+        SimpleProjectVersionRef result = projectVersionRef;
+        if ( result == null )
+        {
+            result = new SimpleProjectVersionRef( getGroupId(), getArtifactId(), getVersionSpecRaw(),
+                                                  getVersionStringRaw() );
+            projectVersionRef = result;
+        }
+
+        return result;
     }
 
     @Override
     public ArtifactRef asPomArtifact()
     {
-        return asArtifactRef( "pom", null );
+        ArtifactRef result = pomArtifact;
+        if ( result == null )
+        {
+            result = asArtifactRef( SimpleTypeAndClassifier.POM );
+            pomArtifact = result;
+        }
+
+        return result;
     }
 
     @Override
     public ArtifactRef asJarArtifact()
     {
-        return asArtifactRef( "jar", null );
+        ArtifactRef result = jarArtifact;
+        if ( result == null )
+        {
+            result = asArtifactRef( SimpleTypeAndClassifier.JAR );
+            jarArtifact = result;
+        }
+
+        return result;
     }
 
     @Override
@@ -209,19 +251,22 @@ public class SimpleProjectVersionRef
     @Override
     public VersionSpec getVersionSpec()
     {
-        if ( versionSpec == null )
+        VersionSpec spec = versionSpec;
+        if ( spec == null )
         {
-            versionSpec = VersionUtils.createFromSpec( versionString );
+            spec = VersionUtils.createFromSpec( versionString );
+            versionSpec = spec;
         }
-        return versionSpec;
+        return spec;
     }
 
     @Override
-    public int hashCode()
+    protected int computeHashCode()
     {
         final int prime = 31;
-        int result = super.hashCode();
-        result = prime * result + ( ( getVersionString() == null ) ? 0 : getVersionString().hashCode() );
+        int result = super.computeHashCode();
+        final String version = getVersionString();
+        result = prime * result + ( ( version == null ) ? 0 : version.hashCode() );
         return result;
     }
 
@@ -248,6 +293,20 @@ public class SimpleProjectVersionRef
         }
 
         final ProjectVersionRef other = (ProjectVersionRef) obj;
+
+        // identical spellings (or the same parsed spec) are always equal; no need to parse anything
+        final String rawVersion = versionString;
+        if ( rawVersion != null && rawVersion.equals( other.getVersionStringRaw() ) )
+        {
+            return true;
+        }
+
+        final VersionSpec rawSpec = versionSpec;
+        if ( rawSpec != null && rawSpec == other.getVersionSpecRaw() )
+        {
+            return true;
+        }
+
         boolean result = true;
         try
         {
@@ -282,9 +341,11 @@ public class SimpleProjectVersionRef
     }
 
     @Override
-    public String toString()
+    protected void appendFields( final Appendable out )
+        throws IOException
     {
-        return String.format( "%s:%s:%s", getGroupId(), getArtifactId(), getVersionString() );
+        super.appendFields( out );
+        out.append( ':' ).append( getVersionString() );
     }
 
     @Override
@@ -302,12 +363,14 @@ public class SimpleProjectVersionRef
     @Override
     public String getVersionString()
     {
-        if ( versionString == null )
+        String version = versionString;
+        if ( version == null )
         {
-            versionString = versionSpec.renderStandard();
+            version = versionSpec.renderStandard();
+            versionString = version;
         }
 
-        return versionString;
+        return version;
     }
 
     @Override
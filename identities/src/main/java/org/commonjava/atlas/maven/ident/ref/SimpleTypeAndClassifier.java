@@ -17,15 +17,36 @@ package org.commonjava.atlas.maven.ident.ref;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 public class SimpleTypeAndClassifier
     implements TypeAndClassifier
 {
     private static final long serialVersionUID = 1L;
 
+    public static final SimpleTypeAndClassifier POM = new SimpleTypeAndClassifier( "pom", null );
+
+    public static final SimpleTypeAndClassifier JAR = new SimpleTypeAndClassifier( "jar", null );
+
+    public static final SimpleTypeAndClassifier SOURCES = new SimpleTypeAndClassifier( "jar", "sources" );
+
+    public static final SimpleTypeAndClassifier JAVADOC = new SimpleTypeAndClassifier( "jar", "javadoc" );
+
+    // bound on the canonical table used by of(); pairs seen after it fills up just aren't shared
+    private static final int MAX_CANONICAL = 1024;
+
+    private static final ConcurrentMap<SimpleTypeAndClassifier, SimpleTypeAndClassifier> CANONICAL =
+            new ConcurrentHashMap<SimpleTypeAndClassifier, SimpleTypeAndClassifier>();
+
     private final String type;
 
     private final String classifier;
 
+    // cached by toString(); racy single-check is fine since the value never changes
+    private transient String rendered;
+
     public SimpleTypeAndClassifier( final String type, final String classifier )
     {
         this.type = type == null ? "jar" : type;
@@ -48,6 +69,63 @@ public class SimpleTypeAndClassifier
         this.classifier = typeAndClassifier.getClassifier();
     }
 
+    /**
+     * Return a shared instance equal to <code>new SimpleTypeAndClassifier( type, classifier )</code>. The common pairs
+     * (pom, jar, jar:sources, jar:javadoc) are answered without allocating; others are canonicalized through a bounded
+     * table.
+     */
+    public static SimpleTypeAndClassifier of( final String type, final String classifier )
+    {
+        final String t = type == null ? "jar" : type;
+        if ( isEmpty( classifier ) )
+        {
+            if ( "jar".equals( t ) )
+            {
+                return JAR;
+            }
+            else if ( "pom".equals( t ) )
+            {
+                return POM;
+            }
+        }
+        else if ( "jar".equals( t ) )
+        {
+            if ( "sources".equals( classifier ) )
+            {
+                return SOURCES;
+            }
+            else if ( "javadoc".equals( classifier ) )
+            {
+                return JAVADOC;
+            }
+        }
+
+        final SimpleTypeAndClassifier created = new SimpleTypeAndClassifier( t, classifier );
+        final SimpleTypeAndClassifier existing = CANONICAL.get( created );
+        if ( existing != null )
+        {
+            return existing;
+        }
+
+        if ( CANONICAL.size() >= MAX_CANONICAL )
+        {
+            return created;
+        }
+
+        final SimpleTypeAndClassifier raced = CANONICAL.putIfAbsent( created, created );
+        return raced == null ? created : raced;
+    }
+
+    public static SimpleTypeAndClassifier of( final TypeAndClassifier tc )
+    {
+        if ( tc == null )
+        {
+            return JAR;
+        }
+
+        return of( tc.getType(), tc.getClassifier() );
+    }
+
     @Override
     public String getType()
     {
@@ -63,7 +141,32 @@ public class SimpleTypeAndClassifier
     @Override
     public String toString()
     {
-        return String.format( "%s%s", type, ( classifier == null ? "" : ":" + classifier ) );
+        String result = rendered;
+        if ( result == null )
+        {
+            result = classifier == null ? String.valueOf( type ) : type + ":" + classifier;
+            rendered = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Write the same text as {@link #toString()} to the given output.
+     */
+    public void renderTo( final Appendable out )
+        throws IOException
+    {
+        out.append( type );
+        if ( classifier != null )
+        {
+            out.append( ':' ).append( classifier );
+        }
+    }
+
+    private Object readResolve()
+    {
+        return of( type, classifier );
     }
 
     @Override
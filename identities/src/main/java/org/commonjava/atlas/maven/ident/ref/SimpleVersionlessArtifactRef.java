@@ -15,10 +15,11 @@
  */
 package org.commonjava.atlas.maven.ident.ref;
 
-import static org.apache.commons.lang.StringUtils.isEmpty;
-
+import org.commonjava.atlas.maven.ident.util.CoordinateTokenizer;
 import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
 
+import java.io.IOException;
+
 /**
  * Special implementation of {@link SimpleArtifactRef} that forces all versions to ZERO, to allow calculation of transitive
  * dependency graphs, where version collisions of the same project are likely.
@@ -43,13 +44,13 @@ public class SimpleVersionlessArtifactRef
     public SimpleVersionlessArtifactRef( final ProjectRef ref, final String type, final String classifier )
     {
         super( ref.getGroupId(), ref.getArtifactId() );
-        this.tc = new SimpleTypeAndClassifier( type, classifier );
+        this.tc = SimpleTypeAndClassifier.of( type, classifier );
     }
 
     public SimpleVersionlessArtifactRef( final ProjectRef ref, final TypeAndClassifier tc )
     {
         super( ref.getGroupId(), ref.getArtifactId() );
-        this.tc = tc == null ? new SimpleTypeAndClassifier() : tc;
+        this.tc = tc == null ? SimpleTypeAndClassifier.JAR : tc;
     }
 
     public SimpleVersionlessArtifactRef( final String groupId, final String artifactId, final String type,
@@ -57,7 +58,7 @@ public class SimpleVersionlessArtifactRef
         throws InvalidVersionSpecificationException
     {
         super( groupId, artifactId );
-        this.tc = new SimpleTypeAndClassifier( type, classifier );
+        this.tc = SimpleTypeAndClassifier.of( type, classifier );
     }
 
     public <T extends VersionlessArtifactRef> SimpleVersionlessArtifactRef( final VersionlessArtifactRef ref )
@@ -67,50 +68,66 @@ public class SimpleVersionlessArtifactRef
     }
 
     @Override
-    public String toString()
+    protected void appendFields( final Appendable out )
+        throws IOException
     {
-        return String.format( "%s:%s:%s", getGroupId(), getArtifactId(), getTypeAndClassifier() );
+        super.appendFields( out );
+        out.append( ':' );
+
+        final TypeAndClassifier tc = getTypeAndClassifier();
+        if ( tc instanceof SimpleTypeAndClassifier )
+        {
+            ( (SimpleTypeAndClassifier) tc ).renderTo( out );
+        }
+        else
+        {
+            out.append( String.valueOf( tc ) );
+        }
     }
 
     public static VersionlessArtifactRef parse( final String spec )
     {
-        final String[] parts = spec.split( ":" );
+        return parse( (CharSequence) spec );
+    }
+
+    public static VersionlessArtifactRef parse( final CharSequence spec )
+    {
+        final CoordinateTokenizer parts = CoordinateTokenizer.tokenize( spec );
 
-        if ( parts.length < 2 || isEmpty( parts[0] ) || isEmpty( parts[1] ) )
+        if ( parts.count() < 2 || parts.isEmpty( 0 ) || parts.isEmpty( 1 ) )
         {
             throw new InvalidRefException(
                                            "VersionlessArtifactRef must contain AT LEAST non-empty groupId and artifactId. (Given: '"
                                                + spec + "')" );
         }
 
-        final String g = parts[0];
-        final String a = parts[1];
+        final String g = parts.field( 0 );
+        final String a = parts.field( 1 );
 
         String t = "pom";
         String c = null;
 
-        if ( parts.length > 2 )
+        if ( parts.count() > 2 )
         {
             // we probably have a type in there.
-            t = parts[2];
+            t = parts.field( 2 );
 
-            if ( parts.length > 3 )
+            if ( parts.count() > 4 )
+            {
+                // okay, wtf? It's a GATVC, and we need to shift to eliminate the V...
+                c = parts.field( 4 );
+            }
+            else if ( parts.count() > 3 )
             {
                 // we have a classifier? What if it's GATV??
                 // assume it's just a classifier...
-                c = parts[3];
-
-                if ( parts.length > 4 )
-                {
-                    // okay, wtf? It's a GATVC, and we need to shift to eliminate the V...
-                    c = parts[4];
-                }
+                c = parts.field( 3 );
             }
         }
 
         // assume non-optional, because it might not matter if you're parsing a string like this...you'd be more careful if you were reading something
         // that had an optional field, because it's not in the normal GATV[C] spec.
-        return new SimpleVersionlessArtifactRef( g, a, t, c );
+        return RefInternPool.internGlobal( new SimpleVersionlessArtifactRef( g, a, t, c ) );
     }
 
     @Override
@@ -132,10 +149,10 @@ public class SimpleVersionlessArtifactRef
     }
 
     @Override
-    public int hashCode()
+    protected int computeHashCode()
     {
         final int prime = 31;
-        int result = super.hashCode();
+        int result = super.computeHashCode();
         result = prime * result + ( ( tc == null ) ? 0 : tc.hashCode() );
         return result;
     }
@@ -185,7 +202,7 @@ public class SimpleVersionlessArtifactRef
     @Override
     public VersionlessArtifactRef asVersionlessArtifactRef( final String type, final String classifier )
     {
-        final TypeAndClassifier tc = new SimpleTypeAndClassifier( type, classifier );
+        final TypeAndClassifier tc = SimpleTypeAndClassifier.of( type, classifier );
         if ( SimpleVersionlessArtifactRef.class.equals( getClass() ) && this.tc.equals( tc ) )
         {
             return this;
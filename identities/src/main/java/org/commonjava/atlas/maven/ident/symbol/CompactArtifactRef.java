@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.symbol;
+
+/**
+ * Artifact held as four symbol IDs from a {@link RefSymbols}: the GAV plus a type/classifier pair. Use
+ * {@link RefSymbols#toRef(CompactArtifactRef)} to get a full ArtifactRef back.
+ */
+public final class CompactArtifactRef
+        extends CompactProjectVersionRef
+{
+
+    private final int typeAndClassifier;
+
+    public CompactArtifactRef( final int groupId, final int artifactId, final int version,
+                               final int typeAndClassifier )
+    {
+        super( groupId, artifactId, version );
+        this.typeAndClassifier = typeAndClassifier;
+    }
+
+    public int getTypeAndClassifier()
+    {
+        return typeAndClassifier;
+    }
+
+    public CompactProjectVersionRef asProjectVersionRef()
+    {
+        return new CompactProjectVersionRef( getGroupId(), getArtifactId(), getVersion() );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * super.hashCode() + typeAndClassifier;
+    }
+
+    @Override
+    public boolean equals( final Object obj )
+    {
+        return super.equals( obj ) && typeAndClassifier == ( (CompactArtifactRef) obj ).typeAndClassifier;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "CompactArtifactRef [%d:%d:%d:%d]", getGroupId(), getArtifactId(), getVersion(),
+                              typeAndClassifier );
+    }
+
+}
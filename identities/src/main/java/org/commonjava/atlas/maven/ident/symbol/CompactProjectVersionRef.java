@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.symbol;
+
+/**
+ * GAV held as three symbol IDs from a {@link RefSymbols}. Only meaningful together with the RefSymbols that created
+ * it; use {@link RefSymbols#toRef(CompactProjectVersionRef)} to get a full ProjectVersionRef back.
+ */
+public class CompactProjectVersionRef
+{
+
+    private final int groupId;
+
+    private final int artifactId;
+
+    private final int version;
+
+    public CompactProjectVersionRef( final int groupId, final int artifactId, final int version )
+    {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+    }
+
+    public int getGroupId()
+    {
+        return groupId;
+    }
+
+    public int getArtifactId()
+    {
+        return artifactId;
+    }
+
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * @return groupId and artifactId IDs packed into one long (see {@link RefSymbols#packGA(int, int)})
+     */
+    public long getGA()
+    {
+        return RefSymbols.packGA( groupId, artifactId );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * ( 31 * groupId + artifactId ) + version;
+    }
+
+    @Override
+    public boolean equals( final Object obj )
+    {
+        if ( this == obj )
+        {
+            return true;
+        }
+        if ( obj == null || obj.getClass() != getClass() )
+        {
+            return false;
+        }
+
+        final CompactProjectVersionRef other = (CompactProjectVersionRef) obj;
+        return groupId == other.groupId && artifactId == other.artifactId && version == other.version;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "CompactProjectVersionRef [%d:%d:%d]", groupId, artifactId, version );
+    }
+
+}
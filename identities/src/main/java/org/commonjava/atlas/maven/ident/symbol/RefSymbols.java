@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.symbol;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.RefInternPool;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleTypeAndClassifier;
+import org.commonjava.atlas.maven.ident.ref.TypeAndClassifier;
+
+/**
+ * Symbol tables for the parts of a Maven coordinate: groupIds, artifactIds, version strings and type/classifier pairs,
+ * each with its own dense ID space. Converts refs to compact handles (or straight into int arrays) and back, so large
+ * graphs and indexes can store coordinates as primitives instead of object graphs.
+ * <p>
+ * Versions are keyed by their exact string, so "1.0" and "1.0.0" get different IDs. Refs rebuilt from IDs go through
+ * the global {@link RefInternPool} when it is enabled.
+ */
+public final class RefSymbols
+{
+
+    /**
+     * Number of ints {@link #encode(ProjectVersionRef, int[], int)} writes.
+     */
+    public static final int GAV_INTS = 3;
+
+    /**
+     * Number of ints {@link #encode(ArtifactRef, int[], int)} writes.
+     */
+    public static final int ARTIFACT_INTS = 4;
+
+    private final SymbolTable<String> groupIds = new SymbolTable<String>();
+
+    private final SymbolTable<String> artifactIds = new SymbolTable<String>();
+
+    private final SymbolTable<String> versions = new SymbolTable<String>();
+
+    private final SymbolTable<TypeAndClassifier> typesAndClassifiers = new SymbolTable<TypeAndClassifier>();
+
+    public SymbolTable<String> getGroupIds()
+    {
+        return groupIds;
+    }
+
+    public SymbolTable<String> getArtifactIds()
+    {
+        return artifactIds;
+    }
+
+    public SymbolTable<String> getVersions()
+    {
+        return versions;
+    }
+
+    public SymbolTable<TypeAndClassifier> getTypesAndClassifiers()
+    {
+        return typesAndClassifiers;
+    }
+
+    /**
+     * Pack a groupId ID and artifactId ID into one long, groupId in the high 32 bits.
+     */
+    public static long packGA( final int groupId, final int artifactId )
+    {
+        return ( (long) groupId << 32 ) | ( artifactId & 0xFFFFFFFFL );
+    }
+
+    public static int unpackGroupId( final long ga )
+    {
+        return (int) ( ga >>> 32 );
+    }
+
+    public static int unpackArtifactId( final long ga )
+    {
+        return (int) ga;
+    }
+
+    public long packGA( final ProjectRef ref )
+    {
+        return packGA( groupIds.idOf( ref.getGroupId() ), artifactIds.idOf( ref.getArtifactId() ) );
+    }
+
+    public ProjectRef projectRef( final long ga )
+    {
+        final String groupId = groupIds.get( unpackGroupId( ga ) );
+        final String artifactId = artifactIds.get( unpackArtifactId( ga ) );
+        return RefInternPool.internGlobal( new SimpleProjectRef( groupId, artifactId ) );
+    }
+
+    public CompactProjectVersionRef compact( final ProjectVersionRef ref )
+    {
+        return new CompactProjectVersionRef( groupIds.idOf( ref.getGroupId() ), artifactIds.idOf( ref.getArtifactId() ),
+                                             versions.idOf( ref.getVersionString() ) );
+    }
+
+    public CompactArtifactRef compact( final ArtifactRef ref )
+    {
+        return new CompactArtifactRef( groupIds.idOf( ref.getGroupId() ), artifactIds.idOf( ref.getArtifactId() ),
+                                       versions.idOf( ref.getVersionString() ),
+                                       typesAndClassifiers.idOf( typeAndClassifier( ref ) ) );
+    }
+
+    public ProjectVersionRef toRef( final CompactProjectVersionRef ref )
+    {
+        return projectVersionRef( ref.getGroupId(), ref.getArtifactId(), ref.getVersion() );
+    }
+
+    public ArtifactRef toRef( final CompactArtifactRef ref )
+    {
+        return artifactRef( ref.getGroupId(), ref.getArtifactId(), ref.getVersion(), ref.getTypeAndClassifier() );
+    }
+
+    /**
+     * Write the GAV's IDs into dest[offset .. offset + {@link #GAV_INTS}).
+     */
+    public void encode( final ProjectVersionRef ref, final int[] dest, final int offset )
+    {
+        dest[offset] = groupIds.idOf( ref.getGroupId() );
+        dest[offset + 1] = artifactIds.idOf( ref.getArtifactId() );
+        dest[offset + 2] = versions.idOf( ref.getVersionString() );
+    }
+
+    /**
+     * Write the artifact's IDs into dest[offset .. offset + {@link #ARTIFACT_INTS}).
+     */
+    public void encode( final ArtifactRef ref, final int[] dest, final int offset )
+    {
+        encode( (ProjectVersionRef) ref, dest, offset );
+        dest[offset + 3] = typesAndClassifiers.idOf( typeAndClassifier( ref ) );
+    }
+
+    public ProjectVersionRef decodeProjectVersionRef( final int[] src, final int offset )
+    {
+        return projectVersionRef( src[offset], src[offset + 1], src[offset + 2] );
+    }
+
+    public ArtifactRef decodeArtifactRef( final int[] src, final int offset )
+    {
+        return artifactRef( src[offset], src[offset + 1], src[offset + 2], src[offset + 3] );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RefSymbols [groupIds=" + groupIds.size() + ", artifactIds=" + artifactIds.size() + ", versions="
+                + versions.size() + ", typesAndClassifiers=" + typesAndClassifiers.size() + "]";
+    }
+
+    private ProjectVersionRef projectVersionRef( final int groupId, final int artifactId, final int version )
+    {
+        return RefInternPool.internGlobal(
+                new SimpleProjectVersionRef( groupIds.get( groupId ), artifactIds.get( artifactId ),
+                                             versions.get( version ) ) );
+    }
+
+    private ArtifactRef artifactRef( final int groupId, final int artifactId, final int version, final int tc )
+    {
+        final ProjectVersionRef gav =
+                new SimpleProjectVersionRef( groupIds.get( groupId ), artifactIds.get( artifactId ),
+                                             versions.get( version ) );
+
+        return RefInternPool.internGlobal( new SimpleArtifactRef( gav, typesAndClassifiers.get( tc ) ) );
+    }
+
+    private TypeAndClassifier typeAndClassifier( final ArtifactRef ref )
+    {
+        final TypeAndClassifier tc = ref.getTypeAndClassifier();
+        return tc instanceof SimpleTypeAndClassifier ? tc : SimpleTypeAndClassifier.of( tc );
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.symbol;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Assigns dense int IDs (0, 1, 2, ...) to distinct symbols, and maps IDs back to symbols. IDs are never reused or
+ * reassigned, so they can be stored in primitive arrays in place of object references.
+ * <p>
+ * Lookups in both directions are lock-free; assigning a new ID takes a lock. An ID returned by {@link #idOf(Object)}
+ * can always be resolved with {@link #get(int)}, from any thread that learned the ID through a normal
+ * happens-before edge.
+ *
+ * @param <T> symbol type; must have value-based equals() and hashCode()
+ */
+public final class SymbolTable<T>
+{
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ConcurrentMap<T, Integer> ids = new ConcurrentHashMap<T, Integer>();
+
+    private volatile Object[] symbols = new Object[INITIAL_CAPACITY];
+
+    private volatile int size;
+
+    /**
+     * @return the ID of the symbol, assigning the next free one if it has none yet
+     */
+    public int idOf( final T symbol )
+    {
+        final Integer id = ids.get( symbol );
+        if ( id != null )
+        {
+            return id;
+        }
+
+        return assign( symbol );
+    }
+
+    /**
+     * @return the ID of the symbol, or {@link #NOT_FOUND} if it has none. Never assigns.
+     */
+    public int find( final T symbol )
+    {
+        final Integer id = ids.get( symbol );
+        return id == null ? NOT_FOUND : id;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if no symbol has that ID
+     */
+    @SuppressWarnings( "unchecked" )
+    public T get( final int id )
+    {
+        if ( id < 0 || id >= size )
+        {
+            throw new IndexOutOfBoundsException( "No symbol with id: " + id + " (size: " + size + ")" );
+        }
+
+        return (T) symbols[id];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SymbolTable [size=" + size + "]";
+    }
+
+    private synchronized int assign( final T symbol )
+    {
+        final Integer existing = ids.get( symbol );
+        if ( existing != null )
+        {
+            return existing;
+        }
+
+        final int id = size;
+        Object[] current = symbols;
+        if ( id == current.length )
+        {
+            current = Arrays.copyOf( current, current.length * 2 );
+        }
+
+        // store the symbol before the ID becomes visible through the map or size
+        current[id] = symbol;
+        symbols = current;
+        size = id + 1;
+        ids.put( symbol, id );
+
+        return id;
+    }
+
+}
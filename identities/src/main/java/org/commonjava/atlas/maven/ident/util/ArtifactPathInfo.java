@@ -45,6 +45,8 @@ public class ArtifactPathInfo implements PathInfo
                     + SnapshotUtils.RAW_REMOTE_SNAPSHOT_PART_PATTERN + "))" + CLASSIFIER_REGEX + TYPE_REGEX + ")";
             // RAW_REMOTE_SNAPSHOT_PART_PATTERN contains group 11 & 12
 
+    private static final Pattern ARTIFACT_PATH_PATTERN = Pattern.compile( ARTIFACT_PATH_REGEX );
+
     private static final int GROUP_ID_GROUP = 1;
 
     private static final int ARTIFACT_ID_GROUP = 3;
@@ -65,6 +67,55 @@ public class ArtifactPathInfo implements PathInfo
 
     private static final int REMOTE_SNAPSHOT_GROUP_COUNT = 17;
 
+    /**
+     * System property giving the size of the parse cache to enable at startup; unset or 0 leaves it disabled.
+     */
+    public static final String PARSE_CACHE_SIZE_PROPERTY = "atlas.maven.path-cache.size";
+
+    private static final ParseCache.Parser<ArtifactPathInfo> PARSER = new ParseCache.Parser<ArtifactPathInfo>()
+    {
+        @Override
+        public ArtifactPathInfo parse( final String path )
+        {
+            return parseUncached( path );
+        }
+    };
+
+    private static volatile ParseCache<ArtifactPathInfo> parseCache;
+
+    static
+    {
+        final int cacheSize = Integer.getInteger( PARSE_CACHE_SIZE_PROPERTY, 0 );
+        if ( cacheSize > 0 )
+        {
+            enableParseCache( cacheSize );
+        }
+    }
+
+    /**
+     * Route {@link #parse(String)} through a bounded cache of the given size, replacing any existing cache. Cached
+     * instances are shared between callers.
+     */
+    public static ParseCache<ArtifactPathInfo> enableParseCache( final int maximumSize )
+    {
+        final ParseCache<ArtifactPathInfo> cache = new ParseCache<ArtifactPathInfo>( maximumSize, PARSER );
+        parseCache = cache;
+        return cache;
+    }
+
+    public static void disableParseCache()
+    {
+        parseCache = null;
+    }
+
+    /**
+     * @return the active parse cache (for statistics), or null if caching is disabled
+     */
+    public static ParseCache<ArtifactPathInfo> getParseCache()
+    {
+        return parseCache;
+    }
+
     public static ArtifactPathInfo parse( final String path )
     {
         if ( path == null || path.length() < 1 )
@@ -72,8 +123,14 @@ public class ArtifactPathInfo implements PathInfo
             return null;
         }
 
-        final Matcher matcher = Pattern.compile( ARTIFACT_PATH_REGEX )
-                                       .matcher( path.replace( '\\', '/' ) );
+        final ParseCache<ArtifactPathInfo> cache = parseCache;
+        return cache == null ? parseUncached( path ) : cache.get( path );
+    }
+
+    private static ArtifactPathInfo parseUncached( final String path )
+    {
+
+        final Matcher matcher = ARTIFACT_PATH_PATTERN.matcher( path.replace( '\\', '/' ) );
         if ( !matcher.matches() )
         {
             return null;
@@ -118,9 +175,24 @@ public class ArtifactPathInfo implements PathInfo
 
     private final String fullPath;
 
-    private final boolean isSnapshot;
+    // Derived values below are computed on first use. They are cached without locking (racy single-check): every
+    // value is immutable and idempotent to compute, so the worst case is that two threads both compute it once.
+
+    private static final int SNAPSHOT_UNKNOWN = 0;
 
-    private final String releaseVersion;
+    private static final int SNAPSHOT_FALSE = 1;
+
+    private static final int SNAPSHOT_TRUE = 2;
+
+    private int snapshotState;
+
+    private String releaseVersion;
+
+    private SnapshotPart snapshotInfo;
+
+    private ProjectVersionRef projectId;
+
+    private ArtifactRef artifact;
 
     public ArtifactPathInfo( final String groupId, final String artifactId, final String version, final String file,
                              final String fullPath )
@@ -138,8 +210,6 @@ public class ArtifactPathInfo implements PathInfo
         this.type = type;
         this.file = file;
         this.fullPath = fullPath;
-        this.isSnapshot = SnapshotUtils.isSnapshotVersion( version );
-        this.releaseVersion = calcReleaseVersion( version );
     }
 
     private String calcReleaseVersion( String version )
@@ -154,17 +224,42 @@ public class ArtifactPathInfo implements PathInfo
 
     public String getReleaseVersion()
     {
-        return releaseVersion;
+        String result = releaseVersion;
+        if ( result == null )
+        {
+            result = calcReleaseVersion( version );
+            releaseVersion = result;
+        }
+
+        return result;
     }
 
     public boolean isSnapshot()
     {
-        return isSnapshot;
+        int state = snapshotState;
+        if ( state == SNAPSHOT_UNKNOWN )
+        {
+            state = SnapshotUtils.isSnapshotVersion( version ) ? SNAPSHOT_TRUE : SNAPSHOT_FALSE;
+            snapshotState = state;
+        }
+
+        return state == SNAPSHOT_TRUE;
     }
 
-    public synchronized SnapshotPart getSnapshotInfo()
+    /**
+     * @return the snapshot part of the version, or null if this is not a snapshot. The same (immutable) instance is
+     * returned on every call.
+     */
+    public SnapshotPart getSnapshotInfo()
     {
-        return SnapshotUtils.extractSnapshotVersionPart(version);
+        SnapshotPart result = snapshotInfo;
+        if ( result == null && isSnapshot() )
+        {
+            result = SnapshotUtils.extractSnapshotVersionPart( version );
+            snapshotInfo = result;
+        }
+
+        return result;
     }
 
     public String getGroupId()
@@ -286,14 +381,35 @@ public class ArtifactPathInfo implements PathInfo
         return true;
     }
 
+    /**
+     * @return the GAV for this path; created on first call and reused afterward
+     */
     public ProjectVersionRef getProjectId()
     {
-        return new SimpleProjectVersionRef( getGroupId(), getArtifactId(), getVersion() );
+        ProjectVersionRef result = projectId;
+        if ( result == null )
+        {
+            result = new SimpleProjectVersionRef( getGroupId(), getArtifactId(), getVersion() );
+            projectId = result;
+        }
+
+        return result;
     }
 
+    /**
+     * @return the artifact for this path, sharing the GAV from {@link #getProjectId()}; created on first call and
+     * reused afterward
+     */
     public ArtifactRef getArtifact()
     {
-        return new SimpleArtifactRef( getGroupId(), getArtifactId(), getVersion(), getType(), getClassifier() );
+        ArtifactRef result = artifact;
+        if ( result == null )
+        {
+            result = new SimpleArtifactRef( getProjectId(), getType(), getClassifier() );
+            artifact = result;
+        }
+
+        return result;
     }
 
 }
@@ -16,51 +16,45 @@
 package org.commonjava.atlas.maven.ident.util;
 
 import java.util.Comparator;
+import java.util.List;
 
 import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
 
+/**
+ * Orders as {@link ProjectVersionRefComparator}, then by classifier (no classifier last), then type. Use
+ * {@link #INSTANCE}, or {@link #sort(List)} for large lists.
+ */
 public class ArtifactRefComparator
     implements Comparator<ArtifactRef>
 {
 
-    private final ProjectVersionRefComparator pvrComp = new ProjectVersionRefComparator();
+    public static final ArtifactRefComparator INSTANCE = new ArtifactRefComparator();
 
     @Override
     public int compare( final ArtifactRef f, final ArtifactRef s )
     {
-        int comp = pvrComp.compare( f, s ); // compare groupId, artifactId, and version spec.
-        if ( comp == 0 )
+        if ( f == s )
         {
-            final String fc = f.getClassifier();
-            final String sc = s.getClassifier();
-
-            if ( fc == null && sc == null )
-            {
-                comp = 0;
-            }
-            else if ( fc == null )
-            {
-                comp = 1;
-            }
-            else if ( sc == null )
-            {
-                comp = -1;
-            }
-            else
-            {
-                comp = fc.compareTo( sc );
-            }
+            return 0;
         }
 
+        // compare groupId, artifactId, and version spec.
+        int comp = ProjectVersionRefComparator.INSTANCE.compare( f, s );
         if ( comp == 0 )
         {
-            final String ft = f.getType(); // never null
-            final String st = s.getType(); // never null
-
-            comp = ft.compareTo( st );
+            comp = RefSortKeys.compareTypesAndClassifiers( f.getClassifier(), f.getType(), s.getClassifier(),
+                                                           s.getType() );
         }
 
         return comp;
     }
 
+    /**
+     * Sort the list in place, in the same order as this comparator, comparing each distinct pair of versions only once.
+     */
+    public static <T extends ArtifactRef> void sort( final List<T> refs )
+    {
+        RefSortKeys.sort( refs, true );
+    }
+
 }
@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.util;
+
+/**
+ * Single-pass tokenizer for ':'-separated coordinates such as g:a:v or g:a:t:v:c. Records the colon offsets and only
+ * materializes the fields the caller asks for, instead of allocating an array plus a substring per field the way
+ * {@code String.split(":")} does.
+ * <p>
+ * Field counts match {@code split(":")} exactly, including its quirks: trailing empty fields are dropped (so "g:a:"
+ * has two fields and ":::" has none), while an input with no colon at all has one field, even if it is empty. This
+ * keeps existing validation logic (and its error messages) unchanged for callers that switch over.
+ */
+public final class CoordinateTokenizer
+{
+
+    private static final int INITIAL_FIELDS = 6;
+
+    private final CharSequence source;
+
+    // ends[i] is the exclusive end offset of field i; field i starts at ends[i - 1] + 1 (or 0).
+    private int[] ends;
+
+    private int count;
+
+    private CoordinateTokenizer( final CharSequence source )
+    {
+        this.source = source;
+        this.ends = new int[INITIAL_FIELDS];
+
+        final int len = source.length();
+        for ( int i = 0; i < len; i++ )
+        {
+            if ( source.charAt( i ) == ':' )
+            {
+                addField( i );
+            }
+        }
+        addField( len );
+
+        if ( count > 1 )
+        {
+            while ( count > 0 && length( count - 1 ) == 0 )
+            {
+                count--;
+            }
+        }
+    }
+
+    public static CoordinateTokenizer tokenize( final CharSequence source )
+    {
+        return new CoordinateTokenizer( source );
+    }
+
+    public CharSequence getSource()
+    {
+        return source;
+    }
+
+    /**
+     * @return the number of fields, as {@code split(":").length} would report it
+     */
+    public int count()
+    {
+        return count;
+    }
+
+    public int start( final int field )
+    {
+        check( field );
+        return field == 0 ? 0 : ends[field - 1] + 1;
+    }
+
+    public int end( final int field )
+    {
+        check( field );
+        return ends[field];
+    }
+
+    public int length( final int field )
+    {
+        return end( field ) - start( field );
+    }
+
+    /**
+     * @return true if the field is missing (beyond {@link #count()}) or has no characters
+     */
+    public boolean isEmpty( final int field )
+    {
+        return field >= count || length( field ) == 0;
+    }
+
+    /**
+     * @return the field as a String; when the source is a String this is a substring of it (or the source itself,
+     * for a single field spanning the whole input)
+     */
+    public String field( final int field )
+    {
+        final int start = start( field );
+        final int end = ends[field];
+        if ( source instanceof String )
+        {
+            return ( (String) source ).substring( start, end );
+        }
+
+        return source.subSequence( start, end ).toString();
+    }
+
+    /**
+     * Compare a field with the given value, ignoring case, without materializing the field.
+     */
+    public boolean fieldEqualsIgnoreCase( final int field, final String value )
+    {
+        if ( field >= count )
+        {
+            return false;
+        }
+
+        final int start = start( field );
+        if ( ends[field] - start != value.length() )
+        {
+            return false;
+        }
+
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            final char a = source.charAt( start + i );
+            final char b = value.charAt( i );
+            if ( a != b && Character.toLowerCase( a ) != Character.toLowerCase( b ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CoordinateTokenizer [source=" + source + ", fields=" + count + "]";
+    }
+
+    private void addField( final int end )
+    {
+        if ( count == ends.length )
+        {
+            final int[] grown = new int[ends.length * 2];
+            System.arraycopy( ends, 0, grown, 0, count );
+            ends = grown;
+        }
+
+        ends[count++] = end;
+    }
+
+    private void check( final int field )
+    {
+        if ( field < 0 || field >= count )
+        {
+            throw new IndexOutOfBoundsException( "No field " + field + " in '" + source + "' (fields: " + count + ")" );
+        }
+    }
+
+}
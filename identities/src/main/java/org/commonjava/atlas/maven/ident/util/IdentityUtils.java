@@ -18,58 +18,95 @@ package org.commonjava.atlas.maven.ident.util;
 import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.RefInternPool;
 import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
 import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
 import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
 import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
 
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public final class IdentityUtils
 {
 
+    /**
+     * Refs per task in {@link #preparse(Collection)}; below this, splitting isn't worth it.
+     */
+    private static final int PREPARSE_BATCH = 256;
+
     private IdentityUtils()
     {
     }
 
+    /**
+     * Resolve the {@link org.commonjava.atlas.maven.ident.version.VersionSpec} of every ref up front, in parallel, so
+     * a following read-heavy phase (e.g. a graph traversal) never has to call the version parser. Refs with invalid
+     * versions are skipped; they will throw when their spec is requested, exactly as they would have without this call.
+     *
+     * @return the number of refs whose version could not be parsed
+     */
+    public static int preparse( final Collection<? extends ProjectVersionRef> refs )
+    {
+        final ProjectVersionRef[] array = refs.toArray( new ProjectVersionRef[refs.size()] );
+        if ( array.length <= PREPARSE_BATCH )
+        {
+            return preparse( array, 0, array.length );
+        }
+
+        return PreparsePool.POOL.invoke( new PreparseTask( array, 0, array.length ) );
+    }
+
     public static ArtifactRef artifact( final String groupId, final String artifactId, final String version )
         throws InvalidVersionSpecificationException
     {
-        return new SimpleArtifactRef( projectVersion( groupId, artifactId, version ), null, null );
+        return RefInternPool.internGlobal(
+                new SimpleArtifactRef( projectVersion( groupId, artifactId, version ), null, null ) );
     }
 
     public static ArtifactRef artifact( final ProjectVersionRef ref )
         throws InvalidVersionSpecificationException
     {
-        return new SimpleArtifactRef( ref, null, null );
+        return RefInternPool.internGlobal( new SimpleArtifactRef( ref, null, null ) );
     }
 
     public static ArtifactRef artifact( final String groupId, final String artifactId, final String version,
                                         final String type, final String classifier )
         throws InvalidVersionSpecificationException
     {
-        return new SimpleArtifactRef( projectVersion( groupId, artifactId, version ), type, classifier );
+        return RefInternPool.internGlobal(
+                new SimpleArtifactRef( projectVersion( groupId, artifactId, version ), type, classifier ) );
     }
 
     public static ArtifactRef artifact( final ProjectVersionRef dep, final String type, final String classifier )
     {
-        return new SimpleArtifactRef( dep, type, classifier );
+        return RefInternPool.internGlobal( new SimpleArtifactRef( dep, type, classifier ) );
     }
 
     public static ProjectVersionRef projectVersion( final String src )
     {
-        final String[] parts = src.split( ":" );
-        if ( parts.length != 3 )
+        return projectVersion( (CharSequence) src );
+    }
+
+    public static ProjectVersionRef projectVersion( final CharSequence src )
+    {
+        final CoordinateTokenizer parts = CoordinateTokenizer.tokenize( src );
+        if ( parts.count() != 3 )
         {
             throw new IllegalArgumentException( "Invalid: '" + src
                 + "'. Must contain exactly three fields separated by ':'" );
         }
 
+        final String version = parts.field( 2 );
         try
         {
-            return new SimpleProjectVersionRef( parts[0], parts[1], parts[2] );
+            return RefInternPool.internGlobal( new SimpleProjectVersionRef( parts.field( 0 ), parts.field( 1 ),
+                                                                            version ) );
         }
         catch ( final InvalidVersionSpecificationException e )
         {
-            throw new IllegalArgumentException( "Invalid: '" + src + "'. Version: '" + parts[2] + "' is invalid: "
+            throw new IllegalArgumentException( "Invalid: '" + src + "'. Version: '" + version + "' is invalid: "
                 + e.getMessage(), e );
         }
     }
@@ -77,25 +114,90 @@ public final class IdentityUtils
     public static ProjectVersionRef projectVersion( final String groupId, final String artifactId, final String version )
         throws InvalidVersionSpecificationException
     {
-        return new SimpleProjectVersionRef( groupId, artifactId, version );
+        return RefInternPool.internGlobal( new SimpleProjectVersionRef( groupId, artifactId, version ) );
     }
 
     public static ProjectRef project( final String src )
     {
-        final String[] parts = src.split( ":" );
-        if ( parts.length < 2 )
+        return project( (CharSequence) src );
+    }
+
+    public static ProjectRef project( final CharSequence src )
+    {
+        final CoordinateTokenizer parts = CoordinateTokenizer.tokenize( src );
+        if ( parts.count() < 2 )
         {
             throw new IllegalArgumentException( "Invalid: '" + src
                 + "'. Must contain at least two fields separated by ':'" );
         }
 
-        return new SimpleProjectRef( parts[0], parts[1] );
+        return RefInternPool.internGlobal( new SimpleProjectRef( parts.field( 0 ), parts.field( 1 ) ) );
     }
 
     public static ProjectRef project( final String groupId, final String artifactId )
         throws InvalidVersionSpecificationException
     {
-        return new SimpleProjectRef( groupId, artifactId );
+        return RefInternPool.internGlobal( new SimpleProjectRef( groupId, artifactId ) );
+    }
+
+    private static int preparse( final ProjectVersionRef[] refs, final int from, final int to )
+    {
+        int failed = 0;
+        for ( int i = from; i < to; i++ )
+        {
+            try
+            {
+                refs[i].getVersionSpec();
+            }
+            catch ( final InvalidVersionSpecificationException e )
+            {
+                failed++;
+            }
+        }
+
+        return failed;
+    }
+
+    /**
+     * Created on first use, so callers that never preparse don't pay for the pool. Its workers are daemon threads.
+     */
+    private static final class PreparsePool
+    {
+        private static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    private static final class PreparseTask
+            extends RecursiveTask<Integer>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final ProjectVersionRef[] refs;
+
+        private final int from;
+
+        private final int to;
+
+        PreparseTask( final ProjectVersionRef[] refs, final int from, final int to )
+        {
+            this.refs = refs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute()
+        {
+            if ( to - from <= PREPARSE_BATCH )
+            {
+                return preparse( refs, from, to );
+            }
+
+            final int mid = ( from + to ) >>> 1;
+            final PreparseTask left = new PreparseTask( refs, from, mid );
+            left.fork();
+            final int right = new PreparseTask( refs, mid, to ).compute();
+            return left.join() + right;
+        }
     }
 
 }
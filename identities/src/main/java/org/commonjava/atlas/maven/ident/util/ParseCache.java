@@ -0,0 +1,336 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, concurrent cache of parse results keyed by the string that was parsed (a repository path, a version
+ * string, ...). Null results are cached too, so repeated requests for unparseable input stay cheap.
+ * <p>
+ * Eviction is segmented LRU: new entries go into a probation segment, and are promoted to a protected segment (about
+ * 80% of the capacity) when hit again. One-off keys therefore can't flush out the hot working set, which suits the
+ * skewed request patterns of a repository proxy. The key space is split into lock-striped segments; parsing itself
+ * happens outside any lock.
+ *
+ * @param <V> parsed value type
+ */
+public class ParseCache<V>
+{
+
+    /**
+     * Parses a key on a cache miss. May return null, which is cached as a negative result.
+     */
+    public interface Parser<V>
+    {
+        V parse( String key );
+    }
+
+    private static final Object NULL_VALUE = new Object();
+
+    private static final int DEFAULT_CONCURRENCY = 16;
+
+    private final Parser<V> parser;
+
+    private final Segment[] segments;
+
+    private final int segmentMask;
+
+    private final int maximumSize;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ParseCache( final int maximumSize, final Parser<V> parser )
+    {
+        this( maximumSize, DEFAULT_CONCURRENCY, parser );
+    }
+
+    public ParseCache( final int maximumSize, final int concurrencyLevel, final Parser<V> parser )
+    {
+        if ( maximumSize < 1 )
+        {
+            throw new IllegalArgumentException( "Maximum size must be at least 1. (Given: " + maximumSize + ")" );
+        }
+
+        int count = 1;
+        while ( count < concurrencyLevel && count * 2 <= maximumSize )
+        {
+            count <<= 1;
+        }
+
+        this.parser = parser;
+        this.maximumSize = maximumSize;
+        this.segmentMask = count - 1;
+        this.segments = new Segment[count];
+
+        final int perSegment = maximumSize / count;
+        final int remainder = maximumSize % count;
+        for ( int i = 0; i < count; i++ )
+        {
+            segments[i] = new Segment( perSegment + ( i < remainder ? 1 : 0 ) );
+        }
+    }
+
+    /**
+     * Return the cached result for the key, parsing (and caching) it on a miss.
+     */
+    public V get( final String key )
+    {
+        final Segment segment = segmentFor( key );
+        final Object cached = segment.get( key );
+        if ( cached != null )
+        {
+            hits.incrementAndGet();
+            return unmask( cached );
+        }
+
+        misses.incrementAndGet();
+        final V value = parser.parse( key );
+        if ( segment.put( key, value == null ? NULL_VALUE : value ) )
+        {
+            evictions.incrementAndGet();
+        }
+
+        return value;
+    }
+
+    public void invalidate( final String key )
+    {
+        segmentFor( key ).remove( key );
+    }
+
+    public void clear()
+    {
+        for ( final Segment segment : segments )
+        {
+            segment.clear();
+        }
+    }
+
+    public int size()
+    {
+        int size = 0;
+        for ( final Segment segment : segments )
+        {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    public int getMaximumSize()
+    {
+        return maximumSize;
+    }
+
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictions.get();
+    }
+
+    public long getRequestCount()
+    {
+        return hits.get() + misses.get();
+    }
+
+    /**
+     * @return hits / requests, or 1.0 if there have been no requests yet
+     */
+    public double getHitRate()
+    {
+        final long hitCount = hits.get();
+        final long requests = hitCount + misses.get();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public void resetStats()
+    {
+        hits.set( 0 );
+        misses.set( 0 );
+        evictions.set( 0 );
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "ParseCache [size=%d, maximumSize=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f]",
+                              size(), maximumSize, hits.get(), misses.get(), evictions.get(), getHitRate() );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private V unmask( final Object cached )
+    {
+        return cached == NULL_VALUE ? null : (V) cached;
+    }
+
+    private Segment segmentFor( final String key )
+    {
+        int h = key.hashCode();
+        h ^= ( h >>> 16 );
+        return segments[h & segmentMask];
+    }
+
+    private static final class Segment
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final int capacity;
+
+        private final int protectedCapacity;
+
+        // both in LRU -> MRU iteration order
+        private final LinkedHashMap<String, Object> probation = new LinkedHashMap<String, Object>( 16, 0.75f, true );
+
+        private final LinkedHashMap<String, Object> protectedEntries =
+                new LinkedHashMap<String, Object>( 16, 0.75f, true );
+
+        Segment( final int capacity )
+        {
+            this.capacity = Math.max( 1, capacity );
+            this.protectedCapacity = Math.max( 1, this.capacity * 4 / 5 );
+        }
+
+        Object get( final String key )
+        {
+            lock.lock();
+            try
+            {
+                Object value = protectedEntries.get( key );
+                if ( value != null )
+                {
+                    return value;
+                }
+
+                value = probation.remove( key );
+                if ( value != null )
+                {
+                    protectedEntries.put( key, value );
+                    if ( protectedEntries.size() > protectedCapacity )
+                    {
+                        // demote the protected LRU back to probation, where it gets one more chance
+                        final Map.Entry<String, Object> eldest = eldest( protectedEntries );
+                        protectedEntries.remove( eldest.getKey() );
+                        probation.put( eldest.getKey(), eldest.getValue() );
+                    }
+                }
+
+                return value;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return true if an entry was evicted to make room
+         */
+        boolean put( final String key, final Object value )
+        {
+            lock.lock();
+            try
+            {
+                if ( protectedEntries.containsKey( key ) || probation.containsKey( key ) )
+                {
+                    // another thread parsed it at the same time
+                    return false;
+                }
+
+                probation.put( key, value );
+                if ( probation.size() + protectedEntries.size() > capacity )
+                {
+                    final LinkedHashMap<String, Object> victims = probation.size() > 1 ? probation : protectedEntries;
+                    victims.remove( eldest( victims ).getKey() );
+                    return true;
+                }
+
+                return false;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        void remove( final String key )
+        {
+            lock.lock();
+            try
+            {
+                if ( protectedEntries.remove( key ) == null )
+                {
+                    probation.remove( key );
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        void clear()
+        {
+            lock.lock();
+            try
+            {
+                probation.clear();
+                protectedEntries.clear();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        int size()
+        {
+            lock.lock();
+            try
+            {
+                return probation.size() + protectedEntries.size();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        private static Map.Entry<String, Object> eldest( final LinkedHashMap<String, Object> map )
+        {
+            final Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+            return it.next();
+        }
+    }
+
+}
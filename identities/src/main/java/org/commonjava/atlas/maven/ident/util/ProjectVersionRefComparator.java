@@ -16,27 +16,43 @@
 package org.commonjava.atlas.maven.ident.util;
 
 import java.util.Comparator;
+import java.util.List;
 
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
-import org.commonjava.atlas.maven.ident.version.VersionSpec;
 
+/**
+ * Orders by groupId, artifactId, then version using {@link org.commonjava.atlas.maven.ident.version.VersionSpec}
+ * semantics (1.9 &lt; 1.10). Use {@link #INSTANCE}, or {@link #sort(List)} for large lists.
+ */
 public class ProjectVersionRefComparator
     implements Comparator<ProjectVersionRef>
 {
 
+    public static final ProjectVersionRefComparator INSTANCE = new ProjectVersionRefComparator();
+
     @Override
     public int compare( final ProjectVersionRef f, final ProjectVersionRef s )
     {
-        final int comp = f.compareTo( s ); // this compares groupId and artifactId ONLY
-        if ( comp == 0 )
+        if ( f == s )
         {
-            final VersionSpec fs = f.getVersionSpec();
-            final VersionSpec ss = s.getVersionSpec();
+            return 0;
+        }
 
-            return fs.compareTo( ss );
+        final int comp = RefSortKeys.compareProjects( f, s );
+        if ( comp == 0 )
+        {
+            return RefSortKeys.compareVersions( f, s );
         }
 
         return comp;
     }
 
+    /**
+     * Sort the list in place, in the same order as this comparator, comparing each distinct pair of versions only once.
+     */
+    public static <T extends ProjectVersionRef> void sort( final List<T> refs )
+    {
+        RefSortKeys.sort( refs, false );
+    }
+
 }
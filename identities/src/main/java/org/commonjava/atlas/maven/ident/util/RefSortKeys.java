@@ -0,0 +1,326 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.util;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.VersionlessArtifactRef;
+import org.commonjava.atlas.maven.ident.version.VersionSpec;
+import org.commonjava.atlas.maven.ident.version.VersionSpecComparisons;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Shared comparison logic for the ref comparators in this package, plus the batch sort behind their static
+ * <code>sort()</code> methods. The batch sort ranks each distinct groupId, artifactId, version, classifier and type
+ * once, then orders the refs by those int ranks, so the expensive {@link VersionSpec} comparisons happen once per
+ * distinct version pair instead of once per ref pair.
+ */
+final class RefSortKeys
+{
+
+    private interface Field
+    {
+        String get( ProjectRef ref );
+    }
+
+    private static final Field GROUP_ID = new Field()
+    {
+        @Override
+        public String get( final ProjectRef ref )
+        {
+            return ref.getGroupId();
+        }
+    };
+
+    private static final Field ARTIFACT_ID = new Field()
+    {
+        @Override
+        public String get( final ProjectRef ref )
+        {
+            return ref.getArtifactId();
+        }
+    };
+
+    private static final Field VERSION = new Field()
+    {
+        @Override
+        public String get( final ProjectRef ref )
+        {
+            return ref instanceof ProjectVersionRef ? ( (ProjectVersionRef) ref ).getVersionString() : null;
+        }
+    };
+
+    private static final Field CLASSIFIER = new Field()
+    {
+        @Override
+        public String get( final ProjectRef ref )
+        {
+            if ( ref instanceof ArtifactRef )
+            {
+                return ( (ArtifactRef) ref ).getClassifier();
+            }
+            else if ( ref instanceof VersionlessArtifactRef )
+            {
+                return ( (VersionlessArtifactRef) ref ).getClassifier();
+            }
+
+            return null;
+        }
+    };
+
+    private static final Field TYPE = new Field()
+    {
+        @Override
+        public String get( final ProjectRef ref )
+        {
+            if ( ref instanceof ArtifactRef )
+            {
+                return ( (ArtifactRef) ref ).getType();
+            }
+            else if ( ref instanceof VersionlessArtifactRef )
+            {
+                return ( (VersionlessArtifactRef) ref ).getType();
+            }
+
+            return null;
+        }
+    };
+
+    private RefSortKeys()
+    {
+    }
+
+    static int compareProjects( final ProjectRef f, final ProjectRef s )
+    {
+        int comp = compareStrings( f.getGroupId(), s.getGroupId() );
+        if ( comp == 0 )
+        {
+            comp = compareStrings( f.getArtifactId(), s.getArtifactId() );
+        }
+
+        return comp;
+    }
+
+    static int compareVersions( final ProjectVersionRef f, final ProjectVersionRef s )
+    {
+        final String fv = f.getVersionStringRaw();
+        if ( fv != null && fv.equals( s.getVersionStringRaw() ) )
+        {
+            // same version text parses to the same spec
+            return 0;
+        }
+
+        return f.getVersionSpec().compareTo( s.getVersionSpec() );
+    }
+
+    /**
+     * Classifiers first (no classifier sorts last), then types.
+     */
+    static int compareTypesAndClassifiers( final String fc, final String ft, final String sc, final String st )
+    {
+        int comp;
+        if ( fc == null )
+        {
+            comp = sc == null ? 0 : 1;
+        }
+        else if ( sc == null )
+        {
+            comp = -1;
+        }
+        else
+        {
+            comp = compareStrings( fc, sc );
+        }
+
+        if ( comp == 0 )
+        {
+            comp = compareStrings( ft, st );
+        }
+
+        return comp;
+    }
+
+    private static int compareStrings( final String f, final String s )
+    {
+        // refs built from the same parse or intern pool usually share their strings
+        return f == s ? 0 : f.compareTo( s );
+    }
+
+    /**
+     * Sort in place, in the same order as the matching comparator.
+     *
+     * @param typesAndClassifiers whether classifier and type take part in the ordering (artifact comparators)
+     */
+    static <T extends ProjectRef> void sort( final List<T> refs, final boolean typesAndClassifiers )
+    {
+        if ( refs.size() < 2 )
+        {
+            return;
+        }
+
+        final Map<String, Integer> groupIds = rankStrings( refs, GROUP_ID );
+        final Map<String, Integer> artifactIds = rankStrings( refs, ARTIFACT_ID );
+        final Map<String, Integer> versions = rankVersions( refs );
+        final Map<String, Integer> classifiers =
+                typesAndClassifiers ? rankStrings( refs, CLASSIFIER ) : new HashMap<String, Integer>();
+        final Map<String, Integer> types =
+                typesAndClassifiers ? rankStrings( refs, TYPE ) : new HashMap<String, Integer>();
+
+        @SuppressWarnings( "unchecked" )
+        final Key<T>[] keys = new Key[refs.size()];
+        int i = 0;
+        for ( final T ref : refs )
+        {
+            final int[] ranks = new int[5];
+            ranks[0] = groupIds.get( ref.getGroupId() );
+            ranks[1] = artifactIds.get( ref.getArtifactId() );
+            ranks[2] = rank( versions, VERSION.get( ref ) );
+            ranks[3] = rank( classifiers, CLASSIFIER.get( ref ) );
+            ranks[4] = rank( types, TYPE.get( ref ) );
+            keys[i++] = new Key<T>( ref, ranks );
+        }
+
+        // stable, like Collections.sort()
+        Arrays.sort( keys );
+
+        final ListIterator<T> it = refs.listIterator();
+        for ( final Key<T> key : keys )
+        {
+            it.next();
+            it.set( key.ref );
+        }
+    }
+
+    private static int rank( final Map<String, Integer> ranks, final String value )
+    {
+        final Integer rank = ranks.get( value );
+        return rank == null ? 0 : rank;
+    }
+
+    private static Map<String, Integer> rankStrings( final Collection<? extends ProjectRef> refs, final Field field )
+    {
+        final TreeSet<String> values = new TreeSet<String>();
+        boolean hasNull = false;
+        for ( final ProjectRef ref : refs )
+        {
+            final String value = field.get( ref );
+            if ( value == null )
+            {
+                hasNull = true;
+            }
+            else
+            {
+                values.add( value );
+            }
+        }
+
+        final Map<String, Integer> ranks = new HashMap<String, Integer>( values.size() * 2 );
+        int rank = 0;
+        for ( final String value : values )
+        {
+            ranks.put( value, rank++ );
+        }
+
+        if ( hasNull )
+        {
+            // only classifiers can be missing, and a missing classifier sorts last
+            ranks.put( null, rank );
+        }
+
+        return ranks;
+    }
+
+    private static Map<String, Integer> rankVersions( final Collection<? extends ProjectRef> refs )
+    {
+        final Map<String, VersionSpec> specs = new HashMap<String, VersionSpec>();
+        for ( final ProjectRef ref : refs )
+        {
+            if ( ref instanceof ProjectVersionRef )
+            {
+                final ProjectVersionRef pvr = (ProjectVersionRef) ref;
+                final String version = pvr.getVersionString();
+                if ( !specs.containsKey( version ) )
+                {
+                    specs.put( version, pvr.getVersionSpec() );
+                }
+            }
+        }
+
+        @SuppressWarnings( "unchecked" )
+        final Map.Entry<String, VersionSpec>[] entries = specs.entrySet().toArray( new Map.Entry[specs.size()] );
+        final Comparator<VersionSpec> specComparator = VersionSpecComparisons.comparator();
+        Arrays.sort( entries, new Comparator<Map.Entry<String, VersionSpec>>()
+        {
+            @Override
+            public int compare( final Map.Entry<String, VersionSpec> f, final Map.Entry<String, VersionSpec> s )
+            {
+                return specComparator.compare( f.getValue(), s.getValue() );
+            }
+        } );
+
+        final Map<String, Integer> ranks = new HashMap<String, Integer>( entries.length * 2 );
+        int rank = 0;
+        for ( int i = 0; i < entries.length; i++ )
+        {
+            if ( i > 0 && specComparator.compare( entries[i - 1].getValue(), entries[i].getValue() ) != 0 )
+            {
+                rank++;
+            }
+
+            ranks.put( entries[i].getKey(), rank );
+        }
+
+        return ranks;
+    }
+
+    private static final class Key<T>
+        implements Comparable<Key<T>>
+    {
+        private final T ref;
+
+        private final int[] ranks;
+
+        private Key( final T ref, final int[] ranks )
+        {
+            this.ref = ref;
+            this.ranks = ranks;
+        }
+
+        @Override
+        public int compareTo( final Key<T> other )
+        {
+            for ( int i = 0; i < ranks.length; i++ )
+            {
+                if ( ranks[i] != other.ranks[i] )
+                {
+                    return ranks[i] < other.ranks[i] ? -1 : 1;
+                }
+            }
+
+            return 0;
+        }
+    }
+
+}
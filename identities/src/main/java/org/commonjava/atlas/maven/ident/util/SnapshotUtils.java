@@ -39,6 +39,8 @@ public class SnapshotUtils
 
     public static final String LOCAL_SNAPSHOT_VERSION_PART = "-SNAPSHOT";
 
+    private static final Pattern REMOTE_SNAPSHOT_PART = Pattern.compile( REMOTE_SNAPSHOT_PART_PATTERN );
+
     public static String generateSnapshotSuffix( final Date d, final int buildNumber )
     {
         return generateSnapshotTimestamp( d ) + "-" + buildNumber;
@@ -63,18 +65,17 @@ public class SnapshotUtils
 
     public static boolean isRemoteSnapshotVersion( final String literal )
     {
-        return literal.matches( REMOTE_SNAPSHOT_PART_PATTERN );
+        return REMOTE_SNAPSHOT_PART.matcher( literal ).matches();
     }
 
     public static boolean isRemoteSnapshotVersionPart( final String literal )
     {
-        return literal.matches( REMOTE_SNAPSHOT_PART_PATTERN );
+        return REMOTE_SNAPSHOT_PART.matcher( literal ).matches();
     }
 
     public static SnapshotPart parseRemoteSnapshotVersionPart( final String literal )
     {
-        final Pattern pattern = Pattern.compile( REMOTE_SNAPSHOT_PART_PATTERN );
-        final Matcher matcher = pattern.matcher( literal );
+        final Matcher matcher = REMOTE_SNAPSHOT_PART.matcher( literal );
         if ( matcher.matches() )
         {
             final String tstamp = matcher.group( 3 );
@@ -18,47 +18,42 @@ package org.commonjava.atlas.maven.ident.util;
 import org.commonjava.atlas.maven.ident.ref.VersionlessArtifactRef;
 
 import java.util.Comparator;
+import java.util.List;
 
+/**
+ * Orders by groupId, artifactId, classifier (no classifier last), then type. Use {@link #INSTANCE}, or
+ * {@link #sort(List)} for large lists.
+ */
 public class VersionlessArtifactRefComparator
     implements Comparator<VersionlessArtifactRef>
 {
 
+    public static final VersionlessArtifactRefComparator INSTANCE = new VersionlessArtifactRefComparator();
+
     @Override
     public int compare( final VersionlessArtifactRef f, final VersionlessArtifactRef s )
     {
-        int comp = f.compareTo( s ); // compare groupId and artifactId ONLY.
-        if ( comp == 0 )
+        if ( f == s )
         {
-            final String fc = f.getClassifier();
-            final String sc = s.getClassifier();
-
-            if ( fc == null && sc == null )
-            {
-                comp = 0;
-            }
-            else if ( fc == null )
-            {
-                comp = 1;
-            }
-            else if ( sc == null )
-            {
-                comp = -1;
-            }
-            else
-            {
-                comp = fc.compareTo( sc );
-            }
+            return 0;
         }
 
+        int comp = RefSortKeys.compareProjects( f, s ); // compare groupId and artifactId ONLY.
         if ( comp == 0 )
         {
-            final String ft = f.getType(); // never null
-            final String st = s.getType(); // never null
-
-            comp = ft.compareTo( st );
+            comp = RefSortKeys.compareTypesAndClassifiers( f.getClassifier(), f.getType(), s.getClassifier(),
+                                                           s.getType() );
         }
 
         return comp;
     }
 
+    /**
+     * Sort the list in place, in the same order as this comparator.
+     */
+    public static <T extends VersionlessArtifactRef> void sort( final List<T> refs )
+    {
+        RefSortKeys.sort( refs, true );
+    }
+
 }
@@ -35,7 +35,8 @@ public class SnapshotPart
 
     public SnapshotPart( final Date timestamp, final int buildNumber, final String literal )
     {
-        this.timestamp = timestamp;
+        // Date is mutable and parsed parts get cached and shared, so never hold the caller's instance
+        this.timestamp = timestamp == null ? null : new Date( timestamp.getTime() );
         this.buildNumber = buildNumber;
         this.literal = literal;
     }
@@ -62,9 +63,12 @@ public class SnapshotPart
         return literal;
     }
 
+    /**
+     * @return a copy of the snapshot timestamp, or null for a local snapshot
+     */
     public Date getTimestamp()
     {
-        return timestamp;
+        return timestamp == null ? null : new Date( timestamp.getTime() );
     }
 
     public int getBuildNumber()
@@ -107,7 +111,7 @@ public class SnapshotPart
             final SnapshotPart oSnap = (SnapshotPart) o;
             if ( !isLocalSnapshot() && !oSnap.isLocalSnapshot() )
             {
-                final int comp = getTimestamp().compareTo( oSnap.getTimestamp() );
+                final int comp = timestamp.compareTo( oSnap.timestamp );
                 if ( comp == 0 )
                 {
                     return getBuildNumber() - oSnap.getBuildNumber();
@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.index;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+public class LocalRepositoryIndexerTest
+{
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private volatile boolean failing;
+
+    @Test
+    public void indexArtifactsAndIgnoreChecksums()
+            throws Exception
+    {
+        final Path root = temp.newFolder( "repo" ).toPath();
+        touch( root, "org/foo/bar/1.0/bar-1.0.pom" );
+        touch( root, "org/foo/bar/1.0/bar-1.0.jar" );
+        touch( root, "org/foo/bar/1.0/bar-1.0.jar.sha1" );
+        touch( root, "org/foo/bar/1.0/bar-1.0-sources.jar" );
+        touch( root, "org/foo/bar/1.1/bar-1.1.pom" );
+        touch( root, "org/foo/bar/maven-metadata.xml" );
+
+        final LocalRepositoryIndexer indexer = new LocalRepositoryIndexer( root, 2 );
+        final LocalRepositoryIndexer.ScanResult result = indexer.scan();
+        final RepositoryIndex index = indexer.getIndex();
+
+        assertThat( result.getIndexedFiles(), equalTo( 4L ) );
+        assertThat( index.getArtifactCount(), equalTo( 4L ) );
+        assertThat( index.getVersions( new SimpleProjectRef( "org.foo", "bar" ) ).size(), equalTo( 2 ) );
+        assertThat( index.contains( new SimpleArtifactRef( "org.foo", "bar", "1.0", "jar", "sources" ) ),
+                    equalTo( true ) );
+        assertThat( index.contains( new SimpleArtifactRef( "org.foo", "bar", "1.1", "jar", null ) ),
+                    equalTo( false ) );
+    }
+
+    @Test
+    public void rescanSkipsUnchangedVersionDirectories()
+            throws Exception
+    {
+        final Path root = temp.newFolder( "repo" ).toPath();
+        final Path v10 = touch( root, "org/foo/bar/1.0/bar-1.0.pom" ).getParent();
+        final Path v11 = touch( root, "org/foo/bar/1.1/bar-1.1.pom" ).getParent();
+        age( v10 );
+        age( v11 );
+
+        final LocalRepositoryIndexer indexer = new LocalRepositoryIndexer( root, 2 );
+        indexer.scan();
+
+        touch( root, "org/foo/bar/1.1/bar-1.1.jar" );
+        final LocalRepositoryIndexer.ScanResult result = indexer.scan();
+
+        assertThat( result.getSkippedDirectories(), equalTo( 1L ) );
+        assertThat( indexer.getIndex().getArtifactCount(), equalTo( 3L ) );
+        assertThat( indexer.getIndex().contains( new SimpleArtifactRef( "org.foo", "bar", "1.1", "jar", null ) ),
+                    equalTo( true ) );
+    }
+
+    @Test
+    public void rescanDropsDeletedDirectories()
+            throws Exception
+    {
+        final Path root = temp.newFolder( "repo" ).toPath();
+        final Path pom = touch( root, "org/foo/bar/1.0/bar-1.0.pom" );
+        touch( root, "org/foo/bar/1.1/bar-1.1.pom" );
+
+        final LocalRepositoryIndexer indexer = new LocalRepositoryIndexer( root );
+        indexer.scan();
+        assertThat( indexer.getIndex().getArtifactCount(), equalTo( 2L ) );
+
+        Files.delete( pom );
+        Files.delete( pom.getParent() );
+        final LocalRepositoryIndexer.ScanResult result = indexer.scan();
+
+        assertThat( result.getRemovedDirectories(), equalTo( 1L ) );
+        assertThat( indexer.getIndex().getArtifactCount(), equalTo( 1L ) );
+        assertThat( indexer.getIndex().contains( new SimpleProjectRef( "org.foo", "bar" ), "1.0" ), equalTo( false ) );
+    }
+
+    @Test
+    public void unreadableDirectoryKeepsItsSubtree()
+            throws Exception
+    {
+        final Path root = temp.newFolder( "repo" ).toPath();
+        touch( root, "org/foo/bar/1.0/bar-1.0.pom" );
+        touch( root, "org/foo/bar/1.1/bar-1.1.pom" );
+        touch( root, "org/other/baz/1.0/baz-1.0.pom" );
+        final Path unreadable = root.resolve( "org/foo" );
+
+        final LocalRepositoryIndexer indexer = new LocalRepositoryIndexer( root, 2 )
+        {
+            @Override
+            DirectoryStream<Path> openDirectory( final Path dir )
+                    throws IOException
+            {
+                if ( failing && dir.equals( unreadable ) )
+                {
+                    throw new AccessDeniedException( dir.toString() );
+                }
+                return super.openDirectory( dir );
+            }
+        };
+        indexer.scan();
+        assertThat( indexer.getIndex().getArtifactCount(), equalTo( 3L ) );
+
+        failing = true;
+        final LocalRepositoryIndexer.ScanResult result = indexer.scan();
+
+        assertThat( result.getFailedDirectories(), equalTo( 1L ) );
+        assertThat( result.getRemovedDirectories(), equalTo( 0L ) );
+        assertThat( indexer.getIndex().getArtifactCount(), equalTo( 3L ) );
+        assertThat( indexer.getIndex().contains( new SimpleProjectRef( "org.foo", "bar" ), "1.1" ), equalTo( true ) );
+
+        failing = false;
+        Files.delete( root.resolve( "org/foo/bar/1.1/bar-1.1.pom" ) );
+        Files.delete( root.resolve( "org/foo/bar/1.1" ) );
+        indexer.scan();
+
+        assertThat( indexer.getIndex().getArtifactCount(), equalTo( 2L ) );
+    }
+
+    private Path touch( final Path root, final String path )
+            throws IOException
+    {
+        final Path file = root.resolve( path );
+        Files.createDirectories( file.getParent() );
+        return Files.createFile( file );
+    }
+
+    private void age( final Path dir )
+            throws IOException
+    {
+        final long old = System.currentTimeMillis() - TimeUnit.HOURS.toMillis( 1 );
+        Files.setLastModifiedTime( dir, FileTime.fromMillis( old ) );
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.index;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class ProjectRefTrieTest
+{
+
+    private static final ProjectRef JBOSS = new SimpleProjectRef( "org", "jboss" );
+
+    private static final ProjectRef JBOSS_FOO = new SimpleProjectRef( "org.jboss", "foo" );
+
+    private static final ProjectRef JBOSS_BAR = new SimpleProjectRef( "org.jboss.bar", "bar-api" );
+
+    private static final ProjectRef JBOSSX = new SimpleProjectRef( "org.jbossx", "foo" );
+
+    private static final ProjectRef DOTTED = new SimpleProjectRef( "org.apache", "maven.plugin.api" );
+
+    private ProjectRefTrie<String> newTrie()
+    {
+        final ProjectRefTrie<String> trie = new ProjectRefTrie<String>();
+        for ( final ProjectRef ref : Arrays.asList( JBOSS, JBOSS_FOO, JBOSS_BAR, JBOSSX, DOTTED ) )
+        {
+            trie.put( ref, ref.toString() );
+        }
+
+        return trie;
+    }
+
+    @Test
+    public void putGetAndReplace()
+    {
+        final ProjectRefTrie<String> trie = newTrie();
+        assertThat( trie.size(), equalTo( 5 ) );
+        assertThat( trie.get( new SimpleProjectRef( "org.jboss", "foo" ) ), equalTo( JBOSS_FOO.toString() ) );
+        assertThat( trie.get( new SimpleProjectRef( "org.jboss", "baz" ) ), nullValue() );
+        assertThat( trie.get( new SimpleProjectRef( "org.apache.maven.plugin", "api" ) ), nullValue() );
+
+        assertThat( trie.put( JBOSS_FOO, "replaced" ), equalTo( JBOSS_FOO.toString() ) );
+        assertThat( trie.get( JBOSS_FOO ), equalTo( "replaced" ) );
+        assertThat( trie.size(), equalTo( 5 ) );
+    }
+
+    @Test
+    public void enumeratePrefix()
+    {
+        final ProjectRefTrie<String> trie = newTrie();
+        assertThat( new HashSet<ProjectRef>( trie.getProjectsUnder( "org/jboss/" ) ),
+                    equalTo( new HashSet<ProjectRef>( Arrays.asList( JBOSS, JBOSS_FOO, JBOSS_BAR ) ) ) );
+        assertThat( trie.getEntriesUnder( "org.jboss.bar" ).keySet().iterator().next(), equalTo( JBOSS_BAR ) );
+        assertThat( trie.getProjectsUnder( "org/jbo" ).size(), equalTo( 0 ) );
+        assertThat( trie.getProjectsUnder( "" ).size(), equalTo( 5 ) );
+    }
+
+    @Test
+    public void matchLongestPrefixOfPath()
+    {
+        final ProjectRefTrie<String> trie = newTrie();
+        assertThat( trie.findLongestPrefix( "/org/jboss/foo/1.0/foo-1.0.jar" ), equalTo( JBOSS_FOO ) );
+        assertThat( trie.findLongestPrefix( "org/jboss/maven-metadata.xml" ), equalTo( JBOSS ) );
+        assertThat( trie.getLongestPrefix( "org/apache/maven.plugin.api/3.0/" ), equalTo( DOTTED.toString() ) );
+        assertThat( trie.findLongestPrefix( "com/example/foo/1.0/foo-1.0.jar" ), nullValue() );
+    }
+
+    @Test
+    public void removePrunesEmptyBranches()
+    {
+        final ProjectRefTrie<String> trie = newTrie();
+        assertThat( trie.remove( JBOSS_BAR ), equalTo( JBOSS_BAR.toString() ) );
+        assertThat( trie.remove( JBOSS_BAR ), nullValue() );
+        assertThat( trie.getProjectsUnder( "org.jboss.bar" ).size(), equalTo( 0 ) );
+
+        assertThat( trie.remove( JBOSS ), equalTo( JBOSS.toString() ) );
+        assertThat( trie.contains( JBOSS_FOO ), equalTo( true ) );
+        assertThat( trie.findLongestPrefix( "org/jboss/maven-metadata.xml" ), nullValue() );
+        assertThat( trie.size(), equalTo( 3 ) );
+    }
+
+    @Test
+    public void removeReleasesUnusedLabels()
+    {
+        final ProjectRefTrie<String> trie = newTrie();
+        // org, jboss, bar, bar-api, foo, jbossx, apache, maven.plugin.api
+        assertThat( trie.labelCount(), equalTo( 8 ) );
+
+        trie.put( JBOSS_FOO, "replaced" );
+        assertThat( trie.labelCount(), equalTo( 8 ) );
+
+        trie.remove( JBOSS_BAR );
+        assertThat( trie.labelCount(), equalTo( 6 ) );
+
+        // still used by org.jbossx:foo
+        trie.remove( JBOSS_FOO );
+        assertThat( trie.labelCount(), equalTo( 6 ) );
+
+        for ( final ProjectRef ref : Arrays.asList( JBOSS, JBOSSX, DOTTED ) )
+        {
+            trie.remove( ref );
+        }
+        assertThat( trie.isEmpty(), equalTo( true ) );
+        assertThat( trie.labelCount(), equalTo( 0 ) );
+    }
+
+}
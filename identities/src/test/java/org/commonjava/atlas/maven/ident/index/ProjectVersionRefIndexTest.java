@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.index;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.atlas.maven.ident.util.VersionUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ProjectVersionRefIndexTest
+{
+
+    private static final ProjectRef GA = new SimpleProjectRef( "org.foo", "bar" );
+
+    private ProjectVersionRef gav( final String version )
+    {
+        return new SimpleProjectVersionRef( GA, version );
+    }
+
+    private ProjectVersionRefIndex newIndex()
+    {
+        final ProjectVersionRefIndex index = new ProjectVersionRefIndex();
+        for ( final String v : Arrays.asList( "1.10", "1.2", "1.9", "2.0-SNAPSHOT", "1.9.1", "1.0" ) )
+        {
+            index.add( gav( v ) );
+        }
+
+        index.add( new SimpleProjectVersionRef( "org.foo", "other", "3.0" ) );
+        return index;
+    }
+
+    private List<String> versions( final Iterable<ProjectVersionRef> refs )
+    {
+        final List<String> result = new ArrayList<String>();
+        for ( final ProjectVersionRef ref : refs )
+        {
+            result.add( ref.getVersionString() );
+        }
+
+        return result;
+    }
+
+    @Test
+    public void versionsSortSemantically()
+    {
+        final ProjectVersionRefIndex index = newIndex();
+        assertThat( index.size(), equalTo( 7 ) );
+        assertThat( index.getProjectCount(), equalTo( 2 ) );
+        assertThat( versions( index.getVersions( GA ) ),
+                    equalTo( Arrays.asList( "1.0", "1.2", "1.9", "1.9.1", "1.10", "2.0-SNAPSHOT" ) ) );
+        assertThat( versions( index.getVersionsNewestFirst( GA ) ),
+                    equalTo( Arrays.asList( "2.0-SNAPSHOT", "1.10", "1.9.1", "1.9", "1.2", "1.0" ) ) );
+    }
+
+    @Test
+    public void latestAndLatestRelease()
+    {
+        final ProjectVersionRefIndex index = newIndex();
+        assertThat( index.getLatest( GA ).getVersionString(), equalTo( "2.0-SNAPSHOT" ) );
+        assertThat( index.getLatestRelease( GA ).getVersionString(), equalTo( "1.10" ) );
+        assertThat( index.getLatest( new SimpleProjectRef( "org.foo", "missing" ) ), nullValue() );
+    }
+
+    @Test
+    public void neighbourLookups()
+    {
+        final ProjectVersionRefIndex index = newIndex();
+        assertThat( index.floor( gav( "1.9.5" ) ).getVersionString(), equalTo( "1.9.1" ) );
+        assertThat( index.ceiling( gav( "1.9.5" ) ).getVersionString(), equalTo( "1.10" ) );
+        assertThat( index.floor( gav( "1.9" ) ).getVersionString(), equalTo( "1.9" ) );
+        assertThat( index.lower( gav( "1.9" ) ).getVersionString(), equalTo( "1.2" ) );
+        assertThat( index.higher( gav( "1.9" ) ).getVersionString(), equalTo( "1.9.1" ) );
+        assertThat( index.lower( gav( "1.0" ) ), nullValue() );
+    }
+
+    @Test
+    public void rangeIsLiveView()
+    {
+        final ProjectVersionRefIndex index = newIndex();
+        final Iterable<ProjectVersionRef> range =
+                index.getRange( GA, VersionUtils.createSingleVersion( "1.2" ), false,
+                                VersionUtils.createSingleVersion( "1.10" ), true );
+
+        assertThat( versions( range ), equalTo( Arrays.asList( "1.9", "1.9.1", "1.10" ) ) );
+
+        index.add( gav( "1.5" ) );
+        index.remove( gav( "1.9.1" ) );
+        assertThat( versions( range ), equalTo( Arrays.asList( "1.5", "1.9", "1.10" ) ) );
+    }
+
+    @Test
+    public void equivalentVersionsShareASlotAndEmptyProjectsArePruned()
+    {
+        final ProjectVersionRefIndex index = new ProjectVersionRefIndex();
+        assertThat( index.add( gav( "1.0" ) ), equalTo( true ) );
+        assertThat( index.add( gav( "1.0.0" ) ), equalTo( false ) );
+        assertThat( index.contains( gav( "1.0.0" ) ), equalTo( true ) );
+        assertThat( index.remove( gav( "1.0.0" ) ), equalTo( true ) );
+        assertThat( index.getProjectCount(), equalTo( 0 ) );
+        assertThat( index.getLatestRelease( GA ), nullValue() );
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.ref;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ProjectRefMatcherSetTest
+{
+
+    private static final List<ProjectRef> PATTERNS =
+            Arrays.<ProjectRef>asList( new SimpleProjectRef( "org.jboss.*", "*" ), new SimpleProjectRef( "*", "*-api" ),
+                                       new SimpleProjectRef( "org.foo", "bar" ),
+                                       new SimpleProjectRef( "*.apache.*", "maven*" ),
+                                       new SimpleProjectRef( "com.*x*z", "*" ) );
+
+    private static final List<ProjectRef> REFS =
+            Arrays.<ProjectRef>asList( new SimpleProjectRef( "org.jboss.foo", "bar" ),
+                                       new SimpleProjectRef( "org.jboss", "bar" ),
+                                       new SimpleProjectRef( "org.foo", "bar-api" ),
+                                       new SimpleProjectRef( "org.foo", "bar" ), new SimpleProjectRef( "orgXfoo", "bar" ),
+                                       new SimpleProjectRef( "org.apache.maven", "maven-core" ),
+                                       new SimpleProjectRef( "com.axbz", "x" ), new SimpleProjectRef( "com.xz", "x" ),
+                                       new SimpleProjectRef( "com.xzx", "x" ),
+                                       new SimpleProjectRef( "org.other", "thing" ) );
+
+    @Test
+    public void agreesWithSinglePatternMatching()
+    {
+        final ProjectRefMatcherSet set = new ProjectRefMatcherSet( PATTERNS );
+        for ( final ProjectRef ref : REFS )
+        {
+            final List<ProjectRef> expected = new ArrayList<ProjectRef>();
+            for ( final ProjectRef pattern : PATTERNS )
+            {
+                if ( ProjectRefMatcher.compile( pattern ).matches( ref ) )
+                {
+                    expected.add( pattern );
+                }
+            }
+
+            assertThat( ref.toString(), set.getMatching( ref ), equalTo( expected ) );
+            assertThat( ref.toString(), set.matchesAny( ref ), equalTo( !expected.isEmpty() ) );
+        }
+    }
+
+    @Test
+    public void wildcardDoesNotCrossGroupArtifactBoundary()
+    {
+        final ProjectRefMatcherSet set = new ProjectRefMatcherSet( new SimpleProjectRef( "org*", "bar" ) );
+        assertThat( set.matchesAny( new SimpleProjectRef( "org.foo", "bar" ) ), equalTo( true ) );
+        assertThat( set.matchesAny( new SimpleProjectRef( "org", "foo:bar" ) ), equalTo( false ) );
+        assertThat( new ProjectRefMatcherSet().matchesAny( new SimpleProjectRef( "org", "bar" ) ), equalTo( false ) );
+    }
+
+    @Test
+    public void singleMatcherGlobs()
+    {
+        final ProjectRefMatcher matcher = ProjectRefMatcher.compile( "a*b*a", "*" );
+        assertThat( matcher.matches( "aba", "x" ), equalTo( true ) );
+        assertThat( matcher.matches( "abba", "x" ), equalTo( true ) );
+        assertThat( matcher.matches( "ab", "x" ), equalTo( false ) );
+        assertThat( matcher.matches( "aXa", "x" ), equalTo( false ) );
+    }
+
+}
@@ -79,4 +79,13 @@ public class ProjectRefTest
         assertThat( pattern.matches( test ), equalTo( true ) );
     }
 
+    @Test
+    public void dotInPatternIsLiteral()
+    {
+        final ProjectRef pattern = new SimpleProjectRef( "org.bar", "f*" );
+
+        assertThat( pattern.matches( new SimpleProjectRef( "orgXbar", "foo" ) ), equalTo( false ) );
+        assertThat( pattern.matches( new SimpleProjectRef( "org.bar", "bar" ) ), equalTo( false ) );
+    }
+
 }
@@ -115,4 +115,22 @@ public class ProjectVersionRefTest
         assertTrue( phrases.size() == 3);
     }
 
+    @Test
+    public void equalRawVersionsCompareWithoutParsing()
+        throws Exception
+    {
+        final SimpleProjectVersionRef first = new SimpleProjectVersionRef( "org.foo", "bar", "1.0-rc1" );
+        final SimpleProjectVersionRef second = new SimpleProjectVersionRef( "org.foo", "bar", "1.0-rc1" );
+
+        assertThat( first.equals( second ), equalTo( true ) );
+        assertThat( first.hashCode(), equalTo( second.hashCode() ) );
+        assertThat( first.getVersionSpecRaw() == null, equalTo( true ) );
+        assertThat( second.getVersionSpecRaw() == null, equalTo( true ) );
+
+        final SimpleArtifactRef jar = new SimpleArtifactRef( first, "jar", null );
+        assertThat( jar.equals( new SimpleArtifactRef( second, "jar", null ) ), equalTo( true ) );
+        assertThat( jar.equals( new SimpleArtifactRef( second, "jar", "sources" ) ), equalTo( false ) );
+        assertThat( jar.hashCode(), equalTo( new SimpleArtifactRef( second, "jar", null ).hashCode() ) );
+    }
+
 }
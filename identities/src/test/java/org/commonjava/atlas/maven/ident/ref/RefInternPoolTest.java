@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.ref;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.commonjava.atlas.maven.ident.util.IdentityUtils;
+import org.junit.Test;
+
+public class RefInternPoolTest
+{
+
+    @Test
+    public void internReturnsCanonicalInstances()
+    {
+        final RefInternPool pool = new RefInternPool();
+        final ProjectVersionRef first = pool.intern( SimpleProjectVersionRef.parse( "org.foo:bar:1.0" ) );
+        final ProjectVersionRef second = pool.intern( new SimpleProjectVersionRef( "org.foo", "bar", "1.0" ) );
+        assertThat( second, sameInstance( first ) );
+
+        final ArtifactRef artifact = pool.artifactRef( "org.foo", "bar", "1.0", "jar", "sources" );
+        assertThat( artifact.getGroupId(), sameInstance( first.getGroupId() ) );
+        assertThat( pool.intern( SimpleArtifactRef.parse( "org.foo:bar:jar:1.0:sources" ) ), sameInstance( artifact ) );
+    }
+
+    @Test
+    public void distinctSpellingsAndClassesStayDistinct()
+    {
+        final RefInternPool pool = new RefInternPool();
+        final ProjectVersionRef shortVersion = pool.projectVersionRef( "org.foo", "bar", "1.0" );
+        final ProjectVersionRef longVersion = pool.projectVersionRef( "org.foo", "bar", "1.0.0" );
+        assertThat( shortVersion == longVersion, equalTo( false ) );
+
+        final ProjectRef ga = pool.projectRef( "org.foo", "bar" );
+        assertThat( ga.getClass() == SimpleProjectRef.class, equalTo( true ) );
+        assertThat( pool.size(), equalTo( 3 ) );
+    }
+
+    @Test
+    public void factoriesUseGlobalPoolWhenEnabled()
+    {
+        RefInternPool.enableGlobal();
+        try
+        {
+            assertThat( IdentityUtils.projectVersion( "org.foo:bar:1.0" ),
+                        sameInstance( SimpleProjectVersionRef.parse( "org.foo:bar:1.0" ) ) );
+        }
+        finally
+        {
+            RefInternPool.disableGlobal();
+        }
+
+        assertThat( SimpleProjectRef.parse( "org.foo:bar" ) == SimpleProjectRef.parse( "org.foo:bar" ),
+                    equalTo( false ) );
+    }
+
+}
@@ -17,6 +17,7 @@ package org.commonjava.atlas.maven.ident.ref;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
@@ -84,4 +85,57 @@ public class SimpleArtifactRefTest
         assertThat( ar.getClassifier(), equalTo( c ) );
     }
 
+    @Test
+    public void renderToMatchesToString()
+        throws Exception
+    {
+        final SimpleArtifactRef ref = new SimpleArtifactRef( "org.foo", "bar", "1.0", "jar", "sources" );
+        final StringBuilder sb = new StringBuilder();
+        ref.renderTo( sb );
+        assertThat( sb.toString(), equalTo( "org.foo:bar:jar:1.0:sources" ) );
+        assertThat( ref.toString(), equalTo( sb.toString() ) );
+
+        sb.setLength( 0 );
+        ref.asProjectVersionRef().renderTo( sb );
+        assertThat( sb.toString(), equalTo( "org.foo:bar:1.0" ) );
+
+        final SimpleVersionlessArtifactRef versionless = new SimpleVersionlessArtifactRef( ref );
+        sb.setLength( 0 );
+        versionless.renderTo( sb );
+        assertThat( sb.toString(), equalTo( "org.foo:bar:jar:sources" ) );
+        assertThat( versionless.toString(), equalTo( sb.toString() ) );
+    }
+
+    @Test
+    public void commonTypesAndClassifiersAreShared()
+    {
+        final SimpleArtifactRef jar = new SimpleArtifactRef( "org.foo", "bar", "1.0", null, null );
+        final SimpleArtifactRef sources = new SimpleArtifactRef( "org.foo", "bar", "1.0", "jar", "sources" );
+        final SimpleArtifactRef zip = new SimpleArtifactRef( "org.foo", "bar", "1.0", "zip", "dist" );
+        final SimpleArtifactRef otherZip = new SimpleArtifactRef( "org.foo", "baz", "2.0", "zip", "dist" );
+
+        assertThat( jar.getTypeAndClassifier(), sameInstance( (TypeAndClassifier) SimpleTypeAndClassifier.JAR ) );
+        assertThat( sources.getTypeAndClassifier(),
+                    sameInstance( (TypeAndClassifier) SimpleTypeAndClassifier.SOURCES ) );
+        assertThat( zip.getTypeAndClassifier(), sameInstance( otherZip.getTypeAndClassifier() ) );
+        assertThat( SimpleTypeAndClassifier.of( "jar", "" ), sameInstance( SimpleTypeAndClassifier.JAR ) );
+    }
+
+    @Test
+    public void derivedRefsAreMemoized()
+    {
+        final SimpleArtifactRef ref = new SimpleArtifactRef( "org.foo", "bar", "1.0", "jar", "sources" );
+
+        final ArtifactRef pom = ref.asPomArtifact();
+        assertThat( pom.getType(), equalTo( "pom" ) );
+        assertThat( pom.getClassifier(), nullValue() );
+        assertThat( ref.asPomArtifact(), sameInstance( pom ) );
+        assertThat( ref.asJarArtifact(), sameInstance( ref.asJarArtifact() ) );
+        assertThat( ref.asProjectVersionRef(), sameInstance( ref.asProjectVersionRef() ) );
+        assertThat( ref.asProjectRef(), sameInstance( ref.asProjectRef() ) );
+
+        // a POM artifact is already its own POM artifact
+        assertThat( pom.asPomArtifact(), sameInstance( pom ) );
+    }
+
 }
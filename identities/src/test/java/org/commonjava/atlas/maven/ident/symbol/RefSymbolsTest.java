@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.symbol;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.junit.Test;
+
+public class RefSymbolsTest
+{
+
+    @Test
+    public void symbolIdsAreDenseAndStable()
+    {
+        final SymbolTable<String> table = new SymbolTable<String>();
+        for ( int i = 0; i < 200; i++ )
+        {
+            assertThat( table.idOf( "symbol-" + i ), equalTo( i ) );
+        }
+
+        assertThat( table.idOf( "symbol-42" ), equalTo( 42 ) );
+        assertThat( table.get( 199 ), equalTo( "symbol-199" ) );
+        assertThat( table.find( "missing" ), equalTo( SymbolTable.NOT_FOUND ) );
+        assertThat( table.size(), equalTo( 200 ) );
+    }
+
+    @Test
+    public void roundTripCompactHandles()
+    {
+        final RefSymbols symbols = new RefSymbols();
+        final ProjectVersionRef gav = new SimpleProjectVersionRef( "org.foo", "bar", "1.0" );
+        final ArtifactRef artifact = new SimpleArtifactRef( "org.foo", "bar", "1.0", "jar", "sources" );
+
+        final CompactProjectVersionRef compactGav = symbols.compact( gav );
+        final CompactArtifactRef compactArtifact = symbols.compact( artifact );
+        assertThat( compactArtifact.asProjectVersionRef(), equalTo( compactGav ) );
+        assertThat( symbols.toRef( compactGav ), equalTo( gav ) );
+        assertThat( symbols.toRef( compactArtifact ), equalTo( artifact ) );
+        assertThat( symbols.projectRef( compactGav.getGA() ), equalTo( (ProjectRef) new SimpleProjectRef( "org.foo", "bar" ) ) );
+        assertThat( symbols.getVersions().size(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void encodeIntoPrimitiveArrays()
+    {
+        final RefSymbols symbols = new RefSymbols();
+        final ArtifactRef first = new SimpleArtifactRef( "org.foo", "bar", "1.0", "pom", null );
+        final ArtifactRef second = new SimpleArtifactRef( "org.foo", "baz", "2.0", "jar", "tests" );
+
+        final int[] data = new int[RefSymbols.ARTIFACT_INTS * 2];
+        symbols.encode( first, data, 0 );
+        symbols.encode( second, data, RefSymbols.ARTIFACT_INTS );
+
+        assertThat( symbols.decodeArtifactRef( data, 0 ), equalTo( first ) );
+        assertThat( symbols.decodeArtifactRef( data, RefSymbols.ARTIFACT_INTS ), equalTo( second ) );
+        assertThat( symbols.decodeProjectVersionRef( data, RefSymbols.ARTIFACT_INTS ),
+                    equalTo( second.asProjectVersionRef() ) );
+        assertThat( RefSymbols.unpackArtifactId( RefSymbols.packGA( 7, -1 ) ), equalTo( -1 ) );
+    }
+
+}
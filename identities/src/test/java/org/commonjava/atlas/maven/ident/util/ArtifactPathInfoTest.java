@@ -23,6 +23,7 @@ import org.commonjava.atlas.maven.ident.version.part.SnapshotPart;
 import org.junit.Test;
 
 import java.text.SimpleDateFormat;
+import java.util.Date;
 
 public class ArtifactPathInfoTest
 {
@@ -120,4 +121,57 @@ public class ArtifactPathInfoTest
         assertTrue( "20160229".equals( new SimpleDateFormat( "yyyyMMdd" ).format( snap.getTimestamp() ) ) );
     }
 
+    @Test
+    public void derivedValuesAreCached()
+    {
+        final ArtifactPathInfo info =
+                ArtifactPathInfo.parse( "/org/foo/bar/1.0-SNAPSHOT/bar-1.0-20160229.212037-2-sources.jar" );
+        assertThat( info.getSnapshotInfo() == info.getSnapshotInfo(), equalTo( true ) );
+        assertThat( info.getArtifact() == info.getArtifact(), equalTo( true ) );
+        assertThat( info.getArtifact().asProjectVersionRef(), equalTo( info.getProjectId() ) );
+        assertThat( info.getArtifact().getClassifier(), equalTo( "sources" ) );
+
+        final ArtifactPathInfo release = ArtifactPathInfo.parse( "/org/foo/bar/1.0/bar-1.0.jar" );
+        assertThat( release.isSnapshot(), equalTo( false ) );
+        assertThat( release.getSnapshotInfo() == null, equalTo( true ) );
+        assertThat( release.getReleaseVersion(), equalTo( "1.0" ) );
+    }
+
+    @Test
+    public void parseThroughCache()
+    {
+        final ParseCache<ArtifactPathInfo> cache = ArtifactPathInfo.enableParseCache( 10 );
+        try
+        {
+            final String path = "/org/foo/bar/1.0/bar-1.0.jar";
+            assertThat( ArtifactPathInfo.parse( path ) == ArtifactPathInfo.parse( path ), equalTo( true ) );
+            assertThat( ArtifactPathInfo.parse( "/not/an/artifact" ) == null, equalTo( true ) );
+            assertThat( cache.getHitCount(), equalTo( 1L ) );
+            assertThat( cache.getMissCount(), equalTo( 2L ) );
+        }
+        finally
+        {
+            ArtifactPathInfo.disableParseCache();
+        }
+    }
+
+    @Test
+    public void mutatingSnapshotTimestampDoesNotLeakIntoCache()
+    {
+        ArtifactPathInfo.enableParseCache( 10 );
+        try
+        {
+            final String path = "/org/foo/bar/1.0-SNAPSHOT/bar-1.0-20160229.212037-2.jar";
+            final Date original = ArtifactPathInfo.parse( path ).getSnapshotInfo().getTimestamp();
+
+            ArtifactPathInfo.parse( path ).getSnapshotInfo().getTimestamp().setTime( 0 );
+
+            assertThat( ArtifactPathInfo.parse( path ).getSnapshotInfo().getTimestamp(), equalTo( original ) );
+        }
+        finally
+        {
+            ArtifactPathInfo.disableParseCache();
+        }
+    }
+
 }
@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleVersionlessArtifactRef;
+import org.junit.Test;
+
+public class CoordinateTokenizerTest
+{
+
+    @Test
+    public void fieldCountsMatchSplit()
+    {
+        for ( final String value : new String[] { "", ":", ":::", "a", "a:", "a::", ":a", "a::b", "g:a:v", "g:a:t:v:c",
+                "g:a:t:v:c:", "g::v::" } )
+        {
+            final String[] parts = value.split( ":" );
+            final CoordinateTokenizer tokens = CoordinateTokenizer.tokenize( value );
+            assertThat( value, tokens.count(), equalTo( parts.length ) );
+            for ( int i = 0; i < parts.length; i++ )
+            {
+                assertThat( value, tokens.field( i ), equalTo( parts[i] ) );
+                assertThat( value, tokens.isEmpty( i ), equalTo( parts[i].isEmpty() ) );
+            }
+        }
+    }
+
+    @Test
+    public void parseFromBuffer()
+    {
+        final StringBuilder sb = new StringBuilder( "org.foo:bar:jar:1.0:sources" );
+        assertThat( SimpleArtifactRef.parse( sb ), equalTo( SimpleArtifactRef.parse( sb.toString() ) ) );
+        assertThat( SimpleVersionlessArtifactRef.parse( sb ).getClassifier(), equalTo( "sources" ) );
+        assertThat( IdentityUtils.project( sb ).getArtifactId(), equalTo( "bar" ) );
+        assertThat( CoordinateTokenizer.tokenize( sb ).fieldEqualsIgnoreCase( 2, "JAR" ), equalTo( true ) );
+    }
+
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IdentityUtilsTest
+{
+
+    @Test
+    public void preparseResolvesSpecsInParallel()
+    {
+        final List<ProjectVersionRef> refs = new ArrayList<ProjectVersionRef>();
+        for ( int i = 0; i < 2000; i++ )
+        {
+            refs.add( new SimpleProjectVersionRef( "org.foo", "bar-" + i, "1." + i ) );
+        }
+        refs.add( new SimpleProjectVersionRef( "org.foo", "broken", "[1.0" ) );
+
+        assertThat( IdentityUtils.preparse( refs ), equalTo( 1 ) );
+        for ( int i = 0; i < 2000; i++ )
+        {
+            assertThat( refs.get( i ).getVersionSpecRaw() != null, equalTo( true ) );
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParseCacheTest
+{
+
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private final ParseCache.Parser<Integer> parser = new ParseCache.Parser<Integer>()
+    {
+        @Override
+        public Integer parse( final String key )
+        {
+            parses.incrementAndGet();
+            return key.startsWith( "bad" ) ? null : Integer.valueOf( key.length() );
+        }
+    };
+
+    @Test
+    public void cachesPositiveAndNegativeResults()
+    {
+        final ParseCache<Integer> cache = new ParseCache<Integer>( 100, parser );
+        assertThat( cache.get( "abc" ), equalTo( 3 ) );
+        assertThat( cache.get( "abc" ), equalTo( 3 ) );
+        assertThat( cache.get( "bad-path" ), nullValue() );
+        assertThat( cache.get( "bad-path" ), nullValue() );
+
+        assertThat( parses.get(), equalTo( 2 ) );
+        assertThat( cache.getHitCount(), equalTo( 2L ) );
+        assertThat( cache.getMissCount(), equalTo( 2L ) );
+        assertThat( cache.getHitRate(), equalTo( 0.5 ) );
+
+        cache.invalidate( "abc" );
+        cache.get( "abc" );
+        assertThat( parses.get(), equalTo( 3 ) );
+    }
+
+    @Test
+    public void boundedSizeAndScanResistant()
+    {
+        final ParseCache<Integer> cache = new ParseCache<Integer>( 64, 1, parser );
+        for ( int i = 0; i < 20; i++ )
+        {
+            // hit twice, so these get promoted into the protected segment
+            cache.get( "hot-" + i );
+            cache.get( "hot-" + i );
+        }
+
+        for ( int i = 0; i < 1000; i++ )
+        {
+            cache.get( "cold-" + i );
+        }
+
+        assertThat( cache.size(), equalTo( 64 ) );
+        assertTrue( cache.getEvictionCount() > 0 );
+
+        final int before = parses.get();
+        for ( int i = 0; i < 20; i++ )
+        {
+            cache.get( "hot-" + i );
+        }
+        assertThat( parses.get(), equalTo( before ) );
+    }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.ident.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ProjectVersionRefComparatorTest
+{
+
+    @Test
+    public void versionsCompareSemantically()
+    {
+        final ProjectVersionRef v19 = new SimpleProjectVersionRef( "org.foo", "bar", "1.9" );
+        final ProjectVersionRef v110 = new SimpleProjectVersionRef( "org.foo", "bar", "1.10" );
+        final ProjectVersionRef other = new SimpleProjectVersionRef( "org.foo", "baz", "1.0" );
+
+        assertThat( ProjectVersionRefComparator.INSTANCE.compare( v19, v110 ) < 0, equalTo( true ) );
+        assertThat( ProjectVersionRefComparator.INSTANCE.compare( v110, other ) < 0, equalTo( true ) );
+        assertThat( ProjectVersionRefComparator.INSTANCE.compare( v19,
+                                                                  new SimpleProjectVersionRef( "org.foo", "bar",
+                                                                                               "1.9" ) ),
+                    equalTo( 0 ) );
+    }
+
+    @Test
+    public void batchSortMatchesComparator()
+    {
+        final List<String> groups = Arrays.asList( "org.foo", "org.bar", "com.example" );
+        final List<String> artifacts = Arrays.asList( "core", "api" );
+        final List<String> versions = Arrays.asList( "1.0", "1.0.0", "1.2-SNAPSHOT", "1.2", "1.10", "2.0-rc1" );
+        final List<String> classifiers = Arrays.asList( null, "sources", "tests" );
+        final List<String> types = Arrays.asList( "jar", "pom" );
+
+        final Random rand = new Random( 42 );
+        final List<ArtifactRef> refs = new ArrayList<ArtifactRef>();
+        for ( int i = 0; i < 500; i++ )
+        {
+            refs.add( new SimpleArtifactRef( pick( groups, rand ), pick( artifacts, rand ), pick( versions, rand ),
+                                             pick( types, rand ), pick( classifiers, rand ) ) );
+        }
+
+        final List<ArtifactRef> expected = new ArrayList<ArtifactRef>( refs );
+        Collections.sort( expected, ArtifactRefComparator.INSTANCE );
+
+        final List<ArtifactRef> actual = new ArrayList<ArtifactRef>( refs );
+        ArtifactRefComparator.sort( actual );
+        assertThat( actual, equalTo( expected ) );
+
+        final List<ProjectVersionRef> gavs = new ArrayList<ProjectVersionRef>( refs );
+        final List<ProjectVersionRef> expectedGavs = new ArrayList<ProjectVersionRef>( gavs );
+        Collections.sort( expectedGavs, ProjectVersionRefComparator.INSTANCE );
+        ProjectVersionRefComparator.sort( gavs );
+        assertThat( gavs, equalTo( expectedGavs ) );
+    }
+
+    private static String pick( final List<String> values, final Random rand )
+    {
+        return values.get( rand.nextInt( values.size() ) );
+    }
+
+}
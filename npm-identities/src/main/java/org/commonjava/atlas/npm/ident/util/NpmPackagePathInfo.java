@@ -16,11 +16,9 @@
 package org.commonjava.atlas.npm.ident.util;
 
 import com.github.zafarkhaja.semver.Version;
+import org.commonjava.atlas.maven.ident.util.ParseCache;
 import org.commonjava.atlas.maven.ident.util.PathInfo;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import static org.commonjava.atlas.npm.ident.util.NpmVersionUtils.valueOf;
 
 /**
@@ -30,61 +28,222 @@ public class NpmPackagePathInfo implements PathInfo
 {
     private static final String EXT_TGZ = ".tgz";
 
-    private static final String PACKAGE_PATH_REGEX = "/((?:(.+)/)?(.+))/-/(.+)\\" + EXT_TGZ;
+    private static final String TARBALL_SEPARATOR = "/-/";
 
-    private static final int SCOPED_PACKAGE_NAME_GROUP = 1;
+    private static final String ENCODED_SLASH = "%2f";
 
-    private static final int PACKAGE_SCOPE_GROUP = 2;
+    /**
+     * System property giving the size of the parse cache to enable at startup; unset or 0 leaves it disabled.
+     */
+    public static final String PARSE_CACHE_SIZE_PROPERTY = "atlas.npm.path-cache.size";
 
-    private static final int PACKAGE_NAME_GROUP = 3;
+    private static final ParseCache.Parser<NpmPackagePathInfo> PARSER = new ParseCache.Parser<NpmPackagePathInfo>()
+    {
+        @Override
+        public NpmPackagePathInfo parse( final String path )
+        {
+            return parseUncached( path );
+        }
+    };
 
-    private static final int PACKAGE_NAME_AND_VERSION_GROUP = 4;
+    private static volatile ParseCache<NpmPackagePathInfo> parseCache;
 
+    static
+    {
+        final int cacheSize = Integer.getInteger( PARSE_CACHE_SIZE_PROPERTY, 0 );
+        if ( cacheSize > 0 )
+        {
+            enableParseCache( cacheSize );
+        }
+    }
 
     /**
-     * Parses an npm package path into fields. The path might be scoped or not. A package metadata path, e.g.
-     * &quot;/keycloak-connect&quot;, cannot be parsed by this method.
+     * Parses an npm package path into fields. The path might be scoped or not, and may point either at a package
+     * tarball or at the package metadata document. Returns null if the path is neither.
+     * <p>
+     * The version is not parsed as semver until {@link #getVersion()} is called.
      *
      * @param path
-     *            parsed path starting with '/', e.g. /keycloak-connect/-/keycloak-connect-3.4.1.tgz or
-     *            /@hawtio/core-dts/-/core-dts-3.3.2.tgz
+     *            parsed path starting with '/', e.g. /keycloak-connect/-/keycloak-connect-3.4.1.tgz,
+     *            /@hawtio/core-dts/-/core-dts-3.3.2.tgz, /keycloak-connect or /@hawtio/core-dts (also
+     *            /@hawtio%2fcore-dts)
      * @return parsed path into an NpmPackagePathInfo instance
      */
     public static NpmPackagePathInfo parse( final String path )
     {
-        final Matcher matcher = Pattern.compile( PACKAGE_PATH_REGEX ).matcher( path.replace( '\\', '/' ) );
-        if ( !matcher.matches() )
+        if ( path == null || path.length() < 2 || !isSlash( path.charAt( 0 ) ) )
         {
             return null;
         }
 
-        final String scopedName = matcher.group( SCOPED_PACKAGE_NAME_GROUP );
-        final String name = matcher.group( PACKAGE_NAME_GROUP );
-        final String nameAndVersion = matcher.group( PACKAGE_NAME_AND_VERSION_GROUP );
+        final ParseCache<NpmPackagePathInfo> cache = parseCache;
+        return cache == null ? parseUncached( path ) : cache.get( path );
+    }
+
+    /**
+     * Route {@link #parse(String)} through a bounded cache of the given size, replacing any existing cache. Cached
+     * instances are shared between callers.
+     */
+    public static ParseCache<NpmPackagePathInfo> enableParseCache( final int maximumSize )
+    {
+        final ParseCache<NpmPackagePathInfo> cache = new ParseCache<NpmPackagePathInfo>( maximumSize, PARSER );
+        parseCache = cache;
+        return cache;
+    }
 
-        final String version = nameAndVersion.substring( name.length() + 1 );
+    public static void disableParseCache()
+    {
+        parseCache = null;
+    }
 
-        return new NpmPackagePathInfo( scopedName, valueOf( version ), nameAndVersion + EXT_TGZ, path );
+    /**
+     * @return the active parse cache (for statistics), or null if caching is disabled
+     */
+    public static ParseCache<NpmPackagePathInfo> getParseCache()
+    {
+        return parseCache;
     }
 
+    private static NpmPackagePathInfo parseUncached( final String path )
+    {
+
+        final String normalized = path.replace( '\\', '/' );
+
+        final int sep = normalized.indexOf( TARBALL_SEPARATOR, 1 );
+        if ( sep < 0 )
+        {
+            return parseMetadataPath( normalized, path );
+        }
+
+        final String scopedName = normalized.substring( 1, sep );
+        final String name = packageName( scopedName );
+        if ( name == null )
+        {
+            return null;
+        }
+
+        final int fileStart = sep + TARBALL_SEPARATOR.length();
+        final int fileEnd = normalized.length() - EXT_TGZ.length();
+        if ( fileEnd <= fileStart || !normalized.endsWith( EXT_TGZ ) || normalized.indexOf( '/', fileStart ) > -1 )
+        {
+            return null;
+        }
+
+        // file is <name>-<version>.tgz
+        final int versionStart = fileStart + name.length() + 1;
+        if ( versionStart >= fileEnd || !normalized.startsWith( name, fileStart )
+                || normalized.charAt( versionStart - 1 ) != '-' )
+        {
+            return null;
+        }
+
+        return new NpmPackagePathInfo( scopedName, normalized.substring( versionStart, fileEnd ),
+                                       normalized.substring( fileStart ), path );
+    }
 
-    private String name;
+    private static NpmPackagePathInfo parseMetadataPath( final String normalized, final String path )
+    {
+        int end = normalized.length();
+        if ( normalized.charAt( end - 1 ) == '/' )
+        {
+            end--;
+        }
 
-    private Version version;
+        if ( end < 2 )
+        {
+            return null;
+        }
 
-    private String file;
+        String scopedName = normalized.substring( 1, end );
+        if ( scopedName.charAt( 0 ) == '@' )
+        {
+            final int encoded = indexOfIgnoreCase( scopedName, ENCODED_SLASH );
+            if ( encoded > -1 )
+            {
+                scopedName = scopedName.substring( 0, encoded ) + '/'
+                        + scopedName.substring( encoded + ENCODED_SLASH.length() );
+            }
+        }
 
-    private String fullPath;
+        if ( packageName( scopedName ) == null )
+        {
+            return null;
+        }
+
+        return new NpmPackagePathInfo( scopedName, (String) null, null, path );
+    }
+
+    /**
+     * Validate a (possibly scoped) package name and return the unscoped part, or null if it's not a package name.
+     * Scoped names must be exactly &#64;scope/name; unscoped names may not contain '/'.
+     */
+    private static String packageName( final String scopedName )
+    {
+        final int slash = scopedName.indexOf( '/' );
+        if ( slash < 0 )
+        {
+            return scopedName.length() > 0 && scopedName.charAt( 0 ) != '@' ? scopedName : null;
+        }
+
+        if ( scopedName.charAt( 0 ) != '@' || slash < 2 || slash == scopedName.length() - 1
+                || scopedName.indexOf( '/', slash + 1 ) > -1 )
+        {
+            return null;
+        }
+
+        return scopedName.substring( slash + 1 );
+    }
+
+    private static int indexOfIgnoreCase( final String value, final String search )
+    {
+        for ( int i = 0; i <= value.length() - search.length(); i++ )
+        {
+            if ( value.regionMatches( true, i, search, 0, search.length() ) )
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isSlash( final char c )
+    {
+        return c == '/' || c == '\\';
+    }
+
+
+    private final String name;
+
+    private final String versionString;
+
+    private volatile Version version;
+
+    private final String file;
+
+    private final String fullPath;
 
 
     public NpmPackagePathInfo( String name, Version version, String file, String fullPath )
     {
         this.name = name;
         this.version = version;
+        this.versionString = version == null ? null : version.toString();
         this.file = file;
         this.fullPath = fullPath;
     }
 
+    private NpmPackagePathInfo( String name, String versionString, String file, String fullPath )
+    {
+        this.name = name;
+        this.versionString = versionString;
+        this.file = file;
+        this.fullPath = fullPath;
+    }
+
+    /**
+     * @return the tarball file name, or null for a package metadata path
+     */
     @Override
     public String getFile()
     {
@@ -105,8 +264,35 @@ public class NpmPackagePathInfo implements PathInfo
         return name;
     }
 
+    /**
+     * @return true if this path points at the package metadata document rather than a tarball
+     */
+    public boolean isPackageMetadata()
+    {
+        return versionString == null;
+    }
+
+    /**
+     * @return the raw version from the tarball file name, without semver parsing; null for a package metadata path
+     */
+    public String getVersionString()
+    {
+        return versionString;
+    }
+
+    /**
+     * @return the parsed version, or null for a package metadata path
+     * @throws com.github.zafarkhaja.semver.ParseException if the version in the file name is not valid semver
+     */
     public Version getVersion()
     {
-        return version;
+        Version v = version;
+        if ( v == null && versionString != null )
+        {
+            v = valueOf( versionString );
+            version = v;
+        }
+
+        return v;
     }
 }
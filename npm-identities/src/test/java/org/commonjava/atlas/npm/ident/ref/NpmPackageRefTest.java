@@ -27,6 +27,8 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -58,6 +60,47 @@ public class NpmPackageRefTest
         assertTrue( info.getFullPath().equals( path ) );
     }
 
+    @Test
+    public void metadataPathParseTest()
+    {
+        NpmPackagePathInfo info = NpmPackagePathInfo.parse( "/keycloak-connect" );
+        assertTrue( info.isPackageMetadata() );
+        assertEquals( "keycloak-connect", info.getName() );
+        assertNull( info.getVersion() );
+        assertNull( info.getFile() );
+
+        info = NpmPackagePathInfo.parse( "/@hawtio/core-dts" );
+        assertTrue( info.isPackageMetadata() );
+        assertEquals( "@hawtio/core-dts", info.getName() );
+
+        info = NpmPackagePathInfo.parse( "/@hawtio%2Fcore-dts" );
+        assertEquals( "@hawtio/core-dts", info.getName() );
+    }
+
+    @Test
+    public void invalidPathParseTest()
+    {
+        assertNull( NpmPackagePathInfo.parse( "/" ) );
+        assertNull( NpmPackagePathInfo.parse( "keycloak-connect" ) );
+        assertNull( NpmPackagePathInfo.parse( "/hawtio/core-dts" ) );
+        assertNull( NpmPackagePathInfo.parse( "/@hawtio/core-dts/extra" ) );
+        assertNull( NpmPackagePathInfo.parse( "/keycloak-connect/-/other-3.4.1.tgz" ) );
+        assertNull( NpmPackagePathInfo.parse( "/keycloak-connect/-/keycloak-connect-3.4.1.zip" ) );
+        assertNull( NpmPackagePathInfo.parse( "/a/b/core-dts/-/core-dts-3.3.2.tgz" ) );
+    }
+
+    @Test
+    public void versionParsedOnDemandTest()
+    {
+        NpmPackagePathInfo info = NpmPackagePathInfo.parse( "/foo/-/foo-not.a.version.tgz" );
+        assertFalse( info.isPackageMetadata() );
+        assertEquals( "not.a.version", info.getVersionString() );
+
+        info = NpmPackagePathInfo.parse( "/@hawtio/core-dts/-/core-dts-1.0.0-rc.1.tgz" );
+        assertEquals( "1.0.0-rc.1", info.getVersionString() );
+        assertEquals( "rc.1", info.getVersion().getPreReleaseVersion() );
+    }
+
     @Test
     public void versionTest()
     {
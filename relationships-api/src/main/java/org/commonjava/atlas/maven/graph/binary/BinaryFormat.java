@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.binary;
+
+import org.commonjava.atlas.maven.graph.rel.RelationshipType;
+
+/**
+ * Layout shared by {@link BinaryRelationshipWriter} and {@link BinaryRelationshipReader}.
+ * <p>
+ * A stream starts with the {@link #FORMAT_VERSION} byte. Every string after that (refs, URIs, scopes, plugin keys) is
+ * a varint tag into a string table that both sides build up as the stream goes along: {@link #STRING_NULL},
+ * {@link #STRING_LITERAL} followed by a varint byte length and the UTF-8 bytes (which also appends the string to the
+ * table), or {@link #STRING_TABLE_OFFSET} plus the table position of a string already seen.
+ * <p>
+ * A relationship is one byte holding the type code in the low 3 bits and the <code>FLAG_*</code> bits above it, then
+ * declaring, target and pom-location strings, a zigzag varint index, a varint source count plus source URIs, and
+ * finally the scope (dependencies) or plugin ref (plugin dependencies).
+ */
+final class BinaryFormat
+{
+
+    private BinaryFormat()
+    {
+    }
+
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Longest string either side accepts, in UTF-8 bytes; the same limit as {@link java.io.DataOutput#writeUTF}.
+     */
+    static final int MAX_STRING_BYTES = 65535;
+
+    static final int STRING_NULL = 0;
+
+    static final int STRING_LITERAL = 1;
+
+    static final int STRING_TABLE_OFFSET = 2;
+
+    static final int TYPE_MASK = 0x07;
+
+    static final int FLAG_MANAGED = 1 << 3;
+
+    static final int FLAG_INHERITED = 1 << 4;
+
+    static final int FLAG_MIXIN = 1 << 5;
+
+    static final int FLAG_OPTIONAL = 1 << 6;
+
+    static final int FLAG_REPORTING = 1 << 7;
+
+    static int typeCode( final RelationshipType type )
+    {
+        switch ( type )
+        {
+            case PARENT:
+                return 0;
+            case BOM:
+                return 1;
+            case DEPENDENCY:
+                return 2;
+            case PLUGIN:
+                return 3;
+            case PLUGIN_DEP:
+                return 4;
+            case EXTENSION:
+                return 5;
+            default:
+                throw new IllegalArgumentException( "Unsupported relationship type: " + type );
+        }
+    }
+
+    static RelationshipType type( final int code )
+    {
+        switch ( code )
+        {
+            case 0:
+                return RelationshipType.PARENT;
+            case 1:
+                return RelationshipType.BOM;
+            case 2:
+                return RelationshipType.DEPENDENCY;
+            case 3:
+                return RelationshipType.PLUGIN;
+            case 4:
+                return RelationshipType.PLUGIN_DEP;
+            case 5:
+                return RelationshipType.EXTENSION;
+            default:
+                return null;
+        }
+    }
+
+}
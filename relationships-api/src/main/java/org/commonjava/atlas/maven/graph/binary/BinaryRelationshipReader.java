@@ -0,0 +1,499 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.binary;
+
+import org.commonjava.atlas.maven.graph.model.EProjectDirectRelationships;
+import org.commonjava.atlas.maven.graph.model.PluginKey;
+import org.commonjava.atlas.maven.graph.rel.BomRelationship;
+import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.ExtensionRelationship;
+import org.commonjava.atlas.maven.graph.rel.ParentRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginRelationship;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.RelationshipType;
+import org.commonjava.atlas.maven.graph.util.RelationshipUtils;
+import org.commonjava.atlas.maven.ident.DependencyScope;
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.InvalidRefException;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads back what a {@link BinaryRelationshipWriter} wrote, in the same order. Each distinct ref or URI in the stream
+ * is parsed at most once per kind it's used as, no matter how many relationships mention it.
+ * <p>
+ * Not thread-safe. Truncated input fails with {@link EOFException}; anything else malformed with {@link IOException}.
+ * Lengths and counts read off the stream are never used to presize allocations, and strings longer than
+ * {@link BinaryFormat#MAX_STRING_BYTES} are rejected, so corrupt input can't force a huge allocation.
+ */
+public final class BinaryRelationshipReader
+{
+
+    private final Source source;
+
+    private final List<Entry> strings = new ArrayList<Entry>();
+
+    private boolean started;
+
+    public BinaryRelationshipReader( final DataInput in )
+    {
+        this.source = new Source()
+        {
+            @Override
+            public int readByte()
+                    throws IOException
+            {
+                return in.readUnsignedByte();
+            }
+
+            @Override
+            public void readFully( final byte[] bytes )
+                    throws IOException
+            {
+                in.readFully( bytes );
+            }
+
+            @Override
+            public int remaining()
+            {
+                return -1;
+            }
+        };
+    }
+
+    public BinaryRelationshipReader( final ByteBuffer buffer )
+    {
+        this.source = new Source()
+        {
+            @Override
+            public int readByte()
+                    throws IOException
+            {
+                try
+                {
+                    return buffer.get() & 0xFF;
+                }
+                catch ( final BufferUnderflowException e )
+                {
+                    throw new EOFException( "Unexpected end of buffer" );
+                }
+            }
+
+            @Override
+            public void readFully( final byte[] bytes )
+                    throws IOException
+            {
+                try
+                {
+                    buffer.get( bytes );
+                }
+                catch ( final BufferUnderflowException e )
+                {
+                    throw new EOFException( "Unexpected end of buffer" );
+                }
+            }
+
+            @Override
+            public int remaining()
+            {
+                return buffer.remaining();
+            }
+        };
+    }
+
+    public ProjectRelationship<?, ?> readRelationship()
+            throws IOException
+    {
+        start();
+        return readRelationshipRecord();
+    }
+
+    public EProjectDirectRelationships readDirectRelationships()
+            throws IOException
+    {
+        start();
+        final URI src = uri( readString() );
+        final ProjectVersionRef ref = projectVersion( readString() );
+
+        ParentRelationship parent = null;
+        if ( source.readByte() != 0 )
+        {
+            parent = readRelationshipRecord( ParentRelationship.class );
+        }
+
+        final List<BomRelationship> boms = readRelationships( BomRelationship.class );
+        final List<DependencyRelationship> dependencies = readRelationships( DependencyRelationship.class );
+        final List<DependencyRelationship> managedDependencies = readRelationships( DependencyRelationship.class );
+        final List<PluginRelationship> plugins = readRelationships( PluginRelationship.class );
+        final List<PluginRelationship> managedPlugins = readRelationships( PluginRelationship.class );
+        final List<ExtensionRelationship> extensions = readRelationships( ExtensionRelationship.class );
+
+        final int pluginCount = readCount();
+        final Map<PluginKey, List<PluginDependencyRelationship>> pluginDependencies =
+                new HashMap<PluginKey, List<PluginDependencyRelationship>>();
+
+        for ( int i = 0; i < pluginCount; i++ )
+        {
+            final Entry key = readString();
+            if ( key == null )
+            {
+                throw new IOException( "Missing plugin key" );
+            }
+
+            final PluginKey pluginKey;
+            try
+            {
+                pluginKey = PluginKey.parse( key.value );
+            }
+            catch ( final RuntimeException e )
+            {
+                throw new IOException( "Invalid plugin key: '" + key.value + "'", e );
+            }
+
+            pluginDependencies.put( pluginKey, readRelationships( PluginDependencyRelationship.class ) );
+        }
+
+        return new EProjectDirectRelationships( src, ref, parent, boms, dependencies, plugins, managedDependencies,
+                                                managedPlugins, extensions, pluginDependencies );
+    }
+
+    private void start()
+            throws IOException
+    {
+        if ( !started )
+        {
+            final int version = source.readByte();
+            if ( version != BinaryFormat.FORMAT_VERSION )
+            {
+                throw new IOException( "Unsupported binary relationship format: " + version );
+            }
+            started = true;
+        }
+    }
+
+    private <T extends ProjectRelationship<?, ?>> List<T> readRelationships( final Class<T> expected )
+            throws IOException
+    {
+        final int count = readCount();
+        final List<T> result = new ArrayList<T>();
+        for ( int i = 0; i < count; i++ )
+        {
+            result.add( readRelationshipRecord( expected ) );
+        }
+
+        return result;
+    }
+
+    private <T extends ProjectRelationship<?, ?>> T readRelationshipRecord( final Class<T> expected )
+            throws IOException
+    {
+        final ProjectRelationship<?, ?> rel = readRelationshipRecord();
+        if ( !expected.isInstance( rel ) )
+        {
+            throw new IOException( "Expected " + expected.getSimpleName() + " but found " + rel.getType() );
+        }
+
+        return expected.cast( rel );
+    }
+
+    private ProjectRelationship<?, ?> readRelationshipRecord()
+            throws IOException
+    {
+        final int header = source.readByte();
+        final RelationshipType type = BinaryFormat.type( header & BinaryFormat.TYPE_MASK );
+        if ( type == null )
+        {
+            throw new IOException( "Unknown relationship type code: " + ( header & BinaryFormat.TYPE_MASK ) );
+        }
+
+        final ProjectVersionRef declaring = projectVersion( readString() );
+
+        final Entry targetEntry = readString();
+        final ProjectVersionRef target;
+        if ( type == RelationshipType.DEPENDENCY || type == RelationshipType.PLUGIN_DEP )
+        {
+            target = artifact( targetEntry );
+        }
+        else
+        {
+            target = projectVersion( targetEntry );
+        }
+
+        final URI pomLocation = uri( readString() );
+
+        final int zigzag = readVarint();
+        final int index = ( zigzag >>> 1 ) ^ -( zigzag & 1 );
+
+        final int sourceCount = readCount();
+        final Set<URI> sources = new HashSet<URI>();
+        for ( int i = 0; i < sourceCount; i++ )
+        {
+            sources.add( uri( readString() ) );
+        }
+
+        DependencyScope scope = null;
+        ProjectRef plugin = null;
+        if ( type == RelationshipType.DEPENDENCY )
+        {
+            final Entry scopeEntry = readString();
+            scope = scopeEntry == null ? null : DependencyScope.getScope( scopeEntry.value );
+        }
+        else if ( type == RelationshipType.PLUGIN_DEP )
+        {
+            plugin = project( readString() );
+        }
+
+        if ( declaring == null || target == null )
+        {
+            throw new IOException( "Incomplete " + type + " relationship" );
+        }
+
+        return RelationshipUtils.relationship( type, sources, pomLocation, declaring, target, plugin, scope, index,
+                                               ( header & BinaryFormat.FLAG_MANAGED ) != 0,
+                                               ( header & BinaryFormat.FLAG_INHERITED ) != 0,
+                                               ( header & BinaryFormat.FLAG_MIXIN ) != 0,
+                                               ( header & BinaryFormat.FLAG_OPTIONAL ) != 0,
+                                               ( header & BinaryFormat.FLAG_REPORTING ) != 0 );
+    }
+
+    private Entry readString()
+            throws IOException
+    {
+        final int tag = readVarint();
+        if ( tag == BinaryFormat.STRING_NULL )
+        {
+            return null;
+        }
+
+        if ( tag == BinaryFormat.STRING_LITERAL )
+        {
+            final int length = readCount();
+            if ( length > BinaryFormat.MAX_STRING_BYTES )
+            {
+                throw new IOException( "String length " + length + " exceeds the maximum of "
+                                               + BinaryFormat.MAX_STRING_BYTES + " bytes" );
+            }
+
+            final byte[] bytes = new byte[length];
+            source.readFully( bytes );
+
+            final Entry entry = new Entry( new String( bytes, StandardCharsets.UTF_8 ) );
+            strings.add( entry );
+            return entry;
+        }
+
+        final int idx = tag - BinaryFormat.STRING_TABLE_OFFSET;
+        if ( idx < 0 )
+        {
+            throw new IOException( "Invalid string tag: " + tag );
+        }
+
+        if ( idx >= strings.size() )
+        {
+            throw new IOException( "String table reference " + idx + " is past the end of the table (size: "
+                                           + strings.size() + ")" );
+        }
+
+        return strings.get( idx );
+    }
+
+    /**
+     * Every element and every string byte takes at least one byte of input, so a count beyond what a buffer still
+     * holds can only mean truncated or corrupt data.
+     */
+    private int readCount()
+            throws IOException
+    {
+        final int count = readVarint();
+        if ( count < 0 )
+        {
+            throw new IOException( "Negative length: " + count );
+        }
+
+        final int remaining = source.remaining();
+        if ( remaining >= 0 && count > remaining )
+        {
+            throw new EOFException( "Length " + count + " exceeds the " + remaining + " bytes left in the buffer" );
+        }
+
+        return count;
+    }
+
+    private int readVarint()
+            throws IOException
+    {
+        int result = 0;
+        for ( int shift = 0; shift < 35; shift += 7 )
+        {
+            final int b = source.readByte();
+            result |= ( b & 0x7F ) << shift;
+            if ( ( b & 0x80 ) == 0 )
+            {
+                return result;
+            }
+        }
+
+        throw new IOException( "Malformed varint" );
+    }
+
+    private static ProjectVersionRef projectVersion( final Entry entry )
+            throws IOException
+    {
+        if ( entry == null )
+        {
+            return null;
+        }
+
+        if ( entry.projectVersion == null )
+        {
+            try
+            {
+                entry.projectVersion = SimpleProjectVersionRef.parse( entry.value );
+            }
+            catch ( final InvalidRefException | InvalidVersionSpecificationException e )
+            {
+                throw new IOException( "Invalid project version: '" + entry.value + "'", e );
+            }
+        }
+
+        return entry.projectVersion;
+    }
+
+    private static ArtifactRef artifact( final Entry entry )
+            throws IOException
+    {
+        if ( entry == null )
+        {
+            return null;
+        }
+
+        if ( entry.artifact == null )
+        {
+            try
+            {
+                entry.artifact = SimpleArtifactRef.parse( entry.value );
+            }
+            catch ( final InvalidRefException | InvalidVersionSpecificationException e )
+            {
+                throw new IOException( "Invalid artifact: '" + entry.value + "'", e );
+            }
+        }
+
+        return entry.artifact;
+    }
+
+    private static ProjectRef project( final Entry entry )
+            throws IOException
+    {
+        if ( entry == null )
+        {
+            return null;
+        }
+
+        if ( entry.project == null )
+        {
+            try
+            {
+                entry.project = SimpleProjectRef.parse( entry.value );
+            }
+            catch ( final InvalidRefException e )
+            {
+                throw new IOException( "Invalid project: '" + entry.value + "'", e );
+            }
+        }
+
+        return entry.project;
+    }
+
+    private static URI uri( final Entry entry )
+            throws IOException
+    {
+        if ( entry == null )
+        {
+            return null;
+        }
+
+        if ( entry.uri == null )
+        {
+            try
+            {
+                entry.uri = new URI( entry.value );
+            }
+            catch ( final URISyntaxException e )
+            {
+                throw new IOException( "Invalid URI: '" + entry.value + "'", e );
+            }
+        }
+
+        return entry.uri;
+    }
+
+    /**
+     * A string table slot, plus whatever it has been parsed into so far.
+     */
+    private static final class Entry
+    {
+        private final String value;
+
+        private ProjectVersionRef projectVersion;
+
+        private ArtifactRef artifact;
+
+        private ProjectRef project;
+
+        private URI uri;
+
+        private Entry( final String value )
+        {
+            this.value = value;
+        }
+    }
+
+    private interface Source
+    {
+        int readByte()
+                throws IOException;
+
+        void readFully( byte[] bytes )
+                throws IOException;
+
+        /**
+         * @return bytes left to read, or -1 if the source can't tell
+         */
+        int remaining();
+    }
+
+}
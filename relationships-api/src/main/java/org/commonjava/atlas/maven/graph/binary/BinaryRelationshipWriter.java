@@ -0,0 +1,283 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.binary;
+
+import org.commonjava.atlas.maven.graph.model.EProjectDirectRelationships;
+import org.commonjava.atlas.maven.graph.model.PluginKey;
+import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginRelationship;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.RelationshipType;
+import org.commonjava.atlas.maven.ident.DependencyScope;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams relationships and {@link EProjectDirectRelationships} in the compact binary form described by
+ * {@link BinaryFormat}. The string table lives as long as the writer, so everything written through one instance has
+ * to be read back, in the same order, through one {@link BinaryRelationshipReader}.
+ * <p>
+ * Not thread-safe. When writing to a {@link ByteBuffer}, running out of room surfaces as a
+ * {@link java.nio.BufferOverflowException} and leaves the buffer and the writer unusable for that stream.
+ */
+public final class BinaryRelationshipWriter
+{
+
+    private final Sink sink;
+
+    private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+    private boolean started;
+
+    public BinaryRelationshipWriter( final DataOutput out )
+    {
+        this.sink = new Sink()
+        {
+            @Override
+            public void writeByte( final int b )
+                    throws IOException
+            {
+                out.writeByte( b );
+            }
+
+            @Override
+            public void write( final byte[] bytes )
+                    throws IOException
+            {
+                out.write( bytes );
+            }
+        };
+    }
+
+    public BinaryRelationshipWriter( final ByteBuffer buffer )
+    {
+        this.sink = new Sink()
+        {
+            @Override
+            public void writeByte( final int b )
+            {
+                buffer.put( (byte) b );
+            }
+
+            @Override
+            public void write( final byte[] bytes )
+            {
+                buffer.put( bytes );
+            }
+        };
+    }
+
+    public void write( final ProjectRelationship<?, ?> rel )
+            throws IOException
+    {
+        start();
+        writeRelationship( rel );
+    }
+
+    public void write( final EProjectDirectRelationships rels )
+            throws IOException
+    {
+        start();
+        writeURI( rels.getSource() );
+        writeString( rels.getProjectRef() == null ? null : rels.getProjectRef().asProjectVersionRef().toString() );
+
+        if ( rels.getParent() == null )
+        {
+            sink.writeByte( 0 );
+        }
+        else
+        {
+            sink.writeByte( 1 );
+            writeRelationship( rels.getParent() );
+        }
+
+        writeRelationships( rels.getBoms() );
+        writeRelationships( rels.getDependencies() );
+        writeRelationships( rels.getManagedDependencies() );
+        writeRelationships( rels.getPlugins() );
+        writeRelationships( rels.getManagedPlugins() );
+        writeRelationships( rels.getExtensions() );
+
+        // instances from the no-arg constructor have null collections; write them as empty, like the JSON form does
+        final Map<PluginKey, List<PluginDependencyRelationship>> pluginDeps = rels.getPluginDependencies();
+        if ( pluginDeps == null )
+        {
+            writeVarint( 0 );
+            return;
+        }
+
+        writeVarint( pluginDeps.size() );
+        for ( final Map.Entry<PluginKey, List<PluginDependencyRelationship>> entry : pluginDeps.entrySet() )
+        {
+            writeString( entry.getKey().toString() );
+            writeRelationships( entry.getValue() );
+        }
+    }
+
+    private void start()
+            throws IOException
+    {
+        if ( !started )
+        {
+            sink.writeByte( BinaryFormat.FORMAT_VERSION );
+            started = true;
+        }
+    }
+
+    private void writeRelationships( final Collection<? extends ProjectRelationship<?, ?>> rels )
+            throws IOException
+    {
+        if ( rels == null )
+        {
+            writeVarint( 0 );
+            return;
+        }
+
+        writeVarint( rels.size() );
+        for ( final ProjectRelationship<?, ?> rel : rels )
+        {
+            writeRelationship( rel );
+        }
+    }
+
+    private void writeRelationship( final ProjectRelationship<?, ?> rel )
+            throws IOException
+    {
+        final RelationshipType type = rel.getType();
+
+        int header = BinaryFormat.typeCode( type );
+        if ( rel.isManaged() )
+        {
+            header |= BinaryFormat.FLAG_MANAGED;
+        }
+        if ( rel.isInherited() )
+        {
+            header |= BinaryFormat.FLAG_INHERITED;
+        }
+        if ( rel.isMixin() )
+        {
+            header |= BinaryFormat.FLAG_MIXIN;
+        }
+        if ( type == RelationshipType.DEPENDENCY && ( (DependencyRelationship) rel ).isOptional() )
+        {
+            header |= BinaryFormat.FLAG_OPTIONAL;
+        }
+        if ( type == RelationshipType.PLUGIN && ( (PluginRelationship) rel ).isReporting() )
+        {
+            header |= BinaryFormat.FLAG_REPORTING;
+        }
+        sink.writeByte( header );
+
+        writeString( rel.getDeclaring().asProjectVersionRef().toString() );
+        if ( type == RelationshipType.DEPENDENCY || type == RelationshipType.PLUGIN_DEP )
+        {
+            writeString( rel.getTarget().toString() );
+        }
+        else
+        {
+            writeString( rel.getTarget().asProjectVersionRef().toString() );
+        }
+        writeURI( rel.getPomLocation() );
+
+        final int index = rel.getIndex();
+        writeVarint( ( index << 1 ) ^ ( index >> 31 ) );
+
+        final Set<URI> sources = rel.getSources();
+        writeVarint( sources.size() );
+        for ( final URI source : sources )
+        {
+            writeURI( source );
+        }
+
+        if ( type == RelationshipType.DEPENDENCY )
+        {
+            final DependencyScope scope = ( (DependencyRelationship) rel ).getScope();
+            writeString( scope == null ? null : scope.realName() );
+        }
+        else if ( type == RelationshipType.PLUGIN_DEP )
+        {
+            writeString( ( (PluginDependencyRelationship) rel ).getPlugin().asProjectRef().toString() );
+        }
+    }
+
+    private void writeURI( final URI uri )
+            throws IOException
+    {
+        writeString( uri == null ? null : uri.toString() );
+    }
+
+    private void writeString( final String value )
+            throws IOException
+    {
+        if ( value == null )
+        {
+            writeVarint( BinaryFormat.STRING_NULL );
+            return;
+        }
+
+        final Integer idx = strings.get( value );
+        if ( idx != null )
+        {
+            writeVarint( BinaryFormat.STRING_TABLE_OFFSET + idx );
+            return;
+        }
+
+        final byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+        if ( bytes.length > BinaryFormat.MAX_STRING_BYTES )
+        {
+            throw new IOException( "String of " + bytes.length + " bytes exceeds the maximum of "
+                                           + BinaryFormat.MAX_STRING_BYTES + ": '" + value.substring( 0, 64 ) + "...'" );
+        }
+
+        writeVarint( BinaryFormat.STRING_LITERAL );
+        writeVarint( bytes.length );
+        sink.write( bytes );
+
+        strings.put( value, strings.size() );
+    }
+
+    private void writeVarint( final int value )
+            throws IOException
+    {
+        int v = value;
+        while ( ( v & ~0x7F ) != 0 )
+        {
+            sink.writeByte( ( v & 0x7F ) | 0x80 );
+            v >>>= 7;
+        }
+        sink.writeByte( v );
+    }
+
+    private interface Sink
+    {
+        void writeByte( int b )
+                throws IOException;
+
+        void write( byte[] bytes )
+                throws IOException;
+    }
+
+}
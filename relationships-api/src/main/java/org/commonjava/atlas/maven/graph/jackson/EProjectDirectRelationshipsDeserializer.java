@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.commonjava.atlas.maven.graph.model.EProjectDirectRelationships;
+import org.commonjava.atlas.maven.graph.model.PluginKey;
+import org.commonjava.atlas.maven.graph.rel.BomRelationship;
+import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.ExtensionRelationship;
+import org.commonjava.atlas.maven.graph.rel.ParentRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginRelationship;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.RelationshipType;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads what {@link EProjectDirectRelationshipsSerializer} writes, plus the older form where every relationship is
+ * written out in full. The lists are built directly rather than through
+ * {@link EProjectDirectRelationships.Builder}, which would dedupe each element with a linear scan. Relationships that
+ * rely on the document's project or source must come after the {@link SerializationConstants#SOURCE} and
+ * {@link SerializationConstants#PROJECT_REF} fields, as the serializer writes them.
+ */
+public final class EProjectDirectRelationshipsDeserializer
+        extends StdDeserializer<EProjectDirectRelationships>
+{
+    private static final long serialVersionUID = 1L;
+
+    public EProjectDirectRelationshipsDeserializer()
+    {
+        super( EProjectDirectRelationships.class );
+    }
+
+    @Override
+    public EProjectDirectRelationships deserialize( final JsonParser jp, final DeserializationContext ctxt )
+            throws IOException
+    {
+        URI source = null;
+        ProjectVersionRef ref = null;
+        ParentRelationship parent = null;
+        List<BomRelationship> boms = Collections.emptyList();
+        List<DependencyRelationship> dependencies = Collections.emptyList();
+        List<DependencyRelationship> managedDependencies = Collections.emptyList();
+        List<PluginRelationship> plugins = Collections.emptyList();
+        List<PluginRelationship> managedPlugins = Collections.emptyList();
+        List<ExtensionRelationship> extensions = Collections.emptyList();
+        Map<PluginKey, List<PluginDependencyRelationship>> pluginDependencies = Collections.emptyMap();
+
+        JsonToken token = jp.getCurrentToken();
+        if ( token == JsonToken.START_OBJECT )
+        {
+            token = jp.nextToken();
+        }
+
+        while ( token == JsonToken.FIELD_NAME )
+        {
+            final String field = jp.getCurrentName();
+            token = jp.nextToken();
+            if ( token != JsonToken.VALUE_NULL )
+            {
+                switch ( field )
+                {
+                    case SerializationConstants.SOURCE:
+                        source = toURI( jp );
+                        break;
+                    case SerializationConstants.PROJECT_REF:
+                        ref = SimpleProjectVersionRef.parse( jp.getText() );
+                        break;
+                    case SerializationConstants.PARENT:
+                        parent = readRelationship( jp, RelationshipType.PARENT, ParentRelationship.class, ref, source,
+                                                   null );
+                        break;
+                    case SerializationConstants.BOMS:
+                        boms = readList( jp, RelationshipType.BOM, BomRelationship.class, ref, source, null );
+                        break;
+                    case SerializationConstants.DEPENDENCIES:
+                        dependencies = readList( jp, RelationshipType.DEPENDENCY, DependencyRelationship.class, ref,
+                                                 source, null );
+                        break;
+                    case SerializationConstants.MANAGED_DEPENDENCIES:
+                        managedDependencies = readList( jp, RelationshipType.DEPENDENCY,
+                                                        DependencyRelationship.class, ref, source, null );
+                        break;
+                    case SerializationConstants.PLUGINS:
+                        plugins = readList( jp, RelationshipType.PLUGIN, PluginRelationship.class, ref, source, null );
+                        break;
+                    case SerializationConstants.MANAGED_PLUGINS:
+                        managedPlugins = readList( jp, RelationshipType.PLUGIN, PluginRelationship.class, ref, source,
+                                                   null );
+                        break;
+                    case SerializationConstants.EXTENSIONS:
+                        extensions = readList( jp, RelationshipType.EXTENSION, ExtensionRelationship.class, ref,
+                                               source, null );
+                        break;
+                    case SerializationConstants.PLUGIN_DEPENDENCIES:
+                        pluginDependencies = readPluginDependencies( jp, ref, source );
+                        break;
+                    default:
+                        jp.skipChildren();
+                }
+            }
+
+            token = jp.nextToken();
+        }
+
+        if ( token != JsonToken.END_OBJECT )
+        {
+            throw new JsonParseException( jp, "Expected a field name or the end of the project relationships, but got: "
+                    + token );
+        }
+
+        return new EProjectDirectRelationships( source, ref, parent, boms, dependencies, plugins, managedDependencies,
+                                                managedPlugins, extensions, pluginDependencies );
+    }
+
+    private static Map<PluginKey, List<PluginDependencyRelationship>> readPluginDependencies(
+            final JsonParser jp, final ProjectVersionRef ref, final URI source )
+            throws IOException
+    {
+        if ( jp.getCurrentToken() != JsonToken.START_OBJECT )
+        {
+            throw new JsonParseException( jp, "Expected an object of " + SerializationConstants.PLUGIN_DEPENDENCIES
+                    + ", but got: " + jp.getCurrentToken() );
+        }
+
+        final Map<PluginKey, List<PluginDependencyRelationship>> result =
+                new HashMap<PluginKey, List<PluginDependencyRelationship>>();
+
+        while ( jp.nextToken() == JsonToken.FIELD_NAME )
+        {
+            final PluginKey key = PluginKey.parse( jp.getCurrentName() );
+            final ProjectRef plugin = new SimpleProjectRef( key.getGroupId(), key.getArtifactId() );
+
+            jp.nextToken();
+            result.put( key, readList( jp, RelationshipType.PLUGIN_DEP, PluginDependencyRelationship.class, ref,
+                                       source, plugin ) );
+        }
+
+        return result;
+    }
+
+    private static <T extends ProjectRelationship<?, ?>> List<T> readList( final JsonParser jp,
+                                                                           final RelationshipType type,
+                                                                           final Class<T> expected,
+                                                                           final ProjectVersionRef ref,
+                                                                           final URI source, final ProjectRef plugin )
+            throws IOException
+    {
+        if ( jp.getCurrentToken() == JsonToken.VALUE_NULL )
+        {
+            return Collections.emptyList();
+        }
+
+        if ( jp.getCurrentToken() != JsonToken.START_ARRAY )
+        {
+            throw new JsonParseException( jp, "Expected an array of " + type + " relationships, but got: "
+                    + jp.getCurrentToken() );
+        }
+
+        final List<T> result = new ArrayList<T>();
+        while ( jp.nextToken() == JsonToken.START_OBJECT )
+        {
+            result.add( readRelationship( jp, type, expected, ref, source, plugin ) );
+        }
+
+        if ( jp.getCurrentToken() != JsonToken.END_ARRAY )
+        {
+            throw new JsonParseException( jp, "Expected a relationship object or the end of the " + type
+                    + " relationships, but got: " + jp.getCurrentToken() );
+        }
+
+        return result;
+    }
+
+    private static <T extends ProjectRelationship<?, ?>> T readRelationship( final JsonParser jp,
+                                                                             final RelationshipType type,
+                                                                             final Class<T> expected,
+                                                                             final ProjectVersionRef ref,
+                                                                             final URI source,
+                                                                             final ProjectRef plugin )
+            throws IOException
+    {
+        final ProjectRelationship<?, ?> rel =
+                ProjectRelationshipDeserializer.readRelationship( jp, type, ref, source, plugin );
+
+        if ( !expected.isInstance( rel ) )
+        {
+            throw new JsonParseException( jp, "Expected a " + type + " relationship, but got: " + rel.getType() );
+        }
+
+        return expected.cast( rel );
+    }
+
+    private static URI toURI( final JsonParser jp )
+            throws IOException
+    {
+        final String uri = jp.getText();
+        try
+        {
+            return new URI( uri );
+        }
+        catch ( final URISyntaxException e )
+        {
+            throw new JsonParseException( jp, "Invalid " + SerializationConstants.SOURCE + ": '" + uri + "': "
+                    + e.getMessage(), e );
+        }
+    }
+
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.commonjava.atlas.maven.graph.model.EProjectDirectRelationships;
+import org.commonjava.atlas.maven.graph.model.PluginKey;
+import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginRelationship;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.RelationshipConstants;
+import org.commonjava.atlas.maven.graph.rel.RelationshipType;
+import org.commonjava.atlas.maven.ident.DependencyScope;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the source and project once, then each relationship list under its bean property name. Relationships leave
+ * out whatever the reader can infer: the type (from the list they're in), the declaring project and source (when they
+ * match the document's), the plugin of a plugin dependency (from its map key), a pom location of
+ * {@link RelationshipConstants#POM_ROOT_URI}, compile scope, a zero index, false flags and empty lists.
+ * {@link EProjectDirectRelationshipsDeserializer} reads this as well as the full per-relationship form.
+ */
+public final class EProjectDirectRelationshipsSerializer
+        extends StdSerializer<EProjectDirectRelationships>
+{
+    private static final long serialVersionUID = 1L;
+
+    public EProjectDirectRelationshipsSerializer()
+    {
+        super( EProjectDirectRelationships.class );
+    }
+
+    @Override
+    public void serialize( final EProjectDirectRelationships value, final JsonGenerator gen,
+                           final SerializerProvider provider )
+            throws IOException
+    {
+        final URI source = value.getSource();
+        final ProjectVersionRef ref = value.getProjectRef();
+
+        gen.writeStartObject();
+        if ( source != null )
+        {
+            gen.writeFieldName( SerializedFieldNames.SOURCE );
+            gen.writeString( source.toString() );
+        }
+        if ( ref != null )
+        {
+            gen.writeFieldName( SerializedFieldNames.PROJECT_REF );
+            provider.defaultSerializeValue( ref, gen );
+        }
+        if ( value.getParent() != null )
+        {
+            gen.writeFieldName( SerializedFieldNames.PARENT );
+            writeRelationship( value.getParent(), gen, provider, ref, source, null );
+        }
+
+        writeList( SerializedFieldNames.BOMS, value.getBoms(), gen, provider, ref, source );
+        writeList( SerializedFieldNames.DEPENDENCIES, value.getDependencies(), gen, provider, ref, source );
+        writeList( SerializedFieldNames.MANAGED_DEPENDENCIES, value.getManagedDependencies(), gen, provider, ref,
+                   source );
+        writeList( SerializedFieldNames.PLUGINS, value.getPlugins(), gen, provider, ref, source );
+        writeList( SerializedFieldNames.MANAGED_PLUGINS, value.getManagedPlugins(), gen, provider, ref, source );
+        writeList( SerializedFieldNames.EXTENSIONS, value.getExtensions(), gen, provider, ref, source );
+
+        final Map<PluginKey, List<PluginDependencyRelationship>> pluginDeps = value.getPluginDependencies();
+        if ( pluginDeps != null && !pluginDeps.isEmpty() )
+        {
+            gen.writeFieldName( SerializedFieldNames.PLUGIN_DEPENDENCIES );
+            gen.writeStartObject();
+            for ( final Map.Entry<PluginKey, List<PluginDependencyRelationship>> entry : pluginDeps.entrySet() )
+            {
+                final PluginKey key = entry.getKey();
+                final ProjectRef plugin = new SimpleProjectRef( key.getGroupId(), key.getArtifactId() );
+
+                gen.writeFieldName( key.toString() );
+                gen.writeStartArray();
+                for ( final PluginDependencyRelationship rel : entry.getValue() )
+                {
+                    writeRelationship( rel, gen, provider, ref, source, plugin );
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeList( final SerializableString field,
+                                   final List<? extends ProjectRelationship<?, ?>> rels, final JsonGenerator gen,
+                                   final SerializerProvider provider, final ProjectVersionRef declaring,
+                                   final URI source )
+            throws IOException
+    {
+        if ( rels == null || rels.isEmpty() )
+        {
+            return;
+        }
+
+        gen.writeFieldName( field );
+        gen.writeStartArray();
+        for ( final ProjectRelationship<?, ?> rel : rels )
+        {
+            writeRelationship( rel, gen, provider, declaring, source, null );
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeRelationship( final ProjectRelationship<?, ?> rel, final JsonGenerator gen,
+                                           final SerializerProvider provider, final ProjectVersionRef declaring,
+                                           final URI source, final ProjectRef plugin )
+            throws IOException
+    {
+        final RelationshipType type = rel.getType();
+
+        gen.writeStartObject();
+        if ( !rel.getDeclaring().equals( declaring ) )
+        {
+            gen.writeFieldName( SerializedFieldNames.DECLARING_REF );
+            provider.defaultSerializeValue( rel.getDeclaring(), gen );
+        }
+        gen.writeFieldName( SerializedFieldNames.TARGET_REF );
+        provider.defaultSerializeValue( rel.getTarget(), gen );
+
+        final URI pomLocation = rel.getPomLocation();
+        if ( pomLocation != null && !RelationshipConstants.POM_ROOT_URI.equals( pomLocation ) )
+        {
+            gen.writeFieldName( SerializedFieldNames.POM_LOCATION_URI );
+            gen.writeString( pomLocation.toString() );
+        }
+
+        final Set<URI> sources = rel.getSources();
+        if ( source == null || sources.size() != 1 || !sources.contains( source ) )
+        {
+            gen.writeFieldName( SerializedFieldNames.SOURCE_URIS );
+            gen.writeStartArray();
+            for ( final URI uri : sources )
+            {
+                if ( uri != null )
+                {
+                    gen.writeString( uri.toString() );
+                }
+            }
+            gen.writeEndArray();
+        }
+
+        if ( rel.getIndex() != 0 )
+        {
+            gen.writeFieldName( SerializedFieldNames.INDEX );
+            gen.writeNumber( rel.getIndex() );
+        }
+
+        writeFlag( SerializedFieldNames.INHERITED, rel.isInherited(), gen );
+        switch ( type )
+        {
+            case BOM:
+            {
+                writeFlag( SerializedFieldNames.MIXIN, rel.isMixin(), gen );
+                break;
+            }
+            case DEPENDENCY:
+            {
+                final DependencyScope scope = ( (DependencyRelationship) rel ).getScope();
+                if ( scope != null && scope != DependencyScope.compile )
+                {
+                    gen.writeFieldName( SerializedFieldNames.SCOPE );
+                    gen.writeString( scope.realName() );
+                }
+                writeFlag( SerializedFieldNames.MANAGED, rel.isManaged(), gen );
+                writeFlag( SerializedFieldNames.OPTIONAL, ( (DependencyRelationship) rel ).isOptional(), gen );
+                break;
+            }
+            case PLUGIN_DEP:
+            {
+                final ProjectRef relPlugin = ( (PluginDependencyRelationship) rel ).getPlugin();
+                if ( plugin == null || !plugin.equals( relPlugin.asProjectRef() ) )
+                {
+                    gen.writeFieldName( SerializedFieldNames.PLUGIN_REF );
+                    provider.defaultSerializeValue( relPlugin, gen );
+                }
+                writeFlag( SerializedFieldNames.MANAGED, rel.isManaged(), gen );
+                break;
+            }
+            case PLUGIN:
+            {
+                writeFlag( SerializedFieldNames.MANAGED, rel.isManaged(), gen );
+                writeFlag( SerializedFieldNames.REPORTING, ( (PluginRelationship) rel ).isReporting(), gen );
+                break;
+            }
+            default:
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeFlag( final SerializableString field, final boolean value, final JsonGenerator gen )
+            throws IOException
+    {
+        if ( value )
+        {
+            gen.writeFieldName( field );
+            gen.writeBoolean( true );
+        }
+    }
+
+}
@@ -0,0 +1,361 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.commonjava.atlas.maven.graph.model.EProjectRelationshipDocument;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.RelationshipType;
+import org.commonjava.atlas.maven.graph.util.RelationshipUtils;
+import org.commonjava.atlas.maven.ident.DependencyScope;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads an {@link EProjectRelationshipDocument} in any supported format version. Each entry in the relationships
+ * array is decoded by its shape (object: v1, array: v2 tuple), so documents without a
+ * {@link SerializationConstants#JSON_VERSION} field are read too. v2 dictionaries must precede the relationships that
+ * use them, which is how {@link EProjectRelationshipDocumentSerializer} writes them.
+ */
+public final class EProjectRelationshipDocumentDeserializer
+        extends StdDeserializer<EProjectRelationshipDocument>
+{
+    private static final long serialVersionUID = 1L;
+
+    public EProjectRelationshipDocumentDeserializer()
+    {
+        super( EProjectRelationshipDocument.class );
+    }
+
+    @Override
+    public EProjectRelationshipDocument deserialize( final JsonParser jp, final DeserializationContext ctxt )
+            throws IOException
+    {
+        int version = SerializationConstants.JSON_VERSION_1;
+        String[] refs = null;
+        URI[] uris = null;
+        final List<ProjectRelationship<?, ?>> relationships = new ArrayList<ProjectRelationship<?, ?>>();
+
+        JsonToken token = jp.getCurrentToken();
+        if ( token == JsonToken.START_OBJECT )
+        {
+            token = jp.nextToken();
+        }
+
+        while ( token == JsonToken.FIELD_NAME )
+        {
+            final String field = jp.getCurrentName();
+            jp.nextToken();
+            switch ( field )
+            {
+                case SerializationConstants.JSON_VERSION:
+                {
+                    version = jp.getIntValue();
+                    if ( version > SerializationConstants.CURRENT_JSON_VERSION )
+                    {
+                        throw new JsonParseException( jp, "Unsupported relationship JSON version: " + version );
+                    }
+                    break;
+                }
+                case SerializationConstants.REF_DICTIONARY:
+                {
+                    refs = readStrings( jp );
+                    break;
+                }
+                case SerializationConstants.URI_DICTIONARY:
+                {
+                    final String[] values = readStrings( jp );
+                    uris = new URI[values.length];
+                    for ( int i = 0; i < values.length; i++ )
+                    {
+                        uris[i] = toURI( jp, values[i] );
+                    }
+                    break;
+                }
+                case SerializationConstants.RELATIONSHIPS:
+                {
+                    readRelationships( jp, ctxt, refs == null ? null : new Dictionary( refs, uris ), relationships );
+                    break;
+                }
+                default:
+                {
+                    jp.skipChildren();
+                }
+            }
+
+            token = jp.nextToken();
+        }
+
+        return new EProjectRelationshipDocument( relationships, version );
+    }
+
+    private void readRelationships( final JsonParser jp, final DeserializationContext ctxt,
+                                    final Dictionary dictionary, final List<ProjectRelationship<?, ?>> relationships )
+            throws IOException
+    {
+        if ( jp.getCurrentToken() != JsonToken.START_ARRAY )
+        {
+            throw new JsonParseException( jp, "Expected an array of relationships" );
+        }
+
+        JsonToken token;
+        while ( ( token = jp.nextToken() ) != JsonToken.END_ARRAY )
+        {
+            if ( token == JsonToken.START_OBJECT )
+            {
+                relationships.add( ctxt.readValue( jp, ProjectRelationship.class ) );
+            }
+            else if ( token == JsonToken.START_ARRAY )
+            {
+                if ( dictionary == null || dictionary.uris == null )
+                {
+                    throw new JsonParseException( jp, "Compact relationship found before the "
+                            + SerializationConstants.REF_DICTIONARY + " and " + SerializationConstants.URI_DICTIONARY
+                            + " dictionaries" );
+                }
+
+                relationships.add( readTuple( jp, dictionary ) );
+            }
+            else
+            {
+                throw new JsonParseException( jp, "Expected a relationship object or array, but got: " + token );
+            }
+        }
+    }
+
+    private ProjectRelationship<?, ?> readTuple( final JsonParser jp, final Dictionary dictionary )
+            throws IOException
+    {
+        if ( jp.nextToken() != JsonToken.VALUE_STRING )
+        {
+            throw new JsonParseException( jp, "Expected relationship type" );
+        }
+
+        final RelationshipType type = RelationshipType.getType( jp.getText() );
+        if ( type == null )
+        {
+            throw new JsonParseException( jp, "Unknown relationship type: " + jp.getText() );
+        }
+
+        final ProjectVersionRef declaring = dictionary.projectVersion( jp, nextInt( jp ) );
+        final int target = nextInt( jp );
+        final URI pomLocation = dictionary.uri( jp, nextInt( jp ) );
+        final int index = nextInt( jp );
+        final int flags = nextInt( jp );
+
+        if ( jp.nextToken() != JsonToken.START_ARRAY )
+        {
+            throw new JsonParseException( jp, "Expected array of source URI indexes" );
+        }
+
+        final Set<URI> sources = new HashSet<URI>();
+        JsonToken token;
+        while ( ( token = jp.nextToken() ) != JsonToken.END_ARRAY )
+        {
+            if ( token != JsonToken.VALUE_NUMBER_INT )
+            {
+                throw new JsonParseException( jp, "Expected source URI index, but got: " + token );
+            }
+            sources.add( dictionary.uri( jp, jp.getIntValue() ) );
+        }
+
+        String scope = null;
+        ProjectRef plugin = null;
+        if ( type == RelationshipType.DEPENDENCY )
+        {
+            if ( jp.nextToken() != JsonToken.VALUE_STRING )
+            {
+                throw new JsonParseException( jp, "Expected dependency scope" );
+            }
+            scope = jp.getText();
+        }
+        else if ( type == RelationshipType.PLUGIN_DEP )
+        {
+            plugin = dictionary.project( jp, nextInt( jp ) );
+        }
+
+        // anything after the known slots was added by a later writer; ignore it.
+        while ( ( token = jp.nextToken() ) != JsonToken.END_ARRAY )
+        {
+            jp.skipChildren();
+        }
+
+        final ProjectVersionRef targetRef =
+                type == RelationshipType.DEPENDENCY || type == RelationshipType.PLUGIN_DEP ?
+                        dictionary.artifact( jp, target ) :
+                        dictionary.projectVersion( jp, target );
+
+        return RelationshipUtils.relationship( type, sources, pomLocation, declaring, targetRef, plugin,
+                                               DependencyScope.getScope( scope ), index,
+                                               ( flags & SerializationConstants.FLAG_MANAGED ) != 0,
+                                               ( flags & SerializationConstants.FLAG_INHERITED ) != 0,
+                                               ( flags & SerializationConstants.FLAG_MIXIN ) != 0,
+                                               ( flags & SerializationConstants.FLAG_OPTIONAL ) != 0,
+                                               ( flags & SerializationConstants.FLAG_REPORTING ) != 0 );
+    }
+
+    private static int nextInt( final JsonParser jp )
+            throws IOException
+    {
+        if ( jp.nextToken() != JsonToken.VALUE_NUMBER_INT )
+        {
+            throw new JsonParseException( jp, "Expected integer, but got: " + jp.getCurrentToken() );
+        }
+
+        return jp.getIntValue();
+    }
+
+    private static String[] readStrings( final JsonParser jp )
+            throws IOException
+    {
+        if ( jp.getCurrentToken() != JsonToken.START_ARRAY )
+        {
+            throw new JsonParseException( jp, "Expected an array of strings" );
+        }
+
+        final List<String> values = new ArrayList<String>();
+        JsonToken token;
+        while ( ( token = jp.nextToken() ) != JsonToken.END_ARRAY )
+        {
+            if ( token != JsonToken.VALUE_STRING )
+            {
+                throw new JsonParseException( jp, "Expected a string, but got: " + token );
+            }
+            values.add( jp.getText() );
+        }
+
+        return values.toArray( new String[values.size()] );
+    }
+
+    private static URI toURI( final JsonParser jp, final String uri )
+            throws IOException
+    {
+        try
+        {
+            return new URI( uri );
+        }
+        catch ( final URISyntaxException e )
+        {
+            throw new JsonParseException( jp, "Invalid URI in " + SerializationConstants.URI_DICTIONARY + ": '" + uri
+                    + "': " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * Per-document ref and URI tables. Each ref string is parsed at most once per kind it's used as.
+     */
+    private static final class Dictionary
+    {
+        private final String[] refs;
+
+        private final URI[] uris;
+
+        private final ProjectVersionRef[] projectVersions;
+
+        private final ProjectVersionRef[] artifacts;
+
+        private final ProjectRef[] projects;
+
+        private Dictionary( final String[] refs, final URI[] uris )
+        {
+            this.refs = refs;
+            this.uris = uris;
+            this.projectVersions = new ProjectVersionRef[refs.length];
+            this.artifacts = new ProjectVersionRef[refs.length];
+            this.projects = new ProjectRef[refs.length];
+        }
+
+        private URI uri( final JsonParser jp, final int idx )
+                throws IOException
+        {
+            if ( idx < 0 || idx >= uris.length )
+            {
+                throw new JsonParseException( jp, "URI index out of range: " + idx );
+            }
+
+            return uris[idx];
+        }
+
+        private ProjectVersionRef projectVersion( final JsonParser jp, final int idx )
+                throws IOException
+        {
+            final String ref = ref( jp, idx );
+            ProjectVersionRef result = projectVersions[idx];
+            if ( result == null )
+            {
+                result = SimpleProjectVersionRef.parse( ref );
+                projectVersions[idx] = result;
+            }
+
+            return result;
+        }
+
+        private ProjectVersionRef artifact( final JsonParser jp, final int idx )
+                throws IOException
+        {
+            final String ref = ref( jp, idx );
+            ProjectVersionRef result = artifacts[idx];
+            if ( result == null )
+            {
+                result = SimpleArtifactRef.parse( ref );
+                artifacts[idx] = result;
+            }
+
+            return result;
+        }
+
+        private ProjectRef project( final JsonParser jp, final int idx )
+                throws IOException
+        {
+            final String ref = ref( jp, idx );
+            ProjectRef result = projects[idx];
+            if ( result == null )
+            {
+                result = SimpleProjectRef.parse( ref );
+                projects[idx] = result;
+            }
+
+            return result;
+        }
+
+        private String ref( final JsonParser jp, final int idx )
+                throws IOException
+        {
+            if ( idx < 0 || idx >= refs.length )
+            {
+                throw new JsonParseException( jp, "Ref index out of range: " + idx );
+            }
+
+            return refs[idx];
+        }
+    }
+
+}
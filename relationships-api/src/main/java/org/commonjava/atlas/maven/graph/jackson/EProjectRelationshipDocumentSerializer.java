@@ -0,0 +1,224 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.commonjava.atlas.maven.graph.model.EProjectRelationshipDocument;
+import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.PluginRelationship;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.RelationshipType;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes an {@link EProjectRelationshipDocument} in the format version it asks for (default:
+ * {@link SerializationConstants#CURRENT_JSON_VERSION}).
+ */
+public final class EProjectRelationshipDocumentSerializer
+        extends StdSerializer<EProjectRelationshipDocument>
+{
+    private static final long serialVersionUID = 1L;
+
+    public EProjectRelationshipDocumentSerializer()
+    {
+        super( EProjectRelationshipDocument.class );
+    }
+
+    @Override
+    public void serialize( final EProjectRelationshipDocument value, final JsonGenerator gen,
+                           final SerializerProvider provider )
+            throws IOException
+    {
+        final int version = value.getJsonVersion() == EProjectRelationshipDocument.DEFAULT_JSON_VERSION ?
+                SerializationConstants.CURRENT_JSON_VERSION :
+                value.getJsonVersion();
+
+        gen.writeStartObject();
+        gen.writeFieldName( SerializedFieldNames.JSON_VERSION );
+        gen.writeNumber( version );
+
+        switch ( version )
+        {
+            case SerializationConstants.JSON_VERSION_1:
+            {
+                gen.writeFieldName( SerializedFieldNames.RELATIONSHIPS );
+                gen.writeStartArray();
+                for ( final ProjectRelationship<?, ?> rel : value.getRelationships() )
+                {
+                    provider.defaultSerializeValue( rel, gen );
+                }
+                gen.writeEndArray();
+                break;
+            }
+            case SerializationConstants.JSON_VERSION_2:
+            {
+                writeDictionaryFormat( value.getRelationships(), gen );
+                break;
+            }
+            default:
+            {
+                throw JsonMappingException.from( provider, "Unsupported relationship JSON version: " + version );
+            }
+        }
+
+        gen.writeEndObject();
+    }
+
+    private void writeDictionaryFormat( final List<ProjectRelationship<?, ?>> relationships, final JsonGenerator gen )
+            throws IOException
+    {
+        final Map<String, Integer> refs = new LinkedHashMap<String, Integer>();
+        final Map<URI, Integer> uris = new LinkedHashMap<URI, Integer>();
+        for ( final ProjectRelationship<?, ?> rel : relationships )
+        {
+            index( refs, declaring( rel ) );
+            index( refs, target( rel ) );
+            if ( rel.getType() == RelationshipType.PLUGIN_DEP )
+            {
+                index( refs, plugin( rel ) );
+            }
+
+            index( uris, rel.getPomLocation() );
+            for ( final URI source : rel.getSources() )
+            {
+                if ( source != null )
+                {
+                    index( uris, source );
+                }
+            }
+        }
+
+        gen.writeFieldName( SerializedFieldNames.REF_DICTIONARY );
+        gen.writeStartArray();
+        for ( final String ref : refs.keySet() )
+        {
+            gen.writeString( ref );
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName( SerializedFieldNames.URI_DICTIONARY );
+        gen.writeStartArray();
+        for ( final URI uri : uris.keySet() )
+        {
+            gen.writeString( uri.toString() );
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName( SerializedFieldNames.RELATIONSHIPS );
+        gen.writeStartArray();
+        for ( final ProjectRelationship<?, ?> rel : relationships )
+        {
+            gen.writeStartArray();
+            gen.writeString( rel.getType().name() );
+            gen.writeNumber( refs.get( declaring( rel ) ) );
+            gen.writeNumber( refs.get( target( rel ) ) );
+            gen.writeNumber( uris.get( rel.getPomLocation() ) );
+            gen.writeNumber( rel.getIndex() );
+            gen.writeNumber( flags( rel ) );
+
+            gen.writeStartArray();
+            for ( final URI source : rel.getSources() )
+            {
+                if ( source != null )
+                {
+                    gen.writeNumber( uris.get( source ) );
+                }
+            }
+            gen.writeEndArray();
+
+            if ( rel.getType() == RelationshipType.DEPENDENCY )
+            {
+                gen.writeString( ( (DependencyRelationship) rel ).getScope().realName() );
+            }
+            else if ( rel.getType() == RelationshipType.PLUGIN_DEP )
+            {
+                gen.writeNumber( refs.get( plugin( rel ) ) );
+            }
+
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+    }
+
+    private static String declaring( final ProjectRelationship<?, ?> rel )
+    {
+        return rel.getDeclaring().asProjectVersionRef().toString();
+    }
+
+    private static String target( final ProjectRelationship<?, ?> rel )
+    {
+        switch ( rel.getType() )
+        {
+            case DEPENDENCY:
+            case PLUGIN_DEP:
+                return rel.getTarget().toString();
+            default:
+                return rel.getTarget().asProjectVersionRef().toString();
+        }
+    }
+
+    private static String plugin( final ProjectRelationship<?, ?> rel )
+    {
+        final ProjectRef plugin = ( (PluginDependencyRelationship) rel ).getPlugin();
+        return plugin.asProjectRef().toString();
+    }
+
+    private static int flags( final ProjectRelationship<?, ?> rel )
+    {
+        int flags = 0;
+        if ( rel.isManaged() )
+        {
+            flags |= SerializationConstants.FLAG_MANAGED;
+        }
+        if ( rel.isInherited() )
+        {
+            flags |= SerializationConstants.FLAG_INHERITED;
+        }
+        if ( rel.isMixin() )
+        {
+            flags |= SerializationConstants.FLAG_MIXIN;
+        }
+        if ( rel instanceof DependencyRelationship && ( (DependencyRelationship) rel ).isOptional() )
+        {
+            flags |= SerializationConstants.FLAG_OPTIONAL;
+        }
+        if ( rel instanceof PluginRelationship && ( (PluginRelationship) rel ).isReporting() )
+        {
+            flags |= SerializationConstants.FLAG_REPORTING;
+        }
+
+        return flags;
+    }
+
+    private static <K> void index( final Map<K, Integer> dictionary, final K key )
+    {
+        if ( !dictionary.containsKey( key ) )
+        {
+            dictionary.put( key, dictionary.size() );
+        }
+    }
+
+}
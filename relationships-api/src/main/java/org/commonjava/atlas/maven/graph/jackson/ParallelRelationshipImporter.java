@@ -0,0 +1,522 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Imports large relationship files by splitting them into chunks and deserializing the chunks in parallel. The input
+ * is either one JSON array of relationship objects or a sequence of them (such as the JSON Lines that
+ * {@link RelationshipStreamWriter} produces).
+ * <p>
+ * The calling thread only tokenizes: it copies each element's tokens into a {@link TokenBuffer} without binding
+ * anything. Turning those tokens into relationships, including all the ref and version parsing, runs on the
+ * {@link ForkJoinPool}, so import time scales with the pool's parallelism. At most two chunks per pool thread wait to
+ * be deserialized at any time, so a slow pool doesn't leave the whole file buffered as tokens.
+ * <p>
+ * Results come back one of two ways. {@link #importRelationships(InputStream)} waits for the whole import and returns
+ * everything in input order. {@link #importRelationships(InputStream, ChunkCallback)} hands each chunk to a callback
+ * as soon as it finishes, in whatever order that happens, without holding the import's results in memory.
+ * <p>
+ * A chunk that fails to deserialize contributes nothing but a {@link Failure}. Every other chunk is still imported.
+ * Malformed JSON structure stops the import with an exception, because element boundaries can no longer be found.
+ */
+public final class ParallelRelationshipImporter
+        implements Closeable
+{
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * Receives each chunk as soon as it has been deserialized. Called on the thread running the import, one chunk at
+     * a time, possibly while later input is still being read. An exception thrown from here stops the import.
+     */
+    public interface ChunkCallback
+    {
+        /**
+         * @param chunk zero-based chunk number, in input order
+         * @param firstElement zero-based position, in the input, of the chunk's first relationship
+         */
+        void imported( int chunk, long firstElement, List<ProjectRelationship<?, ?>> relationships )
+                throws IOException;
+
+        void failed( Failure failure )
+                throws IOException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger( getClass() );
+
+    private final ObjectMapper mapper;
+
+    private final ObjectReader reader;
+
+    private final ForkJoinPool pool;
+
+    private final boolean ownPool;
+
+    private final int chunkSize;
+
+    /**
+     * Import on a new pool sized to the available processors. {@link #close()} shuts that pool down.
+     */
+    public ParallelRelationshipImporter( final ObjectMapper mapper )
+    {
+        this( mapper, new ForkJoinPool(), true, DEFAULT_CHUNK_SIZE );
+    }
+
+    /**
+     * Import on the given pool, which {@link #close()} leaves running.
+     */
+    public ParallelRelationshipImporter( final ObjectMapper mapper, final ForkJoinPool pool, final int chunkSize )
+    {
+        this( mapper, pool, false, chunkSize );
+    }
+
+    private ParallelRelationshipImporter( final ObjectMapper mapper, final ForkJoinPool pool, final boolean ownPool,
+                                          final int chunkSize )
+    {
+        if ( chunkSize < 1 )
+        {
+            throw new IllegalArgumentException( "Chunk size must be at least 1. (Given: " + chunkSize + ")" );
+        }
+
+        this.mapper = mapper;
+        this.reader = mapper.readerFor( ProjectRelationship.class );
+        this.pool = pool;
+        this.ownPool = ownPool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import everything, blocking until the last chunk is done.
+     *
+     * @return relationships in input order, along with any chunks that failed
+     */
+    public Result importRelationships( final InputStream in )
+            throws IOException
+    {
+        final ResultCollector collector = new ResultCollector();
+        try (JsonParser jp = mapper.getFactory().createParser( in ))
+        {
+            importRelationships( jp, true, collector );
+        }
+        return collector.result();
+    }
+
+    /**
+     * @see #importRelationships(InputStream)
+     */
+    public Result importRelationships( final Reader in )
+            throws IOException
+    {
+        final ResultCollector collector = new ResultCollector();
+        try (JsonParser jp = mapper.getFactory().createParser( in ))
+        {
+            importRelationships( jp, true, collector );
+        }
+        return collector.result();
+    }
+
+    /**
+     * Import everything, handing each chunk to the callback as soon as it finishes rather than in input order. Returns
+     * once every chunk has been delivered.
+     */
+    public void importRelationships( final InputStream in, final ChunkCallback callback )
+            throws IOException
+    {
+        try (JsonParser jp = mapper.getFactory().createParser( in ))
+        {
+            importRelationships( jp, false, callback );
+        }
+    }
+
+    /**
+     * @see #importRelationships(InputStream, ChunkCallback)
+     */
+    public void importRelationships( final Reader in, final ChunkCallback callback )
+            throws IOException
+    {
+        try (JsonParser jp = mapper.getFactory().createParser( in ))
+        {
+            importRelationships( jp, false, callback );
+        }
+    }
+
+    private void importRelationships( final JsonParser jp, final boolean ordered, final ChunkCallback callback )
+            throws IOException
+    {
+        final Semaphore inFlight = new Semaphore( Math.max( 2, pool.getParallelism() * 2 ) );
+        final BlockingQueue<Chunk> completed = new LinkedBlockingQueue<Chunk>();
+        final List<ForkJoinTask<Chunk>> tasks = new ArrayList<ForkJoinTask<Chunk>>();
+        int delivered = 0;
+
+        try
+        {
+            JsonToken token = jp.nextToken();
+            final boolean array = token == JsonToken.START_ARRAY;
+            if ( array )
+            {
+                token = jp.nextToken();
+            }
+
+            long element = 0;
+            List<TokenBuffer> buffers = new ArrayList<TokenBuffer>( chunkSize );
+            while ( token != null && !( array && token == JsonToken.END_ARRAY ) )
+            {
+                if ( token != JsonToken.START_OBJECT )
+                {
+                    throw new JsonParseException( jp, "Expected a relationship object, but got: " + token );
+                }
+
+                final TokenBuffer buffer = new TokenBuffer( jp );
+                buffer.copyCurrentStructure( jp );
+                buffers.add( buffer );
+
+                if ( buffers.size() == chunkSize )
+                {
+                    tasks.add( submit( new Chunk( tasks.size(), element, buffers ), inFlight, completed ) );
+                    element += buffers.size();
+                    buffers = new ArrayList<TokenBuffer>( chunkSize );
+
+                    if ( !ordered )
+                    {
+                        // hand over whatever has finished so far, without waiting for anything
+                        Chunk chunk;
+                        while ( ( chunk = completed.poll() ) != null )
+                        {
+                            deliver( await( tasks.get( chunk.index ) ), callback );
+                            delivered++;
+                        }
+                    }
+                }
+
+                token = jp.nextToken();
+            }
+
+            if ( !buffers.isEmpty() )
+            {
+                tasks.add( submit( new Chunk( tasks.size(), element, buffers ), inFlight, completed ) );
+            }
+
+            if ( ordered )
+            {
+                for ( final ForkJoinTask<Chunk> task : tasks )
+                {
+                    deliver( await( task ), callback );
+                }
+            }
+            else
+            {
+                for ( ; delivered < tasks.size(); delivered++ )
+                {
+                    deliver( await( tasks.get( take( completed ).index ) ), callback );
+                }
+            }
+        }
+        catch ( final IOException | RuntimeException e )
+        {
+            for ( final ForkJoinTask<Chunk> task : tasks )
+            {
+                task.cancel( false );
+            }
+            throw e;
+        }
+    }
+
+    private void deliver( final Chunk chunk, final ChunkCallback callback )
+            throws IOException
+    {
+        if ( chunk.failure != null )
+        {
+            callback.failed( chunk.failure );
+        }
+        else
+        {
+            callback.imported( chunk.index, chunk.firstElement, chunk.relationships );
+        }
+    }
+
+    private Chunk await( final ForkJoinTask<Chunk> task )
+            throws InterruptedIOException
+    {
+        try
+        {
+            return task.get();
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for relationship chunks" );
+        }
+        catch ( final ExecutionException e )
+        {
+            // Chunk.deserialize() records its own failures; anything else is a bug worth surfacing as-is
+            throw new IllegalStateException( "Relationship chunk task failed", e.getCause() );
+        }
+    }
+
+    private Chunk take( final BlockingQueue<Chunk> completed )
+            throws InterruptedIOException
+    {
+        try
+        {
+            return completed.take();
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for relationship chunks" );
+        }
+    }
+
+    private ForkJoinTask<Chunk> submit( final Chunk chunk, final Semaphore inFlight,
+                                        final BlockingQueue<Chunk> completed )
+            throws InterruptedIOException
+    {
+        try
+        {
+            inFlight.acquire();
+        }
+        catch ( final InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while queueing relationship chunk " + chunk.index );
+        }
+
+        return pool.submit( new Callable<Chunk>()
+        {
+            @Override
+            public Chunk call()
+            {
+                try
+                {
+                    chunk.deserialize();
+                    return chunk;
+                }
+                finally
+                {
+                    // queued even if deserialize() blew up, so nobody waits forever; await() reports the error
+                    completed.add( chunk );
+                    inFlight.release();
+                }
+            }
+        } );
+    }
+
+    @Override
+    public void close()
+    {
+        if ( ownPool )
+        {
+            pool.shutdown();
+        }
+    }
+
+    private final class Chunk
+    {
+        private final int index;
+
+        private final long firstElement;
+
+        private List<TokenBuffer> buffers;
+
+        private List<ProjectRelationship<?, ?>> relationships = Collections.emptyList();
+
+        private Failure failure;
+
+        private Chunk( final int index, final long firstElement, final List<TokenBuffer> buffers )
+        {
+            this.index = index;
+            this.firstElement = firstElement;
+            this.buffers = buffers;
+        }
+
+        private void deserialize()
+        {
+            final List<ProjectRelationship<?, ?>> result = new ArrayList<ProjectRelationship<?, ?>>( buffers.size() );
+            int i = 0;
+            try
+            {
+                for ( ; i < buffers.size(); i++ )
+                {
+                    try (JsonParser jp = buffers.get( i ).asParser( mapper ))
+                    {
+                        final ProjectRelationship<?, ?> rel = reader.readValue( jp );
+                        result.add( rel );
+                    }
+                }
+
+                relationships = result;
+            }
+            catch ( final IOException | RuntimeException e )
+            {
+                failure = new Failure( index, firstElement, buffers.size(), firstElement + i, e );
+                logger.warn( "Failed to import relationship chunk {} (elements {} - {}): {}", index, firstElement,
+                             firstElement + buffers.size() - 1, e.getMessage() );
+            }
+            finally
+            {
+                buffers = null;
+            }
+        }
+    }
+
+    /**
+     * A chunk that couldn't be imported.
+     */
+    public static final class Failure
+    {
+        private final int chunk;
+
+        private final long firstElement;
+
+        private final int elementCount;
+
+        private final long failedElement;
+
+        private final Exception cause;
+
+        private Failure( final int chunk, final long firstElement, final int elementCount, final long failedElement,
+                         final Exception cause )
+        {
+            this.chunk = chunk;
+            this.firstElement = firstElement;
+            this.elementCount = elementCount;
+            this.failedElement = failedElement;
+            this.cause = cause;
+        }
+
+        public int getChunk()
+        {
+            return chunk;
+        }
+
+        /**
+         * @return zero-based position, in the input, of the first element in the chunk
+         */
+        public long getFirstElement()
+        {
+            return firstElement;
+        }
+
+        public int getElementCount()
+        {
+            return elementCount;
+        }
+
+        /**
+         * @return zero-based position, in the input, of the element that failed
+         */
+        public long getFailedElement()
+        {
+            return failedElement;
+        }
+
+        public Exception getCause()
+        {
+            return cause;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Failure [chunk=" + chunk + ", elements=" + firstElement + "-" + ( firstElement + elementCount - 1 )
+                    + ", failedElement=" + failedElement + ", cause=" + cause + "]";
+        }
+    }
+
+    private static final class ResultCollector
+            implements ChunkCallback
+    {
+        private final List<ProjectRelationship<?, ?>> relationships = new ArrayList<ProjectRelationship<?, ?>>();
+
+        private final List<Failure> failures = new ArrayList<Failure>();
+
+        @Override
+        public void imported( final int chunk, final long firstElement,
+                              final List<ProjectRelationship<?, ?>> relationships )
+        {
+            this.relationships.addAll( relationships );
+        }
+
+        @Override
+        public void failed( final Failure failure )
+        {
+            failures.add( failure );
+        }
+
+        Result result()
+        {
+            return new Result( relationships, failures );
+        }
+    }
+
+    /**
+     * Relationships from every chunk that imported cleanly, plus the chunks that didn't.
+     */
+    public static final class Result
+    {
+        private final List<ProjectRelationship<?, ?>> relationships;
+
+        private final List<Failure> failures;
+
+        private Result( final List<ProjectRelationship<?, ?>> relationships, final List<Failure> failures )
+        {
+            this.relationships = Collections.unmodifiableList( relationships );
+            this.failures = Collections.unmodifiableList( failures );
+        }
+
+        public List<ProjectRelationship<?, ?>> getRelationships()
+        {
+            return relationships;
+        }
+
+        public List<Failure> getFailures()
+        {
+            return failures;
+        }
+
+        public boolean isComplete()
+        {
+            return failures.isEmpty();
+        }
+    }
+
+}
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.KeyDeserializer;
 import org.commonjava.atlas.maven.graph.model.PluginKey;
+import org.commonjava.atlas.maven.ident.util.ParseCache;
 
 import java.io.IOException;
 
@@ -29,12 +30,42 @@ import java.io.IOException;
 public final class PluginKeyDeserializer
         extends KeyDeserializer
 {
-    public PluginKeyDeserializer() {}
+    private static final ParseCache.Parser<PluginKey> PARSER = new ParseCache.Parser<PluginKey>()
+    {
+        @Override
+        public PluginKey parse( final String key )
+        {
+            return PluginKey.parse( key );
+        }
+    };
+
+    private final ParseCache<PluginKey> cache;
+
+    public PluginKeyDeserializer()
+    {
+        this( 0 );
+    }
+
+    /**
+     * @param cacheSize if positive, keep up to this many parsed keys so recurring key strings aren't parsed again
+     */
+    public PluginKeyDeserializer( final int cacheSize )
+    {
+        this.cache = cacheSize > 0 ? new ParseCache<PluginKey>( cacheSize, PARSER ) : null;
+    }
+
+    /**
+     * @return the key cache (for statistics), or null if caching is disabled
+     */
+    public ParseCache<PluginKey> getCache()
+    {
+        return cache;
+    }
 
     @Override
     public Object deserializeKey(String json, DeserializationContext ctx)
             throws IOException, JsonProcessingException
     {
-        return PluginKey.parse( json );
+        return cache == null ? PluginKey.parse( json ) : cache.get( json );
     }
 }
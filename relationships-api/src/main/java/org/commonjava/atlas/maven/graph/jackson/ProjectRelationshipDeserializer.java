@@ -21,13 +21,7 @@ import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
 import org.commonjava.atlas.maven.graph.rel.RelationshipConstants;
 import org.commonjava.atlas.maven.graph.rel.RelationshipType;
-import org.commonjava.atlas.maven.graph.rel.SimpleBomRelationship;
-import org.commonjava.atlas.maven.graph.rel.SimpleDependencyRelationship;
-import org.commonjava.atlas.maven.graph.rel.SimpleExtensionRelationship;
-import org.commonjava.atlas.maven.graph.rel.SimpleParentRelationship;
-import org.commonjava.atlas.maven.graph.rel.SimplePluginDependencyRelationship;
-import org.commonjava.atlas.maven.graph.rel.SimplePluginRelationship;
-import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.graph.util.RelationshipUtils;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
 import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
@@ -51,6 +45,8 @@ public final class ProjectRelationshipDeserializer<T extends ProjectRelationship
 {
     private static final long serialVersionUID = 1L;
 
+    private static final Logger LOGGER = LoggerFactory.getLogger( ProjectRelationshipDeserializer.class );
+
     public ProjectRelationshipDeserializer()
     {
         super( ProjectRelationship.class );
@@ -60,211 +56,197 @@ public final class ProjectRelationshipDeserializer<T extends ProjectRelationship
     public T deserialize( final JsonParser jp, final DeserializationContext ctx )
             throws JsonProcessingException, IOException
     {
-        Map<String, Object> ast = new HashMap<String, Object>();
-        Map<String, JsonLocation> locations = new HashMap<String, JsonLocation>();
+        return (T) readRelationship( jp, null, null, null, null );
+    }
+
+    /**
+     * Read one relationship object. The defaults (each may be null) fill in fields the object leaves out, which lets
+     * an enclosing document state the type, declaring project, source or plugin once instead of per relationship.
+     */
+    static ProjectRelationship<?, ?> readRelationship( final JsonParser jp, final RelationshipType defaultType,
+                                                      final ProjectVersionRef defaultDeclaring,
+                                                      final URI defaultSource, final ProjectRef defaultPlugin )
+            throws IOException
+    {
+        RelationshipType type = defaultType;
+        URI pomLocation = RelationshipConstants.POM_ROOT_URI;
+        Collection<URI> sources = null;
+        String decl = null;
+        String tgt = null;
+        String scp = null;
+        String plug = null;
+        int index = 0;
+        boolean managed = false;
+        boolean inherited = false;
+        boolean mixin = false;
+        boolean optional = false;
+        boolean report = false;
 
         JsonToken token = jp.getCurrentToken();
-        String currentField = null;
-        List<String> currentArry = null;
+        if ( token == JsonToken.START_OBJECT )
+        {
+            token = jp.nextToken();
+        }
 
-        Logger logger = LoggerFactory.getLogger( getClass() );
-        do
+        // single pass over the fields; booleans only count when they're literally true, and nulls leave the default.
+        while ( token == JsonToken.FIELD_NAME )
         {
-            //                logger.info( "Token: {}", token );
-            switch ( token )
+            final String field = jp.getCurrentName();
+            token = jp.nextToken();
+            if ( token != JsonToken.VALUE_NULL )
             {
-                case START_ARRAY:
+                switch ( field )
                 {
-                    //                        logger.info( "Starting array for field: {}", currentField );
-                    currentArry = new ArrayList<String>();
-                    break;
+                    case SerializationConstants.RELATIONSHIP_TYPE:
+                        type = RelationshipType.getType( jp.getText() );
+                        break;
+                    case SerializationConstants.POM_LOCATION_URI:
+                        pomLocation = toURI( jp, "Invalid " + SerializationConstants.POM_LOCATION_URI + ": '" );
+                        break;
+                    case SerializationConstants.SOURCE_URIS:
+                        sources = new HashSet<URI>();
+                        readSources( jp, sources );
+                        break;
+                    case SerializationConstants.DECLARING_REF:
+                        decl = jp.getText();
+                        break;
+                    case SerializationConstants.TARGET_REF:
+                        tgt = jp.getText();
+                        break;
+                    case SerializationConstants.INDEX:
+                        index = jp.getIntValue();
+                        break;
+                    case SerializationConstants.SCOPE:
+                        scp = jp.getText();
+                        break;
+                    case SerializationConstants.PLUGIN_REF:
+                        plug = jp.getText();
+                        break;
+                    case SerializationConstants.MANAGED:
+                        managed = token == JsonToken.VALUE_TRUE;
+                        break;
+                    case SerializationConstants.INHERITED:
+                        inherited = token == JsonToken.VALUE_TRUE;
+                        break;
+                    case SerializationConstants.MIXIN:
+                        mixin = token == JsonToken.VALUE_TRUE;
+                        break;
+                    case SerializationConstants.OPTIONAL:
+                        optional = token == JsonToken.VALUE_TRUE;
+                        break;
+                    case SerializationConstants.REPORTING:
+                        report = token == JsonToken.VALUE_TRUE;
+                        break;
+                    default:
+                        jp.skipChildren();
                 }
-                case END_ARRAY:
-                    //                        logger.info( "Ending array for field: {}", currentField );
-                    locations.put( currentField, jp.getCurrentLocation() );
-                    ast.put( currentField, currentArry );
-                    currentArry = null;
-                    break;
-                case FIELD_NAME:
-                    currentField = jp.getCurrentName();
-                    break;
-                case VALUE_STRING:
-                    if ( currentArry != null )
-                    {
-                        currentArry.add( jp.getText() );
-                    }
-                    else
-                    {
-                        locations.put( currentField, jp.getCurrentLocation() );
-                        ast.put( currentField, jp.getText() );
-                    }
-                    break;
-                case VALUE_NUMBER_INT:
-                    locations.put( currentField, jp.getCurrentLocation() );
-                    ast.put( currentField, jp.getIntValue() );
-                    break;
-                case VALUE_NUMBER_FLOAT:
-                    locations.put( currentField, jp.getCurrentLocation() );
-                    ast.put( currentField, jp.getFloatValue() );
-                    break;
-                case VALUE_TRUE:
-                    locations.put( currentField, jp.getCurrentLocation() );
-                    ast.put( currentField, Boolean.TRUE );
-                    break;
-                case VALUE_FALSE:
-                    locations.put( currentField, jp.getCurrentLocation() );
-                    ast.put( currentField, Boolean.FALSE );
-                    break;
             }
 
             token = jp.nextToken();
         }
-        while ( token != JsonToken.END_OBJECT );
 
-        StringBuilder sb = new StringBuilder();
-        sb.append( "AST is:" );
-        for ( String field : ast.keySet() )
+        if ( token != JsonToken.END_OBJECT )
         {
-            Object value = ast.get( field );
-            sb.append( "\n  " ).append( field ).append( " = " );
-            if ( value == null )
-            {
-                sb.append( "null" );
-            }
-            else
-            {
-                sb.append( value ).append( "  (type: " ).append( value.getClass().getSimpleName() ).append( ")" );
-            }
+            throw new JsonParseException( jp, "Expected a field name or the end of the relationship, but got: "
+                    + token );
         }
 
-        logger.debug( sb.toString() );
+        if ( type == null )
+        {
+            throw new JsonParseException( jp, "No relationship type (field: " + SerializationConstants.RELATIONSHIP_TYPE
+                    + ") found in relationship!" );
+        }
 
-        final RelationshipType type = RelationshipType.getType( (String) ast.get( SerializationConstants.RELATIONSHIP_TYPE ) );
+        if ( sources == null )
+        {
+            sources = defaultSource == null ? new HashSet<URI>() : Collections.singleton( defaultSource );
+        }
 
-        final String uri = (String) ast.get( SerializationConstants.POM_LOCATION_URI );
-        URI pomLocation;
-        if ( uri == null )
+        final ProjectVersionRef declaring;
+        if ( decl == null && defaultDeclaring != null )
         {
-            pomLocation = RelationshipConstants.POM_ROOT_URI;
+            declaring = defaultDeclaring;
         }
         else
         {
-            try
+            declaring = SimpleProjectVersionRef.parse( decl );
+        }
+
+        ProjectRef plugin = defaultPlugin;
+        final ProjectVersionRef target;
+        if ( type == RelationshipType.DEPENDENCY )
+        {
+            target = SimpleArtifactRef.parse( tgt );
+        }
+        else if ( type == RelationshipType.PLUGIN_DEP )
+        {
+            if ( plug != null )
             {
-                pomLocation = new URI( uri );
+                plugin = SimpleProjectRef.parse( plug );
             }
-            catch ( final URISyntaxException e )
+            else if ( plugin == null )
             {
-                throw new JsonParseException( "Invalid " + SerializationConstants.POM_LOCATION_URI + ": '" + uri + "': " + e.getMessage(),
-                                              locations.get( SerializationConstants.POM_LOCATION_URI ), e );
+                throw new JsonParseException( jp, "No plugin reference (field: " + SerializationConstants.PLUGIN_REF
+                                                      + ") found in plugin-dependency relationship!" );
             }
-        }
 
-        Collection<URI> sources = new HashSet<URI>();
-        List<String> srcs = (List<String>) ast.get( SerializationConstants.SOURCE_URIS );
-        if ( srcs != null )
+            target = SimpleArtifactRef.parse( tgt );
+        }
+        else
         {
-            for ( String u : srcs )
-            {
-                try
-                {
-                    sources.add( new URI( u ) );
-                }
-                catch ( URISyntaxException e )
-                {
-                    throw new JsonParseException( "Failed to parse source URI: " + u,
-                                                  locations.get( SerializationConstants.SOURCE_URIS ) );
-                }
-            }
+            target = SimpleProjectVersionRef.parse( tgt );
         }
 
-        String decl = (String) ast.get( SerializationConstants.DECLARING_REF );
-        final ProjectVersionRef declaring = SimpleProjectVersionRef.parse( decl );
+        final ProjectRelationship<?, ?> rel =
+                RelationshipUtils.relationship( type, sources, pomLocation, declaring, target, plugin,
+                                                DependencyScope.getScope( scp ), index, managed, inherited, mixin,
+                                                optional, report );
 
-        String tgt = (String) ast.get( SerializationConstants.TARGET_REF );
-        Integer index = (Integer) ast.get( SerializationConstants.INDEX );
-        if ( index == null )
+        if ( LOGGER.isDebugEnabled() )
         {
-            index = 0;
+            LOGGER.debug( "Deserialized relationship: {}", rel );
         }
 
-        // handle null implicitly by comparing to true.
-        boolean managed = Boolean.TRUE.equals( ast.get( SerializationConstants.MANAGED ) );
-        boolean inherited = Boolean.TRUE.equals( ast.get( SerializationConstants.INHERITED ) );
-        boolean mixin = Boolean.TRUE.equals( ast.get( SerializationConstants.MIXIN ) );
-        boolean optional = Boolean.TRUE.equals( ast.get( SerializationConstants.OPTIONAL ) );
+        return rel;
+    }
 
-        ProjectRelationship<?, ?> rel = null;
-        switch ( type )
+    private static void readSources( final JsonParser jp, final Collection<URI> sources )
+            throws IOException
+    {
+        if ( jp.getCurrentToken() != JsonToken.START_ARRAY )
         {
-            case DEPENDENCY:
-            {
-                final ArtifactRef target = SimpleArtifactRef.parse( tgt );
-
-                String scp = (String) ast.get( SerializationConstants.SCOPE );
-                final DependencyScope scope;
-                if ( scp == null )
-                {
-                    scope = DependencyScope.compile;
-                }
-                else
-                {
-                    scope = DependencyScope.getScope( scp );
-                }
-
-                rel = new SimpleDependencyRelationship( sources, pomLocation, declaring, target, scope, index,
-                                                        managed, inherited, optional );
-                break;
-            }
-            case EXTENSION:
-            {
-                final ProjectVersionRef target = SimpleProjectVersionRef.parse( tgt );
-
-                rel = new SimpleExtensionRelationship( sources, pomLocation, declaring, target, index, inherited );
-                break;
-            }
-            case PARENT:
-            {
-                final ProjectVersionRef target = SimpleProjectVersionRef.parse( tgt );
-
-                rel = new SimpleParentRelationship( sources, declaring, target );
-                break;
-            }
-            case PLUGIN:
-            {
-                final ProjectVersionRef target = SimpleProjectVersionRef.parse( tgt );
+            jp.skipChildren();
+            return;
+        }
 
-                Boolean report = (Boolean) ast.get( SerializationConstants.REPORTING );
-                rel = new SimplePluginRelationship( sources, pomLocation, declaring, target, index, managed,
-                                                    Boolean.TRUE.equals( report ), inherited );
-                break;
-            }
-            case PLUGIN_DEP:
+        JsonToken token;
+        while ( ( token = jp.nextToken() ) != JsonToken.END_ARRAY )
+        {
+            if ( token == JsonToken.VALUE_STRING )
             {
-                String plug = (String) ast.get( SerializationConstants.PLUGIN_REF );
-                if ( plug == null )
-                {
-                    throw new JsonParseException( "No plugin reference (field: " + SerializationConstants.PLUGIN_REF
-                                                          + ") found in plugin-dependency relationship!",
-                                                  jp.getCurrentLocation() );
-                }
-
-                final ProjectRef plugin = SimpleProjectRef.parse( plug );
-                final ArtifactRef target = SimpleArtifactRef.parse( tgt );
-
-                rel = new SimplePluginDependencyRelationship( sources, pomLocation, declaring, plugin, target,
-                                                              index, managed, inherited );
-                break;
+                sources.add( toURI( jp, "Failed to parse source URI: '" ) );
             }
-            case BOM:
+            else
             {
-                final ProjectVersionRef target = SimpleProjectVersionRef.parse( tgt );
-
-                rel = new SimpleBomRelationship( sources, pomLocation, declaring, target, index, inherited, mixin );
-                break;
+                jp.skipChildren();
             }
         }
+    }
 
-        return (T) rel;
+    /**
+     * Parse the current string token as a URI. The parser's location is only consulted if that fails.
+     */
+    private static URI toURI( final JsonParser jp, final String errorPrefix )
+            throws IOException
+    {
+        final String uri = jp.getText();
+        try
+        {
+            return new URI( uri );
+        }
+        catch ( final URISyntaxException e )
+        {
+            throw new JsonParseException( jp, errorPrefix + uri + "': " + e.getMessage(), e );
+        }
     }
 }
@@ -47,9 +47,12 @@ public final class ProjectRelationshipSerializer<T extends ProjectRelationship>
             throws IOException, JsonGenerationException
     {
         gen.writeStartObject();
-        gen.writeStringField( SerializationConstants.RELATIONSHIP_TYPE, value.getType().name() );
-        gen.writeStringField( SerializationConstants.POM_LOCATION_URI, value.getPomLocation().toString() );
-        gen.writeBooleanField( SerializationConstants.INHERITED, value.isInherited() );
+        gen.writeFieldName( SerializedFieldNames.RELATIONSHIP_TYPE );
+        gen.writeString( value.getType().name() );
+        gen.writeFieldName( SerializedFieldNames.POM_LOCATION_URI );
+        gen.writeString( value.getPomLocation().toString() );
+        gen.writeFieldName( SerializedFieldNames.INHERITED );
+        gen.writeBoolean( value.isInherited() );
 
         Set<URI> sources = value.getSources();
         if ( sources != null )
@@ -63,7 +66,8 @@ public final class ProjectRelationshipSerializer<T extends ProjectRelationship>
             }
             if ( !sources.isEmpty() )
             {
-                gen.writeArrayFieldStart( SerializationConstants.SOURCE_URIS );
+                gen.writeFieldName( SerializedFieldNames.SOURCE_URIS );
+                gen.writeStartArray();
                 for ( URI uri : sources )
                 {
                     if ( uri == null )
@@ -75,38 +79,48 @@ public final class ProjectRelationshipSerializer<T extends ProjectRelationship>
                 gen.writeEndArray();
             }
         }
-        provider.defaultSerializeField( SerializationConstants.DECLARING_REF, value.getDeclaring(), gen );
-        provider.defaultSerializeField( SerializationConstants.TARGET_REF, value.getTarget(), gen );
+        gen.writeFieldName( SerializedFieldNames.DECLARING_REF );
+        provider.defaultSerializeValue( value.getDeclaring(), gen );
+        gen.writeFieldName( SerializedFieldNames.TARGET_REF );
+        provider.defaultSerializeValue( value.getTarget(), gen );
 
         switch ( value.getType() )
         {
             case BOM:
-                gen.writeBooleanField( SerializationConstants.MIXIN, value.isMixin() );
+                gen.writeFieldName( SerializedFieldNames.MIXIN );
+                gen.writeBoolean( value.isMixin() );
                 break;
             case DEPENDENCY:
             {
-                gen.writeStringField( SerializationConstants.SCOPE, ( (DependencyRelationship) value ).getScope().realName() );
-                gen.writeBooleanField( SerializationConstants.MANAGED, value.isManaged() );
-                gen.writeBooleanField( SerializationConstants.OPTIONAL, ( (DependencyRelationship) value ).isOptional() );
+                gen.writeFieldName( SerializedFieldNames.SCOPE );
+                gen.writeString( ( (DependencyRelationship) value ).getScope().realName() );
+                gen.writeFieldName( SerializedFieldNames.MANAGED );
+                gen.writeBoolean( value.isManaged() );
+                gen.writeFieldName( SerializedFieldNames.OPTIONAL );
+                gen.writeBoolean( ( (DependencyRelationship) value ).isOptional() );
                 break;
             }
             case PLUGIN_DEP:
             {
-                provider.defaultSerializeField( SerializationConstants.PLUGIN_REF, ( (PluginDependencyRelationship) value ).getPlugin(),
-                                                gen );
-                gen.writeBooleanField( SerializationConstants.MANAGED, value.isManaged() );
+                gen.writeFieldName( SerializedFieldNames.PLUGIN_REF );
+                provider.defaultSerializeValue( ( (PluginDependencyRelationship) value ).getPlugin(), gen );
+                gen.writeFieldName( SerializedFieldNames.MANAGED );
+                gen.writeBoolean( value.isManaged() );
                 break;
             }
             case PLUGIN:
             {
 
-                gen.writeBooleanField( SerializationConstants.MANAGED, value.isManaged() );
-                gen.writeBooleanField( SerializationConstants.REPORTING, ( (PluginRelationship) value ).isReporting() );
+                gen.writeFieldName( SerializedFieldNames.MANAGED );
+                gen.writeBoolean( value.isManaged() );
+                gen.writeFieldName( SerializedFieldNames.REPORTING );
+                gen.writeBoolean( ( (PluginRelationship) value ).isReporting() );
                 break;
             }
         }
 
-        gen.writeNumberField( SerializationConstants.INDEX, value.getIndex() );
+        gen.writeFieldName( SerializedFieldNames.INDEX );
+        gen.writeNumber( value.getIndex() );
         gen.writeEndObject();
     }
 
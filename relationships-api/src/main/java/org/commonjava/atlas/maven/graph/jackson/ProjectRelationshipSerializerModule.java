@@ -29,6 +29,8 @@ import org.commonjava.atlas.maven.graph.rel.SimpleExtensionRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimpleParentRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimplePluginDependencyRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimplePluginRelationship;
+import org.commonjava.atlas.maven.graph.model.EProjectDirectRelationships;
+import org.commonjava.atlas.maven.graph.model.EProjectRelationshipDocument;
 import org.commonjava.atlas.maven.graph.model.PluginKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,16 +58,50 @@ public class ProjectRelationshipSerializerModule
 
     public static final ProjectRelationshipSerializerModule INSTANCE = new ProjectRelationshipSerializerModule();
 
+    private final int keyCacheSize;
+
     public ProjectRelationshipSerializerModule()
+    {
+        this( 0 );
+    }
+
+    /**
+     * @param keyCacheSize if positive, {@link PluginKey} map keys are parsed through a cache of this many entries,
+     * owned by this module instance. Give ProjectVersionRefSerializerModule a key cache too, to cover ref-keyed maps.
+     * Registering it alongside {@link #INSTANCE} works; whichever module is registered last wins.
+     */
+    public ProjectRelationshipSerializerModule( final int keyCacheSize )
     {
         super( "ProjectRelationship<?> Serializer" );
+        this.keyCacheSize = keyCacheSize;
 
         for ( Class<? extends ProjectRelationship> cls : REL_CLASSES )
         {
             register( cls );
         }
         addKeySerializer( PluginKey.class, new PluginKeySerializer() );
-        addKeyDeserializer( PluginKey.class, new PluginKeyDeserializer() );
+        addKeyDeserializer( PluginKey.class, new PluginKeyDeserializer( keyCacheSize ) );
+
+        addSerializer( EProjectRelationshipDocument.class, new EProjectRelationshipDocumentSerializer() );
+        addDeserializer( EProjectRelationshipDocument.class, new EProjectRelationshipDocumentDeserializer() );
+
+        addSerializer( EProjectDirectRelationships.class, new EProjectDirectRelationshipsSerializer() );
+        addDeserializer( EProjectDirectRelationships.class, new EProjectDirectRelationshipsDeserializer() );
+    }
+
+    public int getKeyCacheSize()
+    {
+        return keyCacheSize;
+    }
+
+    /**
+     * Jackson skips registering a module whose type id it has already seen, so instances with different key cache
+     * sizes need distinct ids; otherwise a cached module registered after {@link #INSTANCE} would silently do nothing.
+     */
+    @Override
+    public Object getTypeId()
+    {
+        return keyCacheSize > 0 ? getClass().getName() + ":keyCache=" + keyCacheSize : getClass().getName();
     }
 
     private <T extends ProjectRelationship> void register( Class<T> cls )
@@ -80,13 +116,14 @@ public class ProjectRelationshipSerializerModule
     @Override
     public int hashCode()
     {
-        return getClass().getSimpleName().hashCode() + 17;
+        return getClass().getSimpleName().hashCode() + 17 + 31 * keyCacheSize;
     }
 
     @Override
     public boolean equals( final Object other )
     {
-        return getClass().equals( other.getClass() );
+        return getClass().equals( other.getClass() )
+                && keyCacheSize == ( (ProjectRelationshipSerializerModule) other ).keyCacheSize;
     }
 
 }
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Reads relationships lazily, one at a time, from the output of {@link RelationshipStreamWriter}. Input holding a
+ * single JSON array of relationship objects is read the same way, element by element, so memory use stays constant
+ * whatever the size of the input. The mapper must have {@link ProjectRelationshipSerializerModule} registered.
+ */
+public final class RelationshipStreamReader
+        implements Closeable
+{
+
+    /**
+     * Receives each relationship as soon as it has been read.
+     */
+    public interface Callback
+    {
+        void relationship( ProjectRelationship<?, ?> rel )
+                throws IOException;
+    }
+
+    private final MappingIterator<ProjectRelationship<?, ?>> values;
+
+    public RelationshipStreamReader( final ObjectMapper mapper, final InputStream in )
+            throws IOException
+    {
+        this.values = reader( mapper ).readValues( in );
+    }
+
+    public RelationshipStreamReader( final ObjectMapper mapper, final Reader in )
+            throws IOException
+    {
+        this.values = reader( mapper ).readValues( in );
+    }
+
+    private static ObjectReader reader( final ObjectMapper mapper )
+    {
+        return mapper.readerFor( ProjectRelationship.class );
+    }
+
+    /**
+     * @return the next relationship, or null once the input is exhausted
+     */
+    public ProjectRelationship<?, ?> next()
+            throws IOException
+    {
+        if ( !values.hasNextValue() )
+        {
+            return null;
+        }
+
+        return values.nextValue();
+    }
+
+    /**
+     * Hand every remaining relationship to the callback, in input order.
+     *
+     * @return the number of relationships read by this call
+     */
+    public long readAll( final Callback callback )
+            throws IOException
+    {
+        long read = 0;
+        while ( values.hasNextValue() )
+        {
+            callback.relationship( values.nextValue() );
+            read++;
+        }
+
+        return read;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        values.close();
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
+
+/**
+ * Writes relationships as JSON Lines (one relationship object per line), one at a time, so exporting a graph only
+ * needs as much heap as the relationship currently being written. Read the result back with
+ * {@link RelationshipStreamReader}. The mapper must have {@link ProjectRelationshipSerializerModule} registered.
+ * <p>
+ * Closing the writer closes the target stream, unless the mapper has
+ * {@link com.fasterxml.jackson.core.JsonGenerator.Feature#AUTO_CLOSE_TARGET} disabled.
+ */
+public final class RelationshipStreamWriter
+        implements Closeable, Flushable
+{
+
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final SequenceWriter sequence;
+
+    private long count;
+
+    public RelationshipStreamWriter( final ObjectMapper mapper, final OutputStream out )
+            throws IOException
+    {
+        this.sequence = writer( mapper ).writeValues( out );
+    }
+
+    public RelationshipStreamWriter( final ObjectMapper mapper, final Writer out )
+            throws IOException
+    {
+        this.sequence = writer( mapper ).writeValues( out );
+    }
+
+    private static ObjectWriter writer( final ObjectMapper mapper )
+    {
+        // flushing after every line would turn each relationship into its own write() on the target
+        return mapper.writerFor( ProjectRelationship.class )
+                     .withRootValueSeparator( LINE_SEPARATOR )
+                     .without( SerializationFeature.FLUSH_AFTER_WRITE_VALUE );
+    }
+
+    public RelationshipStreamWriter write( final ProjectRelationship<?, ?> rel )
+            throws IOException
+    {
+        sequence.write( rel );
+        count++;
+        return this;
+    }
+
+    /**
+     * Drain the iterator into the stream.
+     *
+     * @return the number of relationships written by this call
+     */
+    public long writeAll( final Iterator<? extends ProjectRelationship<?, ?>> rels )
+            throws IOException
+    {
+        long written = 0;
+        while ( rels.hasNext() )
+        {
+            write( rels.next() );
+            written++;
+        }
+
+        return written;
+    }
+
+    /**
+     * @return the number of relationships written so far
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    @Override
+    public void flush()
+            throws IOException
+    {
+        sequence.flush();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        sequence.close();
+    }
+
+}
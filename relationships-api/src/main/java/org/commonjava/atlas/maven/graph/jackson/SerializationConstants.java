@@ -56,7 +56,34 @@ public final class SerializationConstants
 
     public static final String JSON_VERSION = "jsonVersion";
 
-    public static final int CURRENT_JSON_VERSION = 1;
+    /**
+     * One self-contained JSON object per relationship, with every ref and URI written out in full.
+     */
+    public static final int JSON_VERSION_1 = 1;
+
+    /**
+     * Relationship documents write each distinct ref and URI once, in the {@link #REF_DICTIONARY} and
+     * {@link #URI_DICTIONARY} arrays, then each relationship as a tuple of indexes into them:
+     * <pre>[ type, declaring, target, pom-location, idx, flags, [ source, ... ] (, scope | plugin) ]</pre>
+     * where flags is a combination of the <code>FLAG_*</code> bits.
+     */
+    public static final int JSON_VERSION_2 = 2;
+
+    public static final int CURRENT_JSON_VERSION = JSON_VERSION_2;
+
+    public static final String REF_DICTIONARY = "refs";
+
+    public static final String URI_DICTIONARY = "uris";
+
+    public static final int FLAG_MANAGED = 1;
+
+    public static final int FLAG_INHERITED = 1 << 1;
+
+    public static final int FLAG_MIXIN = 1 << 2;
+
+    public static final int FLAG_OPTIONAL = 1 << 3;
+
+    public static final int FLAG_REPORTING = 1 << 4;
 
     public static final String EPROJECT_KEY = "ekey";
 
@@ -66,6 +93,31 @@ public final class SerializationConstants
 
     public static final String CYCLES = "cycles";
 
+    /*
+     * EProjectDirectRelationships fields. The names match the bean properties, so documents written before it had a
+     * dedicated serializer still read back.
+     */
+
+    public static final String SOURCE = "source";
+
+    public static final String PROJECT_REF = "projectRef";
+
+    public static final String PARENT = "parent";
+
+    public static final String BOMS = "boms";
+
+    public static final String DEPENDENCIES = "dependencies";
+
+    public static final String MANAGED_DEPENDENCIES = "managedDependencies";
+
+    public static final String PLUGINS = "plugins";
+
+    public static final String MANAGED_PLUGINS = "managedPlugins";
+
+    public static final String EXTENSIONS = "extensions";
+
+    public static final String PLUGIN_DEPENDENCIES = "pluginDependencies";
+
     public static final String WEB_ROOTS = "gavs";
 
     public static final String GAVS = WEB_ROOTS;
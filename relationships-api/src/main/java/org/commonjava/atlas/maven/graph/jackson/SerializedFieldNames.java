@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Pre-encoded forms of the {@link SerializationConstants} field names. Passing these to
+ * {@link com.fasterxml.jackson.core.JsonGenerator#writeFieldName(SerializableString)} lets the generator copy the
+ * already-quoted bytes instead of escaping the name on every write.
+ */
+final class SerializedFieldNames
+{
+
+    private SerializedFieldNames()
+    {
+    }
+
+    static final SerializableString SOURCE_URIS = new SerializedString( SerializationConstants.SOURCE_URIS );
+
+    static final SerializableString POM_LOCATION_URI = new SerializedString( SerializationConstants.POM_LOCATION_URI );
+
+    static final SerializableString RELATIONSHIP_TYPE =
+            new SerializedString( SerializationConstants.RELATIONSHIP_TYPE );
+
+    static final SerializableString DECLARING_REF = new SerializedString( SerializationConstants.DECLARING_REF );
+
+    static final SerializableString TARGET_REF = new SerializedString( SerializationConstants.TARGET_REF );
+
+    static final SerializableString INDEX = new SerializedString( SerializationConstants.INDEX );
+
+    static final SerializableString INHERITED = new SerializedString( SerializationConstants.INHERITED );
+
+    static final SerializableString MANAGED = new SerializedString( SerializationConstants.MANAGED );
+
+    static final SerializableString MIXIN = new SerializedString( SerializationConstants.MIXIN );
+
+    static final SerializableString OPTIONAL = new SerializedString( SerializationConstants.OPTIONAL );
+
+    static final SerializableString REPORTING = new SerializedString( SerializationConstants.REPORTING );
+
+    static final SerializableString SCOPE = new SerializedString( SerializationConstants.SCOPE );
+
+    static final SerializableString PLUGIN_REF = new SerializedString( SerializationConstants.PLUGIN_REF );
+
+    static final SerializableString JSON_VERSION = new SerializedString( SerializationConstants.JSON_VERSION );
+
+    static final SerializableString RELATIONSHIPS = new SerializedString( SerializationConstants.RELATIONSHIPS );
+
+    static final SerializableString REF_DICTIONARY = new SerializedString( SerializationConstants.REF_DICTIONARY );
+
+    static final SerializableString URI_DICTIONARY = new SerializedString( SerializationConstants.URI_DICTIONARY );
+
+    static final SerializableString SOURCE = new SerializedString( SerializationConstants.SOURCE );
+
+    static final SerializableString PROJECT_REF = new SerializedString( SerializationConstants.PROJECT_REF );
+
+    static final SerializableString PARENT = new SerializedString( SerializationConstants.PARENT );
+
+    static final SerializableString BOMS = new SerializedString( SerializationConstants.BOMS );
+
+    static final SerializableString DEPENDENCIES = new SerializedString( SerializationConstants.DEPENDENCIES );
+
+    static final SerializableString MANAGED_DEPENDENCIES =
+            new SerializedString( SerializationConstants.MANAGED_DEPENDENCIES );
+
+    static final SerializableString PLUGINS = new SerializedString( SerializationConstants.PLUGINS );
+
+    static final SerializableString MANAGED_PLUGINS = new SerializedString( SerializationConstants.MANAGED_PLUGINS );
+
+    static final SerializableString EXTENSIONS = new SerializedString( SerializationConstants.EXTENSIONS );
+
+    static final SerializableString PLUGIN_DEPENDENCIES =
+            new SerializedString( SerializationConstants.PLUGIN_DEPENDENCIES );
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+
+/**
+ * A flat list of relationships, serialized as one JSON document. The JSON format version to write can be chosen per
+ * document; documents that were read back report the version they were read from. See
+ * {@link org.commonjava.atlas.maven.graph.jackson.SerializationConstants#JSON_VERSION_2} for the compact format.
+ */
+public class EProjectRelationshipDocument
+    implements EProjectRelationshipCollection
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Write with the serializer's current format version.
+     */
+    public static final int DEFAULT_JSON_VERSION = 0;
+
+    private final List<ProjectRelationship<?, ?>> relationships;
+
+    private final int jsonVersion;
+
+    public EProjectRelationshipDocument( final Collection<? extends ProjectRelationship<?, ?>> relationships )
+    {
+        this( relationships, DEFAULT_JSON_VERSION );
+    }
+
+    public EProjectRelationshipDocument( final Collection<? extends ProjectRelationship<?, ?>> relationships,
+                                         final int jsonVersion )
+    {
+        this.relationships = Collections.unmodifiableList( new ArrayList<ProjectRelationship<?, ?>>( relationships ) );
+        this.jsonVersion = jsonVersion;
+    }
+
+    public int getJsonVersion()
+    {
+        return jsonVersion;
+    }
+
+    public List<ProjectRelationship<?, ?>> getRelationships()
+    {
+        return relationships;
+    }
+
+    @Override
+    public Collection<ProjectRelationship<?, ?>> getAllRelationships()
+    {
+        return relationships;
+    }
+
+    @Override
+    public Collection<ProjectRelationship<?, ?>> getExactAllRelationships()
+    {
+        return relationships;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "EProjectRelationshipDocument [relationships=" + relationships.size() + ", jsonVersion=" + jsonVersion
+            + "]";
+    }
+
+}
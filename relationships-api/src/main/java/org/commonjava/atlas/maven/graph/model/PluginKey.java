@@ -17,7 +17,9 @@ package org.commonjava.atlas.maven.graph.model;
 
 import org.commonjava.atlas.maven.graph.rel.PluginRelationship;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.util.CoordinateTokenizer;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -34,6 +36,9 @@ public final class PluginKey
 
     private boolean managed;
 
+    // cached by toString(); racy single-check is fine since the fields never change after construction
+    private transient String rendered;
+
     public PluginKey() {}
 
     public PluginKey(ProjectVersionRef target, boolean managed)
@@ -72,21 +77,58 @@ public final class PluginKey
     @Override
     public String toString()
     {
-        return String.format( "%s:%s:%s:%s", groupId, artifactId, version, managed );
+        String result = rendered;
+        if ( result == null )
+        {
+            final StringBuilder sb = new StringBuilder( 64 );
+            try
+            {
+                renderTo( sb );
+            }
+            catch ( final IOException e )
+            {
+                throw new IllegalStateException( "StringBuilder.append() failed", e );
+            }
+
+            result = sb.toString();
+            rendered = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Write the same text as {@link #toString()} to the given output.
+     */
+    public void renderTo( final Appendable out )
+            throws IOException
+    {
+        out.append( groupId )
+           .append( ':' )
+           .append( artifactId )
+           .append( ':' )
+           .append( version )
+           .append( ':' )
+           .append( managed ? "true" : "false" );
     }
 
     public static PluginKey parse( final String pk )
     {
-        final String[] parts = pk.split( ":" );
-        if ( parts.length < 4 )
+        return parse( (CharSequence) pk );
+    }
+
+    public static PluginKey parse( final CharSequence pk )
+    {
+        final CoordinateTokenizer parts = CoordinateTokenizer.tokenize( pk );
+        if ( parts.count() < 4 )
         {
             throw new RuntimeException( "PluginKey parse failed. (Given: '" + pk + "')" );
         }
         PluginKey ret = new PluginKey();
-        ret.groupId = parts[0];
-        ret.artifactId = parts[1];
-        ret.version = parts[2];
-        ret.managed = Boolean.parseBoolean(parts[3]);
+        ret.groupId = parts.field( 0 );
+        ret.artifactId = parts.field( 1 );
+        ret.version = parts.field( 2 );
+        ret.managed = parts.fieldEqualsIgnoreCase( 3, "true" );
         return ret;
     }
 
@@ -26,9 +26,16 @@ import java.util.Iterator;
 import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
 import org.commonjava.atlas.maven.graph.rel.ParentRelationship;
 import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.RelationshipType;
+import org.commonjava.atlas.maven.graph.rel.SimpleBomRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimpleDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleExtensionRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimpleParentRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimplePluginDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimplePluginRelationship;
 import org.commonjava.atlas.maven.ident.DependencyScope;
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
 import org.commonjava.atlas.maven.ident.version.InvalidVersionSpecificationException;
 
@@ -133,6 +140,56 @@ public final class RelationshipUtils
         return new SimpleDependencyRelationship( source, pomLocation, owner, artifact( dep, type, classifier ), scope, index, managed, inherited, optional );
     }
 
+    /**
+     * Build a relationship of any type from already-decoded fields, as the serialized forms store them. The target
+     * must be an {@link ArtifactRef} for dependencies and plugin dependencies, and plugin must be set for the latter.
+     * A null scope means compile. Attributes that don't apply to the given type are ignored.
+     */
+    public static ProjectRelationship<?, ?> relationship( final RelationshipType type, final Collection<URI> sources,
+                                                          final URI pomLocation, final ProjectVersionRef declaring,
+                                                          final ProjectVersionRef target, final ProjectRef plugin,
+                                                          final DependencyScope scope, final int index,
+                                                          final boolean managed, final boolean inherited,
+                                                          final boolean mixin, final boolean optional,
+                                                          final boolean reporting )
+    {
+        switch ( type )
+        {
+            case DEPENDENCY:
+            {
+                return new SimpleDependencyRelationship( sources, pomLocation, declaring, (ArtifactRef) target,
+                                                         scope == null ? DependencyScope.compile : scope, index,
+                                                         managed, inherited, optional );
+            }
+            case EXTENSION:
+            {
+                return new SimpleExtensionRelationship( sources, pomLocation, declaring, target, index, inherited );
+            }
+            case PARENT:
+            {
+                return new SimpleParentRelationship( sources, declaring, target );
+            }
+            case PLUGIN:
+            {
+                return new SimplePluginRelationship( sources, pomLocation, declaring, target, index, managed,
+                                                     reporting, inherited );
+            }
+            case PLUGIN_DEP:
+            {
+                return new SimplePluginDependencyRelationship( sources, pomLocation, declaring, plugin,
+                                                               (ArtifactRef) target, index, managed, inherited );
+            }
+            case BOM:
+            {
+                return new SimpleBomRelationship( sources, pomLocation, declaring, target, index, inherited, mixin );
+            }
+            default:
+            {
+                throw new IllegalArgumentException( "Unsupported relationship type: " + type );
+            }
+        }
+    }
+
     public static void filterTerminalParents( final Collection<? extends ProjectRelationship<?, ?>> rels )
     {
         for (final Iterator<? extends ProjectRelationship<?, ?>> it = rels.iterator(); it.hasNext(); )
@@ -0,0 +1,254 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.binary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.commonjava.atlas.maven.graph.jackson.ProjectRelationshipSerializerModule;
+import org.commonjava.atlas.maven.graph.model.EProjectDirectRelationships;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleBomRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleExtensionRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleParentRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimplePluginDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimplePluginRelationship;
+import org.commonjava.atlas.maven.ident.DependencyScope;
+import org.commonjava.atlas.maven.ident.jackson.ProjectVersionRefSerializerModule;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryRelationshipCodecTest
+{
+
+    private ObjectMapper mapper;
+
+    private URI source;
+
+    private ProjectVersionRef project;
+
+    @Before
+    public void before()
+            throws Exception
+    {
+        mapper = new ObjectMapper();
+        mapper.registerModules( new ProjectVersionRefSerializerModule(), new ProjectRelationshipSerializerModule() );
+
+        source = new URI( "test:source" );
+        project = new SimpleProjectVersionRef( "org.apache.maven", "maven-core", "3.0.3" );
+    }
+
+    @Test
+    public void everyRelationshipTypeMatchesJsonRoundTrip()
+            throws Exception
+    {
+        final List<ProjectRelationship<?, ?>> rels = allTypes();
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final BinaryRelationshipWriter writer = new BinaryRelationshipWriter( new DataOutputStream( baos ) );
+        for ( final ProjectRelationship<?, ?> rel : rels )
+        {
+            writer.write( rel );
+        }
+
+        final BinaryRelationshipReader reader =
+                new BinaryRelationshipReader( new DataInputStream( new ByteArrayInputStream( baos.toByteArray() ) ) );
+
+        int jsonSize = 0;
+        for ( final ProjectRelationship<?, ?> rel : rels )
+        {
+            final String json = mapper.writeValueAsString( rel );
+            jsonSize += json.length();
+
+            final ProjectRelationship<?, ?> fromJson = mapper.readValue( json, ProjectRelationship.class );
+            final ProjectRelationship<?, ?> fromBinary = reader.readRelationship();
+
+            assertThat( fromBinary, equalTo( (Object) fromJson ) );
+            assertThat( fromBinary.getSources(), equalTo( fromJson.getSources() ) );
+            assertThat( fromBinary.getPomLocation(), equalTo( fromJson.getPomLocation() ) );
+            assertThat( fromBinary.getIndex(), equalTo( fromJson.getIndex() ) );
+            assertThat( fromBinary.isManaged(), equalTo( fromJson.isManaged() ) );
+            assertThat( fromBinary.isInherited(), equalTo( fromJson.isInherited() ) );
+            assertThat( fromBinary.isMixin(), equalTo( fromJson.isMixin() ) );
+        }
+
+        assertTrue( "binary: " + baos.size() + ", json: " + jsonSize, baos.size() * 3 < jsonSize );
+    }
+
+    @Test
+    public void directRelationshipsMatchJsonRoundTrip()
+            throws Exception
+    {
+        final EProjectDirectRelationships rels =
+                new EProjectDirectRelationships.Builder( source, project ).withRelationships( allTypes() ).build();
+
+        final ByteBuffer buffer = ByteBuffer.allocate( 4096 );
+        new BinaryRelationshipWriter( buffer ).write( rels );
+        buffer.flip();
+
+        final EProjectDirectRelationships fromBinary = new BinaryRelationshipReader( buffer ).readDirectRelationships();
+        final EProjectDirectRelationships fromJson =
+                mapper.readValue( mapper.writeValueAsString( rels ), EProjectDirectRelationships.class );
+
+        assertThat( buffer.hasRemaining(), equalTo( false ) );
+        assertThat( fromBinary.getSource(), equalTo( fromJson.getSource() ) );
+        assertThat( fromBinary.getProjectRef(), equalTo( fromJson.getProjectRef() ) );
+        assertThat( fromBinary.getParent(), equalTo( fromJson.getParent() ) );
+        assertThat( fromBinary.getBoms(), equalTo( fromJson.getBoms() ) );
+        assertThat( fromBinary.getDependencies(), equalTo( fromJson.getDependencies() ) );
+        assertThat( fromBinary.getManagedDependencies(), equalTo( fromJson.getManagedDependencies() ) );
+        assertThat( fromBinary.getPlugins(), equalTo( fromJson.getPlugins() ) );
+        assertThat( fromBinary.getManagedPlugins(), equalTo( fromJson.getManagedPlugins() ) );
+        assertThat( fromBinary.getExtensions(), equalTo( fromJson.getExtensions() ) );
+        assertThat( fromBinary.getPluginDependencies(), equalTo( fromJson.getPluginDependencies() ) );
+        assertThat( fromBinary.getPluginDependencies().size(), equalTo( 1 ) );
+    }
+
+    @Test( expected = EOFException.class )
+    public void truncatedBufferFailsWithEOF()
+            throws Exception
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate( 1024 );
+        new BinaryRelationshipWriter( buffer ).write( allTypes().get( 2 ) );
+        buffer.flip();
+        buffer.limit( buffer.limit() - 3 );
+
+        new BinaryRelationshipReader( buffer ).readRelationship();
+    }
+
+    @Test( expected = EOFException.class )
+    public void stringLengthPastEndOfBufferFailsWithEOF()
+            throws Exception
+    {
+        final ByteBuffer buffer = ByteBuffer.wrap( hugeStringLength() );
+        new BinaryRelationshipReader( buffer ).readDirectRelationships();
+    }
+
+    @Test( expected = IOException.class )
+    public void stringLengthOverMaximumFailsWithIOException()
+            throws Exception
+    {
+        final DataInputStream in = new DataInputStream( new ByteArrayInputStream( hugeStringLength() ) );
+        new BinaryRelationshipReader( in ).readDirectRelationships();
+    }
+
+    @Test( expected = EOFException.class )
+    public void relationshipCountPastEndOfBufferFailsWithEOF()
+            throws Exception
+    {
+        // version, null source, null project, no parent, then a bom count of Integer.MAX_VALUE
+        final ByteBuffer buffer = ByteBuffer.wrap(
+                new byte[] { BinaryFormat.FORMAT_VERSION, 0, 0, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                        0x07 } );
+
+        new BinaryRelationshipReader( buffer ).readDirectRelationships();
+    }
+
+    @Test( expected = IOException.class )
+    public void negativeStringTagFailsWithIOException()
+            throws Exception
+    {
+        // version, then a source string whose tag varint decodes to Integer.MIN_VALUE
+        final ByteBuffer buffer = ByteBuffer.wrap(
+                new byte[] { BinaryFormat.FORMAT_VERSION, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08 } );
+
+        new BinaryRelationshipReader( buffer ).readDirectRelationships();
+    }
+
+    @Test
+    public void emptyDirectRelationshipsRoundTrip()
+            throws Exception
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate( 64 );
+        new BinaryRelationshipWriter( buffer ).write( new EProjectDirectRelationships() );
+        buffer.flip();
+
+        final EProjectDirectRelationships fromBinary = new BinaryRelationshipReader( buffer ).readDirectRelationships();
+
+        assertThat( buffer.hasRemaining(), equalTo( false ) );
+        assertThat( fromBinary.getParent(), nullValue() );
+        assertThat( fromBinary.getDependencies().isEmpty(), equalTo( true ) );
+        assertThat( fromBinary.getPluginDependencies().isEmpty(), equalTo( true ) );
+    }
+
+    /**
+     * Format version, then a literal string claiming {@link Integer#MAX_VALUE} bytes with nothing after it.
+     */
+    private byte[] hugeStringLength()
+    {
+        return new byte[] { BinaryFormat.FORMAT_VERSION, BinaryFormat.STRING_LITERAL, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, 0x07 };
+    }
+
+    private List<ProjectRelationship<?, ?>> allTypes()
+            throws Exception
+    {
+        final URI other = new URI( "test:other" );
+        final ProjectVersionRef compiler =
+                new SimpleProjectVersionRef( "org.apache.maven.plugins", "maven-compiler-plugin", "2.3.2" );
+
+        final List<ProjectRelationship<?, ?>> rels = new ArrayList<ProjectRelationship<?, ?>>();
+        rels.add( new SimpleParentRelationship( source, project,
+                                                new SimpleProjectVersionRef( "org.apache.maven", "maven", "3.0.3" ) ) );
+        rels.add( new SimpleBomRelationship( source, project,
+                                             new SimpleProjectVersionRef( "org.foo", "foo-bom", "1.0" ), 0, false,
+                                             true ) );
+        rels.add( new SimpleDependencyRelationship( Arrays.asList( source, other ), new URI( "pom:profile:test" ),
+                                                    project,
+                                                    new SimpleArtifactRef( "org.apache.maven", "maven-artifact",
+                                                                           "3.0.3", "test-jar", "tests" ),
+                                                    DependencyScope.test, 0, false, true, true ) );
+        rels.add( new SimpleDependencyRelationship( source, project,
+                                                    new SimpleArtifactRef( "org.apache.maven", "maven-plugin-api",
+                                                                           "3.0.3", null, null ),
+                                                    DependencyScope.provided, 0, true, false, false ) );
+        rels.add( new SimplePluginRelationship( source, project, compiler, 0, false, false ) );
+        rels.add( new SimplePluginRelationship( source, project,
+                                                new SimpleProjectVersionRef( "org.apache.maven.plugins",
+                                                                             "maven-site-plugin", "3.0" ), 0, true,
+                                                true, false ) );
+        rels.add( new SimplePluginDependencyRelationship( source, project, compiler.asProjectRef(),
+                                                          new SimpleArtifactRef( "org.codehaus.plexus",
+                                                                                 "plexus-compiler-javac", "1.8.1",
+                                                                                 null, null ), 0, false, false ) );
+        rels.add( new SimpleExtensionRelationship( source, project,
+                                                   new SimpleProjectVersionRef( "org.apache.maven.wagon",
+                                                                                "wagon-provider-webdav", "1.0" ), 0,
+                                                   true ) );
+        return rels;
+    }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.commonjava.atlas.maven.graph.model.EProjectRelationshipDocument;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.RelationshipConstants;
+import org.commonjava.atlas.maven.graph.rel.SimpleBomRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleExtensionRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleParentRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimplePluginDependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimplePluginRelationship;
+import org.commonjava.atlas.maven.ident.DependencyScope;
+import org.commonjava.atlas.maven.ident.jackson.ProjectVersionRefSerializerModule;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class EProjectRelationshipDocumentSerializerTest
+{
+
+    private ObjectMapper mapper;
+
+    @Before
+    public void before()
+    {
+        mapper = new ObjectMapper();
+        mapper.registerModules( new ProjectVersionRefSerializerModule(), new ProjectRelationshipSerializerModule() );
+    }
+
+    private List<ProjectRelationship<?, ?>> relationships()
+            throws Exception
+    {
+        final URI source = new URI( "test:source" );
+        final URI pom = new URI( "test:pom-location" );
+        final ProjectVersionRef p = new SimpleProjectVersionRef( "org.apache.maven", "maven-core", "3.0.3" );
+
+        final List<ProjectRelationship<?, ?>> rels = new ArrayList<ProjectRelationship<?, ?>>();
+        rels.add( new SimpleParentRelationship( source, p,
+                                                new SimpleProjectVersionRef( "org.apache.maven", "maven", "3.0.3" ) ) );
+        rels.add( new SimpleBomRelationship( source, pom, p,
+                                             new SimpleProjectVersionRef( "org.apache.maven", "maven-bom", "3.0.3" ), 0,
+                                             false, true ) );
+        for ( int i = 0; i < 20; i++ )
+        {
+            rels.add( new SimpleDependencyRelationship( source, RelationshipConstants.POM_ROOT_URI, p,
+                                                        new SimpleArtifactRef( "org.apache.maven", "dep-" + ( i % 5 ),
+                                                                               "3.0.3", "jar",
+                                                                               i % 2 == 0 ? null : "tests" ),
+                                                        DependencyScope.test, i, i % 3 == 0, false, i % 4 == 0 ) );
+        }
+        rels.add( new SimplePluginRelationship( source, pom, p,
+                                                new SimpleProjectVersionRef( "org.apache.maven.plugins",
+                                                                             "maven-site-plugin", "3.0" ), 0, false,
+                                                true, true ) );
+        rels.add( new SimplePluginDependencyRelationship( source, pom, p,
+                                                          new SimpleProjectRef( "org.apache.maven.plugins",
+                                                                                "maven-site-plugin" ),
+                                                          new SimpleArtifactRef( "org.apache.test", "test", "1.1",
+                                                                                 "pom", null ), 0, true, false ) );
+        rels.add( new SimpleExtensionRelationship( source, pom, p,
+                                                   new SimpleProjectVersionRef( "org.apache.maven.wagon",
+                                                                                "wagon-provider-webdav", "1.0" ), 0,
+                                                   true ) );
+        return rels;
+    }
+
+    private void assertRoundTrip( final List<ProjectRelationship<?, ?>> expected, final String json )
+            throws Exception
+    {
+        final EProjectRelationshipDocument result = mapper.readValue( json, EProjectRelationshipDocument.class );
+        assertThat( json, result.getRelationships().size(), equalTo( expected.size() ) );
+        for ( int i = 0; i < expected.size(); i++ )
+        {
+            final ProjectRelationship<?, ?> e = expected.get( i );
+            final ProjectRelationship<?, ?> r = result.getRelationships().get( i );
+            assertThat( json, r, equalTo( (Object) e ) );
+            assertThat( json, r.getPomLocation(), equalTo( e.getPomLocation() ) );
+            assertThat( json, r.getSources(), equalTo( e.getSources() ) );
+            assertThat( json, r.isManaged(), equalTo( e.isManaged() ) );
+            assertThat( json, r.isInherited(), equalTo( e.isInherited() ) );
+            assertThat( json, r.isMixin(), equalTo( e.isMixin() ) );
+        }
+    }
+
+    @Test
+    public void roundTrip_v2()
+            throws Exception
+    {
+        final List<ProjectRelationship<?, ?>> rels = relationships();
+        final String json = mapper.writeValueAsString( new EProjectRelationshipDocument( rels ) );
+
+        assertRoundTrip( rels, json );
+        assertThat( mapper.readValue( json, EProjectRelationshipDocument.class ).getJsonVersion(),
+                    equalTo( SerializationConstants.JSON_VERSION_2 ) );
+    }
+
+    @Test
+    public void roundTrip_v1()
+            throws Exception
+    {
+        final List<ProjectRelationship<?, ?>> rels = relationships();
+        final String json = mapper.writeValueAsString(
+                new EProjectRelationshipDocument( rels, SerializationConstants.JSON_VERSION_1 ) );
+
+        assertRoundTrip( rels, json );
+        assertThat( mapper.readValue( json, EProjectRelationshipDocument.class ).getJsonVersion(),
+                    equalTo( SerializationConstants.JSON_VERSION_1 ) );
+    }
+
+    @Test
+    public void v2IsSmallerThanV1()
+            throws Exception
+    {
+        final List<ProjectRelationship<?, ?>> rels = relationships();
+        final int v1 = mapper.writeValueAsString(
+                new EProjectRelationshipDocument( rels, SerializationConstants.JSON_VERSION_1 ) ).length();
+        final int v2 = mapper.writeValueAsString( new EProjectRelationshipDocument( rels ) ).length();
+
+        assertThat( "v1: " + v1 + ", v2: " + v2, v2 * 3 < v1, equalTo( true ) );
+    }
+
+    @Test
+    public void readsV1RelationshipsWithoutVersionField()
+            throws Exception
+    {
+        final List<ProjectRelationship<?, ?>> rels = relationships();
+        final StringBuilder json = new StringBuilder( "{\"relationships\":[" );
+        for ( int i = 0; i < rels.size(); i++ )
+        {
+            if ( i > 0 )
+            {
+                json.append( ',' );
+            }
+            json.append( mapper.writeValueAsString( rels.get( i ) ) );
+        }
+        json.append( "]}" );
+
+        assertRoundTrip( rels, json.toString() );
+    }
+
+}
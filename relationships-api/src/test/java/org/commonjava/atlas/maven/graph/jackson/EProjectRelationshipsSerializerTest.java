@@ -18,12 +18,18 @@ package org.commonjava.atlas.maven.graph.jackson;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.commonjava.atlas.maven.graph.jackson.ProjectRelationshipSerializerModule;
 import org.commonjava.atlas.maven.graph.model.EProjectDirectRelationships;
+import org.commonjava.atlas.maven.graph.model.PluginKey;
+import org.commonjava.atlas.maven.graph.rel.BomRelationship;
 import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
 import org.commonjava.atlas.maven.graph.rel.ExtensionRelationship;
+import org.commonjava.atlas.maven.graph.rel.ParentRelationship;
 import org.commonjava.atlas.maven.graph.rel.PluginDependencyRelationship;
 import org.commonjava.atlas.maven.graph.rel.PluginRelationship;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleBomRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimpleDependencyRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimpleExtensionRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleParentRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimplePluginDependencyRelationship;
 import org.commonjava.atlas.maven.graph.rel.SimplePluginRelationship;
 import org.commonjava.atlas.maven.ident.DependencyScope;
@@ -36,6 +42,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
@@ -119,4 +129,205 @@ public class EProjectRelationshipsSerializerTest
         assertThat( clone.getManagedDependencies(), equalTo( rels.getManagedDependencies() ) );
         assertThat( clone.getManagedPlugins(), equalTo( rels.getManagedPlugins() ) );
     }
+
+    @Test
+    public void compactFormStatesProjectAndSourceOnce()
+            throws Exception
+    {
+        URI sourceUri = new URI( "test:source" );
+        ProjectVersionRef p = new SimpleProjectVersionRef( "org.apache.maven", "maven-core", "3.0.3" );
+
+        final DependencyRelationship art =
+                new SimpleDependencyRelationship( sourceUri, p, new SimpleArtifactRef( "org.apache.maven", "maven-artifact",
+                        "3.0.3", null, null ), DependencyScope.test,
+                        1, false, false, true );
+
+        final EProjectDirectRelationships rels = new EProjectDirectRelationships.Builder( sourceUri, p )
+                .withParent( new SimpleProjectVersionRef( "org.apache.maven", "maven", "3.0.3" ) )
+                .withDependencies( art )
+                .build();
+
+        String json = mapper.writeValueAsString( rels );
+
+        assertThat( json.split( "org.apache.maven:maven-core:3.0.3", -1 ).length, equalTo( 2 ) );
+        assertThat( json.split( "test:source", -1 ).length, equalTo( 2 ) );
+        assertThat( json.contains( SerializationConstants.DECLARING_REF ), equalTo( false ) );
+        assertThat( json.contains( SerializationConstants.RELATIONSHIP_TYPE ), equalTo( false ) );
+
+        EProjectDirectRelationships clone = mapper.readValue( json, EProjectDirectRelationships.class );
+        assertThat( clone.getParent(), equalTo( rels.getParent() ) );
+        assertThat( clone.getDependencies(), equalTo( rels.getDependencies() ) );
+
+        DependencyRelationship dep = clone.getDependencies().get( 0 );
+        assertThat( dep.getScope(), equalTo( DependencyScope.test ) );
+        assertThat( dep.isOptional(), equalTo( true ) );
+        assertThat( dep.getIndex(), equalTo( 1 ) );
+        assertThat( dep.getSources(), equalTo( rels.getDependencies().get( 0 ).getSources() ) );
+    }
+
+    @Test
+    public void compactFormRoundTripsEveryInferredField()
+            throws Exception
+    {
+        URI sourceUri = new URI( "test:source" );
+        URI otherUri = new URI( "test:other" );
+        URI profile = new URI( "pom:profile:test" );
+        ProjectVersionRef p = new SimpleProjectVersionRef( "org.apache.maven", "maven-core", "3.0.3" );
+        ProjectVersionRef parentRef = new SimpleProjectVersionRef( "org.apache.maven", "maven", "3.0.3" );
+        ProjectVersionRef compiler =
+                new SimpleProjectVersionRef( "org.apache.maven.plugins", "maven-compiler-plugin", "2.3.2" );
+        ProjectVersionRef surefire =
+                new SimpleProjectVersionRef( "org.apache.maven.plugins", "maven-surefire-plugin", "2.18.1" );
+        List<URI> bothSources = Arrays.asList( sourceUri, otherUri );
+
+        ParentRelationship parent = new SimpleParentRelationship( sourceUri, p, parentRef );
+
+        List<BomRelationship> boms = Arrays.<BomRelationship>asList(
+                new SimpleBomRelationship( sourceUri, p, new SimpleProjectVersionRef( "org.foo", "foo-bom", "1.0" ), 0,
+                                           false, false ),
+                new SimpleBomRelationship( sourceUri, profile, p,
+                                           new SimpleProjectVersionRef( "org.foo", "mixin-bom", "1.0" ), 1, true,
+                                           true ) );
+
+        List<DependencyRelationship> dependencies = Arrays.<DependencyRelationship>asList(
+                new SimpleDependencyRelationship( sourceUri, p, new SimpleArtifactRef( "org.apache.maven",
+                        "maven-artifact", "3.0.3", null, null ), DependencyScope.compile, 0, false, false, false ),
+                new SimpleDependencyRelationship( bothSources, profile, p,
+                        new SimpleArtifactRef( "org.apache.maven", "maven-plugin-api", "3.0.3", "test-jar",
+                                               "tests" ), DependencyScope.test, 1, false, false, true ),
+                new SimpleDependencyRelationship( otherUri, parentRef, new SimpleArtifactRef( "junit", "junit",
+                        "4.12", null, null ), DependencyScope.test, 2, false, true, false ) );
+
+        List<DependencyRelationship> managedDependencies = Arrays.<DependencyRelationship>asList(
+                new SimpleDependencyRelationship( sourceUri, p, new SimpleArtifactRef( "org.slf4j", "slf4j-api",
+                        "1.7.25", null, null ), DependencyScope.provided, 0, true, false, false ) );
+
+        List<PluginRelationship> plugins = Arrays.<PluginRelationship>asList(
+                new SimplePluginRelationship( sourceUri, p, compiler, 0, false, false ),
+                new SimplePluginRelationship( sourceUri, profile, p,
+                                              new SimpleProjectVersionRef( "org.apache.maven.plugins",
+                                                                           "maven-javadoc-plugin", "2.10" ), 1,
+                                              false, true, true ) );
+
+        List<PluginRelationship> managedPlugins = Arrays.<PluginRelationship>asList(
+                new SimplePluginRelationship( sourceUri, p, surefire, 0, true, false ) );
+
+        List<ExtensionRelationship> extensions = Arrays.<ExtensionRelationship>asList(
+                new SimpleExtensionRelationship( Arrays.asList( otherUri ), profile, parentRef,
+                                                 new SimpleProjectVersionRef( "org.apache.maven.wagon",
+                                                                              "wagon-provider-webdav", "1.0" ), 3,
+                                                 true ) );
+
+        Map<PluginKey, List<PluginDependencyRelationship>> pluginDependencies =
+                new HashMap<PluginKey, List<PluginDependencyRelationship>>();
+        pluginDependencies.put( new PluginKey( compiler, false ), Arrays.<PluginDependencyRelationship>asList(
+                new SimplePluginDependencyRelationship( sourceUri, p, compiler.asProjectRef(),
+                        new SimpleArtifactRef( "org.codehaus.plexus", "plexus-compiler-javac", "1.8.1", null,
+                                               null ), 0, false, false ),
+                new SimplePluginDependencyRelationship( bothSources, profile, parentRef, surefire.asProjectRef(),
+                        new SimpleArtifactRef( "org.apache.maven.surefire", "surefire-junit4", "2.18.1", null,
+                                               null ), 1, false, true ) ) );
+        pluginDependencies.put( new PluginKey( surefire, true ), Arrays.<PluginDependencyRelationship>asList(
+                new SimplePluginDependencyRelationship( sourceUri, p, surefire.asProjectRef(),
+                        new SimpleArtifactRef( "org.apache.maven.surefire", "surefire-junit47", "2.18.1", null,
+                                               null ), 0, true, false ) ) );
+
+        final EProjectDirectRelationships rels =
+                new EProjectDirectRelationships( sourceUri, p, parent, boms, dependencies, plugins,
+                                                 managedDependencies, managedPlugins, extensions,
+                                                 pluginDependencies );
+
+        String json = mapper.writeValueAsString( rels );
+        EProjectDirectRelationships clone = mapper.readValue( json, EProjectDirectRelationships.class );
+
+        assertThat( clone.getSource(), equalTo( sourceUri ) );
+        assertThat( clone.getProjectRef(), equalTo( p ) );
+        assertSameRelationship( json, parent, clone.getParent() );
+        assertSameRelationships( json, boms, clone.getBoms() );
+        assertSameRelationships( json, dependencies, clone.getDependencies() );
+        assertSameRelationships( json, managedDependencies, clone.getManagedDependencies() );
+        assertSameRelationships( json, plugins, clone.getPlugins() );
+        assertSameRelationships( json, managedPlugins, clone.getManagedPlugins() );
+        assertSameRelationships( json, extensions, clone.getExtensions() );
+
+        assertThat( json, clone.getPluginDependencies().keySet(), equalTo( pluginDependencies.keySet() ) );
+        for ( Map.Entry<PluginKey, List<PluginDependencyRelationship>> entry : pluginDependencies.entrySet() )
+        {
+            assertSameRelationships( json, entry.getValue(), clone.getPluginDependencies().get( entry.getKey() ) );
+        }
+    }
+
+    /**
+     * Relationship equality only covers type, declaring and target, so compare everything the JSON carries.
+     */
+    private static void assertSameRelationships( final String json,
+                                                 final List<? extends ProjectRelationship<?, ?>> expected,
+                                                 final List<? extends ProjectRelationship<?, ?>> actual )
+    {
+        assertThat( json, actual.size(), equalTo( expected.size() ) );
+        for ( int i = 0; i < expected.size(); i++ )
+        {
+            assertSameRelationship( json, expected.get( i ), actual.get( i ) );
+        }
+    }
+
+    private static void assertSameRelationship( final String json, final ProjectRelationship<?, ?> expected,
+                                                final ProjectRelationship<?, ?> actual )
+    {
+        final String reason = expected + " in " + json;
+        assertThat( reason, actual.getType(), equalTo( expected.getType() ) );
+        assertThat( reason, (Object) actual.getDeclaring(), equalTo( (Object) expected.getDeclaring() ) );
+        assertThat( reason, (Object) actual.getTarget(), equalTo( (Object) expected.getTarget() ) );
+        assertThat( reason, actual.getPomLocation(), equalTo( expected.getPomLocation() ) );
+        assertThat( reason, actual.getSources(), equalTo( expected.getSources() ) );
+        assertThat( reason, actual.getIndex(), equalTo( expected.getIndex() ) );
+        assertThat( reason, actual.isManaged(), equalTo( expected.isManaged() ) );
+        assertThat( reason, actual.isInherited(), equalTo( expected.isInherited() ) );
+        assertThat( reason, actual.isMixin(), equalTo( expected.isMixin() ) );
+
+        if ( expected instanceof DependencyRelationship )
+        {
+            final DependencyRelationship e = (DependencyRelationship) expected;
+            final DependencyRelationship a = (DependencyRelationship) actual;
+            assertThat( reason, a.getScope(), equalTo( e.getScope() ) );
+            assertThat( reason, a.isOptional(), equalTo( e.isOptional() ) );
+        }
+        else if ( expected instanceof PluginRelationship )
+        {
+            assertThat( reason, ( (PluginRelationship) actual ).isReporting(),
+                        equalTo( ( (PluginRelationship) expected ).isReporting() ) );
+        }
+        else if ( expected instanceof PluginDependencyRelationship )
+        {
+            assertThat( reason, ( (PluginDependencyRelationship) actual ).getPlugin(),
+                        equalTo( ( (PluginDependencyRelationship) expected ).getPlugin() ) );
+        }
+    }
+
+    @Test
+    public void fullRelationshipFormStillReads()
+            throws Exception
+    {
+        String json = "{\"source\":\"test:source\",\"projectRef\":\"org.foo:foo:1.0\",\"boms\":[],"
+                + "\"dependencies\":[{\"type\":\"DEPENDENCY\",\"pom-location-uri\":\"pom:root\","
+                + "\"inherited\":false,\"source-uris\":[\"test:source\"],\"declaring\":\"org.foo:foo:1.0\","
+                + "\"target\":\"org.foo:bar:jar:2.0\",\"scope\":\"runtime\",\"managed\":false,"
+                + "\"optional\":false,\"idx\":0}],\"managedDependencies\":[],\"plugins\":[],"
+                + "\"managedPlugins\":[],\"extensions\":[],\"parent\":null,\"pluginDependencies\":{}}";
+
+        EProjectDirectRelationships rels = mapper.readValue( json, EProjectDirectRelationships.class );
+
+        ProjectVersionRef p = new SimpleProjectVersionRef( "org.foo", "foo", "1.0" );
+        assertThat( rels.getProjectRef(), equalTo( p ) );
+        assertThat( rels.getSource(), equalTo( new URI( "test:source" ) ) );
+        assertThat( rels.getDependencies().size(), equalTo( 1 ) );
+        assertThat( rels.getDependencies().get( 0 ),
+                    equalTo( (DependencyRelationship) new SimpleDependencyRelationship( new URI( "test:source" ), p,
+                                                                                        new SimpleArtifactRef(
+                                                                                                "org.foo", "bar",
+                                                                                                "2.0", "jar", null ),
+                                                                                        DependencyScope.runtime, 0,
+                                                                                        false, false, false ) ) );
+        assertThat( rels.getDependencies().get( 0 ).getScope(), equalTo( DependencyScope.runtime ) );
+    }
 }
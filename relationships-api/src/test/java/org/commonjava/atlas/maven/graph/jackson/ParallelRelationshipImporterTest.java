@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleDependencyRelationship;
+import org.commonjava.atlas.maven.ident.DependencyScope;
+import org.commonjava.atlas.maven.ident.jackson.ProjectVersionRefSerializerModule;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelRelationshipImporterTest
+{
+
+    private static final int COUNT = 2500;
+
+    private static final int CHUNK_SIZE = 100;
+
+    private ObjectMapper mapper;
+
+    private ForkJoinPool pool;
+
+    private ParallelRelationshipImporter importer;
+
+    private List<ProjectRelationship<?, ?>> rels;
+
+    @Before
+    public void before()
+            throws Exception
+    {
+        mapper = new ObjectMapper();
+        mapper.registerModules( new ProjectVersionRefSerializerModule(), new ProjectRelationshipSerializerModule() );
+
+        pool = new ForkJoinPool( 4 );
+        importer = new ParallelRelationshipImporter( mapper, pool, CHUNK_SIZE );
+
+        final URI source = new URI( "test:source" );
+        final ProjectVersionRef project = new SimpleProjectVersionRef( "org.foo", "foo", "1.0" );
+
+        rels = new ArrayList<ProjectRelationship<?, ?>>();
+        for ( int i = 0; i < COUNT; i++ )
+        {
+            rels.add( new SimpleDependencyRelationship( source, project,
+                                                        new SimpleArtifactRef( "org.dep", "dep-" + i, "1." + i, null,
+                                                                               null ), DependencyScope.compile, i,
+                                                        false, false, false ) );
+        }
+    }
+
+    @After
+    public void after()
+    {
+        importer.close();
+        pool.shutdown();
+    }
+
+    @Test
+    public void orderedArrayImportKeepsInputOrder()
+            throws Exception
+    {
+        final byte[] json = mapper.writeValueAsBytes( rels );
+
+        final ParallelRelationshipImporter.Result result =
+                importer.importRelationships( new ByteArrayInputStream( json ) );
+
+        assertThat( result.isComplete(), equalTo( true ) );
+        assertThat( result.getRelationships(), equalTo( rels ) );
+    }
+
+    @Test
+    public void callbackImportDeliversChunksBeforeTheInputIsRead()
+            throws Exception
+    {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (RelationshipStreamWriter writer = new RelationshipStreamWriter( mapper, baos ))
+        {
+            writer.writeAll( rels.iterator() );
+        }
+
+        final String json = new String( baos.toByteArray(), StandardCharsets.UTF_8 );
+        final CountingReader in = new CountingReader( new StringReader( json ) );
+        final HashSet<ProjectRelationship<?, ?>> imported = new HashSet<ProjectRelationship<?, ?>>();
+        final Set<Integer> chunks = new HashSet<Integer>();
+        final long[] readAtFirstChunk = { -1 };
+
+        importer.importRelationships( in, new ParallelRelationshipImporter.ChunkCallback()
+        {
+            @Override
+            public void imported( final int chunk, final long firstElement,
+                                  final List<ProjectRelationship<?, ?>> relationships )
+            {
+                if ( readAtFirstChunk[0] < 0 )
+                {
+                    readAtFirstChunk[0] = in.count;
+                }
+
+                assertThat( firstElement, equalTo( (long) chunk * CHUNK_SIZE ) );
+                assertThat( (Object) relationships.get( 0 ), equalTo( (Object) rels.get( (int) firstElement ) ) );
+                chunks.add( chunk );
+                imported.addAll( relationships );
+            }
+
+            @Override
+            public void failed( final ParallelRelationshipImporter.Failure failure )
+            {
+                fail( "Unexpected failure: " + failure );
+            }
+        } );
+
+        assertThat( chunks.size(), equalTo( COUNT / CHUNK_SIZE ) );
+        assertThat( imported, equalTo( new HashSet<ProjectRelationship<?, ?>>( rels ) ) );
+        assertTrue( "first chunk only delivered after reading " + readAtFirstChunk[0] + " of " + json.length(),
+                    readAtFirstChunk[0] < json.length() );
+    }
+
+    @Test
+    public void callbackImportReportsFailedChunks()
+            throws Exception
+    {
+        final String json = mapper.writeValueAsString( rels );
+        final int bad = 7;
+        final String broken = json.replace( "\"org.dep:dep-" + bad + ":jar:1." + bad + "\"", "\"org.dep\"" );
+
+        final List<ParallelRelationshipImporter.Failure> failures = new ArrayList<ParallelRelationshipImporter.Failure>();
+        final int[] imported = { 0 };
+        importer.importRelationships( new StringReader( broken ), new ParallelRelationshipImporter.ChunkCallback()
+        {
+            @Override
+            public void imported( final int chunk, final long firstElement,
+                                  final List<ProjectRelationship<?, ?>> relationships )
+            {
+                imported[0] += relationships.size();
+            }
+
+            @Override
+            public void failed( final ParallelRelationshipImporter.Failure failure )
+            {
+                failures.add( failure );
+            }
+        } );
+
+        assertThat( failures.size(), equalTo( 1 ) );
+        assertThat( failures.get( 0 ).getChunk(), equalTo( 0 ) );
+        assertThat( failures.get( 0 ).getFailedElement(), equalTo( (long) bad ) );
+        assertThat( imported[0], equalTo( COUNT - CHUNK_SIZE ) );
+    }
+
+    @Test
+    public void badElementFailsOnlyItsChunk()
+            throws Exception
+    {
+        final String json = mapper.writeValueAsString( rels );
+        final int bad = 3 * CHUNK_SIZE + 7;
+        final String broken = json.replace( "\"org.dep:dep-" + bad + ":jar:1." + bad + "\"", "\"org.dep\"" );
+
+        final ParallelRelationshipImporter.Result result = importer.importRelationships( new StringReader( broken ) );
+
+        assertThat( result.isComplete(), equalTo( false ) );
+        assertThat( result.getFailures().size(), equalTo( 1 ) );
+
+        final ParallelRelationshipImporter.Failure failure = result.getFailures().get( 0 );
+        assertThat( failure.getChunk(), equalTo( 3 ) );
+        assertThat( failure.getFirstElement(), equalTo( 3L * CHUNK_SIZE ) );
+        assertThat( failure.getFailedElement(), equalTo( (long) bad ) );
+
+        final List<ProjectRelationship<?, ?>> expected = new ArrayList<ProjectRelationship<?, ?>>( rels );
+        expected.subList( 3 * CHUNK_SIZE, 4 * CHUNK_SIZE ).clear();
+        assertThat( result.getRelationships(), equalTo( expected ) );
+    }
+
+    @Test( expected = JsonParseException.class )
+    public void nonObjectElementStopsTheImport()
+            throws Exception
+    {
+        importer.importRelationships( new StringReader( "[ {}, 42 ]" ) );
+    }
+
+    private static final class CountingReader
+            extends FilterReader
+    {
+        private volatile long count;
+
+        CountingReader( final Reader in )
+        {
+            super( in );
+        }
+
+        @Override
+        public int read( final char[] cbuf, final int off, final int len )
+                throws IOException
+        {
+            final int read = super.read( cbuf, off, len );
+            if ( read > 0 )
+            {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.commonjava.atlas.maven.graph.jackson;
 
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.commonjava.atlas.maven.graph.jackson.ProjectRelationshipSerializerModule;
 import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
@@ -32,7 +33,9 @@ import org.junit.Test;
 import java.net.URI;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Created by jdcasey on 8/21/15.
@@ -96,4 +99,41 @@ public class ProjectRelationshipSerializerModuleTest
 
         assertThat( (DependencyRelationship) result, equalTo( rel ) );
     }
+
+    @Test
+    public void unknownFieldsAreSkipped()
+            throws Exception
+    {
+        String json = "{\"type\":\"DEPENDENCY\",\"extra\":{\"nested\":[1,{\"type\":\"PARENT\"}]},"
+                + "\"source-uris\":[\"some:test:location\"],\"declaring\":\"org.foo:bar:1\","
+                + "\"target\":\"org.foo:dep:jar:1.1\",\"scope\":\"test\",\"optional\":true,\"idx\":2}";
+
+        DependencyRelationship result = (DependencyRelationship) mapper.readValue( json, ProjectRelationship.class );
+
+        assertThat( result.getScope(), equalTo( DependencyScope.test ) );
+        assertThat( result.isOptional(), equalTo( true ) );
+        assertThat( result.isManaged(), equalTo( false ) );
+        assertThat( result.getIndex(), equalTo( 2 ) );
+        assertThat( result.getPomLocation(), equalTo( RelationshipConstants.POM_ROOT_URI ) );
+        assertThat( result.getSources().contains( URI.create( "some:test:location" ) ), equalTo( true ) );
+    }
+
+    @Test
+    public void invalidUriReportsLocation()
+            throws Exception
+    {
+        String json = "{\"type\":\"PARENT\",\"pom-location-uri\":\"not a uri\",\"declaring\":\"org.foo:bar:1\","
+                + "\"target\":\"org.foo:parent:1\"}";
+
+        try
+        {
+            mapper.readValue( json, ProjectRelationship.class );
+            fail( "Invalid pom-location-uri should fail" );
+        }
+        catch ( final JsonParseException e )
+        {
+            assertThat( e.getLocation(), notNullValue() );
+            assertThat( e.getLocation().getColumnNr() > 1, equalTo( true ) );
+        }
+    }
 }
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2012 Red Hat, Inc. (nos-devel@redhat.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.commonjava.atlas.maven.graph.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.commonjava.atlas.maven.graph.rel.DependencyRelationship;
+import org.commonjava.atlas.maven.graph.rel.ProjectRelationship;
+import org.commonjava.atlas.maven.graph.rel.SimpleDependencyRelationship;
+import org.commonjava.atlas.maven.ident.DependencyScope;
+import org.commonjava.atlas.maven.ident.jackson.ProjectVersionRefSerializerModule;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class RelationshipStreamTest
+{
+
+    private static final int COUNT = 500;
+
+    private ObjectMapper mapper;
+
+    private URI source;
+
+    private ProjectVersionRef project;
+
+    @Before
+    public void before()
+            throws Exception
+    {
+        mapper = new ObjectMapper();
+        mapper.registerModules( new ProjectVersionRefSerializerModule(), new ProjectRelationshipSerializerModule() );
+
+        source = new URI( "test:source" );
+        project = new SimpleProjectVersionRef( "org.foo", "foo", "1.0" );
+    }
+
+    @Test
+    public void iteratorRoundTripThroughCallback()
+            throws Exception
+    {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (RelationshipStreamWriter writer = new RelationshipStreamWriter( mapper, baos ))
+        {
+            assertThat( writer.writeAll( generate() ), equalTo( (long) COUNT ) );
+        }
+
+        final String[] lines = baos.toString( "UTF-8" ).split( "\n" );
+        assertThat( lines.length, equalTo( COUNT ) );
+
+        final Iterator<DependencyRelationship> expected = generate();
+        try (RelationshipStreamReader reader = new RelationshipStreamReader( mapper, new ByteArrayInputStream(
+                baos.toByteArray() ) ))
+        {
+            final long read = reader.readAll( new RelationshipStreamReader.Callback()
+            {
+                @Override
+                public void relationship( final ProjectRelationship<?, ?> rel )
+                {
+                    assertThat( rel, equalTo( (Object) expected.next() ) );
+                }
+            } );
+
+            assertThat( read, equalTo( (long) COUNT ) );
+            assertThat( reader.next(), nullValue() );
+        }
+    }
+
+    @Test
+    public void readsElementsOfJsonArray()
+            throws Exception
+    {
+        final List<ProjectRelationship<?, ?>> rels = new ArrayList<ProjectRelationship<?, ?>>();
+        final Iterator<DependencyRelationship> it = generate();
+        rels.addAll( Arrays.asList( it.next(), it.next(), it.next() ) );
+
+        final String json = mapper.writeValueAsString( rels );
+
+        final List<ProjectRelationship<?, ?>> result = new ArrayList<ProjectRelationship<?, ?>>();
+        try (RelationshipStreamReader reader = new RelationshipStreamReader( mapper, new StringReader( json ) ))
+        {
+            ProjectRelationship<?, ?> rel;
+            while ( ( rel = reader.next() ) != null )
+            {
+                result.add( rel );
+            }
+        }
+
+        assertThat( result, equalTo( rels ) );
+    }
+
+    @Test( expected = IOException.class )
+    public void callbackFailureStopsReading()
+            throws Exception
+    {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (RelationshipStreamWriter writer = new RelationshipStreamWriter( mapper, baos ))
+        {
+            writer.writeAll( generate() );
+        }
+
+        try (RelationshipStreamReader reader = new RelationshipStreamReader( mapper, new ByteArrayInputStream(
+                baos.toByteArray() ) ))
+        {
+            reader.readAll( new RelationshipStreamReader.Callback()
+            {
+                @Override
+                public void relationship( final ProjectRelationship<?, ?> rel )
+                        throws IOException
+                {
+                    throw new IOException( "stop" );
+                }
+            } );
+        }
+    }
+
+    private Iterator<DependencyRelationship> generate()
+    {
+        return new Iterator<DependencyRelationship>()
+        {
+            private int i;
+
+            @Override
+            public boolean hasNext()
+            {
+                return i < COUNT;
+            }
+
+            @Override
+            public DependencyRelationship next()
+            {
+                if ( !hasNext() )
+                {
+                    throw new NoSuchElementException();
+                }
+
+                final int idx = i++;
+                return new SimpleDependencyRelationship( source, project,
+                                                         new SimpleArtifactRef( "org.dep", "dep-" + idx, "1." + idx,
+                                                                                null, null ), DependencyScope.compile,
+                                                         idx, false, false, false );
+            }
+
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}